@@ -0,0 +1,64 @@
+package com.example.agent.ai.model;
+
+import com.example.agent.common.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the API's response bodies, using an ObjectMapper configured like
+ * Spring Boot's (Java time module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    private int taskCount;
+
+    private ObjectMapper objectMapper;
+    private QueryResponse queryResponse;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        tasks = new ArrayList<>(taskCount);
+        for (long id = 1; id <= taskCount; id++) {
+            tasks.add(new Task(id, "Task number " + id, id % 3 == 0, now, null, now.plusDays(id),
+                id % 2 == 0 ? "HIGH" : "LOW", "Constraint " + id, null, null, null));
+        }
+        queryResponse = new QueryResponse("Task processed successfully", tasks.get(0), false, null,
+            "3f2b8c1e-5a47-4d0e-9f5c-2b1d7e6a9c10");
+    }
+
+    @Benchmark
+    public byte[] queryResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(queryResponse);
+    }
+
+    @Benchmark
+    public byte[] taskList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.agent.ai.service.decision;
+
+import ch.qos.logback.classic.Level;
+import com.example.agent.ai.metrics.QueryMetrics;
+import com.example.agent.ai.model.ConversationContext;
+import com.example.agent.common.model.TaskData;
+import com.example.agent.task.service.action.CompleteTaskAction;
+import com.example.agent.task.service.action.CreateTaskAction;
+import com.example.agent.task.service.action.ListTasksAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt building and the decision tail (parameter building and action dispatch), plus a full
+ * decide() on the local fast path, which involves no LLM call. Logging is raised to WARN so the
+ * numbers reflect the code rather than console output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecisionBenchmark {
+    private Refinement refinement;
+    private DecisionMaker decisionMaker;
+    private TaskData previousData;
+    private ConversationContext createContext;
+    private ConversationContext completeContext;
+    private Map<String, Object> fastPathQuery;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        refinement = new Refinement(null);
+        SimpleAsyncTaskExecutor stageExecutor = new SimpleAsyncTaskExecutor();
+        stageExecutor.setVirtualThreads(true);
+        decisionMaker = new DecisionMaker(
+            null,
+            List.of(new CreateTaskAction(null), new ListTasksAction(null), new CompleteTaskAction(null)),
+            refinement,
+            new IntentCache(0, Duration.ZERO, meterRegistry),
+            new LocalIntentClassifier(0.8, 0.0, meterRegistry),
+            new QueryMetrics(meterRegistry),
+            stageExecutor,
+            DecisionMode.COMBINED,
+            Duration.ofSeconds(30));
+
+        previousData = new TaskData("Buy groceries", null, "HIGH", null, null);
+        createContext = new ConversationContext("CREATE_TASK",
+            new TaskData("Buy groceries", "2030-04-01T10:00:00", "HIGH", "Must include vegetables", null),
+            false, null, null);
+        completeContext = new ConversationContext("COMPLETE_TASK", TaskData.createForCompletion("42"), false, null, null);
+        fastPathQuery = Map.of("query", "Complete task 42");
+    }
+
+    @Benchmark
+    public String buildPromptForNewTask() {
+        return refinement.buildPrompt("Create a task to buy groceries tomorrow with high priority", null);
+    }
+
+    @Benchmark
+    public String buildPromptWithPreviousData() {
+        return refinement.buildPrompt("Set the deadline to tomorrow", previousData);
+    }
+
+    @Benchmark
+    public Optional<ActionDecision> toDecisionForCreate() {
+        return decisionMaker.toDecision("Create a task to buy groceries", "CREATE_TASK", createContext);
+    }
+
+    @Benchmark
+    public Optional<ActionDecision> toDecisionForComplete() {
+        return decisionMaker.toDecision("Complete task 42", "COMPLETE_TASK", completeContext);
+    }
+
+    @Benchmark
+    public Optional<ActionDecision> decideOnFastPath() {
+        return decisionMaker.decide(fastPathQuery);
+    }
+}
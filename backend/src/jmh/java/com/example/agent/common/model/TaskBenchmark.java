@@ -0,0 +1,58 @@
+package com.example.agent.common.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task construction and validation on the create, update and complete paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskBenchmark {
+    private LocalDateTime deadline;
+    private Task task;
+    private TaskData taskData;
+
+    @Setup
+    public void setUp() {
+        deadline = LocalDateTime.now().plusDays(30);
+        task = new Task(1L, "Buy groceries", false, LocalDateTime.now(), null, deadline, "HIGH",
+            "Must include vegetables", null, null, null);
+        taskData = new TaskData("Buy groceries and fruit", deadline.plusDays(1).toString(), "MEDIUM", null, null);
+    }
+
+    @Benchmark
+    public Task createNewWithDetails() {
+        return Task.createNewWithDetails("Buy groceries", deadline, "HIGH", "Must include vegetables", null, null);
+    }
+
+    @Benchmark
+    public Task update() {
+        return task.update("Buy groceries and fruit", null, "MEDIUM", null);
+    }
+
+    @Benchmark
+    public Task updateFromTaskData() {
+        return task.updateFromTaskData(taskData);
+    }
+
+    @Benchmark
+    public Task markCompleted() {
+        return task.markCompleted();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.agent.task.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.relational.core.dialect.H2Dialect;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing one task's metadata column: through {@link TaskMetadataCodec}, against
+ * parsing through a JsonNode tree and against a converter that builds its ObjectMapper per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMetadataCodecBenchmark {
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+    private TaskMetadataCodec codec;
+    private Map<String, Object> metadata;
+    private byte[] column;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new TaskMetadataCodec(objectMapper, H2Dialect.INSTANCE);
+        metadata = Map.of(
+            "tags", List.of("home", "errands", "weekly"),
+            "owner", "sam",
+            "estimateMinutes", 45,
+            "source", Map.of("channel", "email", "threadId", "18c2f0a9d4e7b3c1"));
+        column = (byte[]) codec.toColumn(metadata);
+    }
+
+    @Benchmark
+    public Map<String, Object> readCodec() {
+        return codec.fromColumn(column);
+    }
+
+    @Benchmark
+    public Map<String, Object> readThroughTree() throws IOException {
+        JsonNode tree = objectMapper.readTree(column);
+        return objectMapper.convertValue(tree, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Map<String, Object> readWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(column, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Object writeCodec() {
+        return codec.toColumn(metadata);
+    }
+
+    @Benchmark
+    public byte[] writeWithNewMapper() throws IOException {
+        return new ObjectMapper().writeValueAsBytes(metadata);
+    }
+}
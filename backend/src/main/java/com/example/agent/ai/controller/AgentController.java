@@ -2,24 +2,80 @@ package com.example.agent.ai.controller;
 
 import com.example.agent.ai.model.QueryRequest;
 import com.example.agent.ai.model.QueryResponse;
+import com.example.agent.common.model.CompleteTasksRequest;
+import com.example.agent.common.model.NewTask;
 import com.example.agent.common.model.Task;
-import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.common.model.TaskStats;
+import com.example.agent.common.model.TaskSummary;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskForest;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskSort;
+import com.example.agent.task.repository.TaskSummaryPage;
+import com.example.agent.task.service.TaskNotFoundException;
+import com.example.agent.task.service.TaskService;
+import com.example.agent.task.service.TaskStatistics;
+import com.example.agent.task.service.event.TaskEventHub;
 import com.example.agent.ai.service.AIService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
-@CrossOrigin(origins = "http://localhost:5173") // For development
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = AgentController.NEXT_CURSOR_HEADER) // For development
 public class AgentController {
+    private static final Logger logger = LoggerFactory.getLogger(AgentController.class);
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(2);
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+
     private final AIService aiService;
-    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+    private final TaskStatistics taskStatistics;
+    private final TaskEventHub taskEventHub;
+    private final TaskExecutor streamExecutor;
+    private final ObjectMapper objectMapper;
 
-    public AgentController(AIService aiService, TaskRepository taskRepository) {
+    public AgentController(
+            AIService aiService,
+            TaskService taskService,
+            TaskStatistics taskStatistics,
+            TaskEventHub taskEventHub,
+            @Qualifier("applicationTaskExecutor") TaskExecutor streamExecutor,
+            ObjectMapper objectMapper) {
         this.aiService = aiService;
-        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.taskStatistics = taskStatistics;
+        this.taskEventHub = taskEventHub;
+        this.streamExecutor = streamExecutor;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/query")
@@ -27,55 +83,341 @@ public class AgentController {
         return ResponseEntity.ok(aiService.processQuery(request));
     }
 
+    /**
+     * Streams query progress as Server-Sent Events: "intent", "token" (refinement output),
+     * "action" and finally "response" with the QueryResponse, or "error".
+     * The pipeline runs on the application task executor (virtual threads), so the request
+     * thread is released as soon as the emitter is returned.
+     */
+    @PostMapping(path = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuery(@RequestBody QueryRequest request) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        streamExecutor.execute(() -> {
+            QueryEventStream events = new QueryEventStream(emitter);
+            try {
+                events.onResponse(aiService.processQueryStreaming(request, events));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                logger.debug("Query stream closed by client: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                logger.warn("Query stream failed: {}", e.getMessage());
+                events.onError(e.getMessage());
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    /*
+     * The list endpoints return one keyset page ordered by (created_at, id). When more rows
+     * remain, the X-Next-Cursor header carries the cursor to pass back as ?cursor= for the next page.
+     */
+
     @GetMapping("/tasks")
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok((List<Task>) taskRepository.findAll());
+    public ResponseEntity<List<Task>> getAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(TaskFilter.ALL, cursor, limit);
     }
 
     @GetMapping("/tasks/active")
-    public ResponseEntity<List<Task>> getActiveTasks() {
-        return ResponseEntity.ok(taskRepository.findByCompletedFalse());
+    public ResponseEntity<List<Task>> getActiveTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(TaskFilter.active(), cursor, limit);
     }
 
     @GetMapping("/tasks/{id}/subtasks")
-    public ResponseEntity<List<Task>> getSubtasks(@PathVariable Long id) {
-        return ResponseEntity.ok(taskRepository.findSubtasks(id));
+    public ResponseEntity<List<Task>> getSubtasks(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(TaskFilter.subtasksOf(id), cursor, limit);
     }
 
     @GetMapping("/tasks/root")
-    public ResponseEntity<List<Task>> getRootTasks() {
-        return ResponseEntity.ok(taskRepository.findRootTasks());
+    public ResponseEntity<List<Task>> getRootTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(TaskFilter.root(), cursor, limit);
     }
 
     @GetMapping("/tasks/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable String priority) {
-        return ResponseEntity.ok(taskRepository.findByPriority(priority));
+    public ResponseEntity<List<Task>> getTasksByPriority(
+            @PathVariable String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(badRequestOnInvalidArgument(() -> TaskFilter.withPriority(priority)), cursor, limit);
     }
 
     @GetMapping("/tasks/overdue")
-    public ResponseEntity<List<Task>> getOverdueTasks() {
-        return ResponseEntity.ok(taskRepository.findOverdueTasks());
+    public ResponseEntity<List<Task>> getOverdueTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return page(TaskFilter.overdueTasks(), cursor, limit);
+    }
+
+    /**
+     * Returns the first tasks matching every given filter, in the requested order, from one
+     * parameterized query. status is active, completed, overdue or all (the default); the deadline
+     * and creation ranges include their after bound and exclude their before bound. sort is created
+     * (the default) or deadline, with a leading "-" for descending order.
+     */
+    @GetMapping("/tasks/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineBefore,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @RequestParam(required = false) Long parentId,
+            @RequestParam(defaultValue = "false") boolean root,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) {
+        String state = status.toLowerCase(Locale.ROOT);
+        Boolean completed = completedFor(state);
+        return ResponseEntity.ok(badRequestOnInvalidArgument(() -> taskService.searchTasks(
+            new TaskFilter(completed, parentId, root, priority, "overdue".equals(state), deadlineAfter,
+                deadlineBefore, text == null || text.isBlank() ? null : text, createdAfter, createdBefore),
+            TaskSort.parse(sort), limit)));
+    }
+
+    /**
+     * Pages through tasks like the list endpoints, returning only the fields a list view shows: id,
+     * description, completed, priority, deadline and createdAt. Only those columns are read, so
+     * constraints and metadata are neither decoded nor sent. status, priority, parentId and root
+     * filter as in search.
+     */
+    @GetMapping("/tasks/summaries")
+    public ResponseEntity<List<TaskSummary>> getTaskSummaries(
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long parentId,
+            @RequestParam(defaultValue = "false") boolean root,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        String state = status.toLowerCase(Locale.ROOT);
+        Boolean completed = completedFor(state);
+        TaskFilter filter = badRequestOnInvalidArgument(
+            () -> new TaskFilter(completed, parentId, root, priority, "overdue".equals(state)));
+        TaskCursor after = decodeCursor(cursor);
+        TaskSummaryPage page = badRequestOnInvalidArgument(() -> taskService.getTaskSummaryPage(filter, after, limit));
+        return withNextCursor(page.nextCursor()).body(page.tasks());
+    }
+
+    /**
+     * Pushes every task change committed from now on, on any node, as Server-Sent Events named
+     * "created", "updated" or "completed" with the task as data, and "overdue" when a task's
+     * deadline passes. Clients should refetch after
+     * (re)connecting, since changes made while disconnected are not replayed.
+     */
+    @GetMapping(path = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents() {
+        return taskEventHub.subscribe();
+    }
+
+    /**
+     * Returns task counts by state and priority from in-memory counters, without querying the table.
+     */
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStats> getTaskStats() {
+        return ResponseEntity.ok(taskStatistics.snapshot());
+    }
+
+    /**
+     * Returns the task with its whole subtree nested under "children", loaded in one recursive query.
+     * depth limits how many levels below the task are included.
+     */
+    @GetMapping("/tasks/{id}/tree")
+    public ResponseEntity<TaskNode> getTaskTree(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer depth) {
+        return badRequestOnInvalidArgument(() -> taskService.getTaskTree(id, depth))
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Returns a page of root tasks, each with its whole subtree, paginated like the list endpoints.
+     */
+    @GetMapping("/tasks/tree")
+    public ResponseEntity<List<TaskNode>> getTaskForest(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer depth) {
+        TaskCursor after = decodeCursor(cursor);
+        TaskForest forest = badRequestOnInvalidArgument(() -> taskService.getTaskForest(after, limit, depth));
+        return withNextCursor(forest.nextCursor()).body(forest.roots());
+    }
+
+    /**
+     * Streams every matching task without paging: newline-delimited JSON by default, or a single
+     * JSON array with format=json. Rows are written as they are read from the database cursor,
+     * so neither side holds the whole result in memory.
+     */
+    @GetMapping(path = "/tasks/stream", produces = {NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Long parentId,
+            @RequestParam(defaultValue = "false") boolean root,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "false") boolean overdue,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean jsonArray = switch (format) {
+            case "ndjson" -> false;
+            case "json" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        };
+        TaskFilter filter = badRequestOnInvalidArgument(
+            () -> new TaskFilter(overdue ? Boolean.FALSE : completed, parentId, root, priority, overdue));
+        TaskCursor after = decodeCursor(cursor);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                if (jsonArray) {
+                    generator.writeStartArray();
+                }
+                taskService.streamTasks(filter, after, task -> writeTask(generator, task, jsonArray));
+                if (jsonArray) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(jsonArray ? MediaType.APPLICATION_JSON : MediaType.parseMediaType(NDJSON_VALUE))
+            .body(body);
+    }
+
+    private void writeTask(JsonGenerator generator, Task task, boolean jsonArray) {
+        try {
+            objectMapper.writeValue(generator, task);
+            if (!jsonArray) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<List<Task>> page(TaskFilter filter, String cursor, Integer limit) {
+        TaskCursor after = decodeCursor(cursor);
+        TaskPage page = badRequestOnInvalidArgument(() -> taskService.getTaskPage(filter, after, limit));
+        return withNextCursor(page.nextCursor()).body(page.tasks());
+    }
+
+    private static ResponseEntity.BodyBuilder withNextCursor(TaskCursor nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor.encode());
+        }
+        return response;
+    }
+
+    /**
+     * Pages through the tasks whose metadata contains the JSON object in contains, for example
+     * {"tags":["home"]} or {"owner":"sam"}, paginated like the list endpoints. On Postgres this is
+     * the jsonb @> operator, served by a GIN index.
+     */
+    @GetMapping("/tasks/metadata")
+    public ResponseEntity<List<Task>> getTasksByMetadata(
+            @RequestParam String contains,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> metadata;
+        try {
+            metadata = objectMapper.readValue(contains, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "contains must be a JSON object", e);
+        }
+        TaskCursor after = decodeCursor(cursor);
+        TaskPage page = badRequestOnInvalidArgument(() -> taskService.getTasksByMetadata(metadata, after, limit));
+        return withNextCursor(page.nextCursor()).body(page.tasks());
+    }
+
+    /** The completed filter for a status parameter, already lower-cased. */
+    private static Boolean completedFor(String state) {
+        return switch (state) {
+            case "all" -> null;
+            case "active", "overdue" -> Boolean.FALSE;
+            case "completed" -> Boolean.TRUE;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported status: " + state);
+        };
+    }
+
+    private static <T> T badRequestOnInvalidArgument(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static TaskCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return TaskCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     @PutMapping("/tasks/{id}/complete")
     public ResponseEntity<Task> completeTask(@PathVariable Long id) {
-        Task task = taskRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Task not found"));
-        return ResponseEntity.ok(taskRepository.save(task.markCompleted()));
+        try {
+            return ResponseEntity.ok(taskService.completeTask(id));
+        } catch (TaskNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Completes many tasks, or with cascade whole subtrees, in one set-based statement.
+     * Returns the tasks this call completed.
+     */
+    @PutMapping("/tasks/complete")
+    public ResponseEntity<List<Task>> completeTasks(@RequestBody CompleteTasksRequest request) {
+        return ResponseEntity.ok(badRequestOnInvalidArgument(
+            () -> taskService.completeTasks(request.ids(), request.cascade())));
     }
 
     @PostMapping("/tasks")
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        return ResponseEntity.ok(taskRepository.save(task));
+        return ResponseEntity.ok(taskService.createTask(task));
+    }
+
+    /**
+     * Creates many tasks in one transaction and returns their ids in request order.
+     * Tasks can nest under earlier tasks in the same batch through ref/parentRef.
+     */
+    @PostMapping("/tasks/batch")
+    public ResponseEntity<List<Long>> createTasks(@RequestBody List<NewTask> tasks) {
+        return ResponseEntity.ok(badRequestOnInvalidArgument(() -> taskService.createTasks(tasks)));
     }
 
+    /**
+     * Updates the task's non-null fields. Sending the version last read makes the update conditional:
+     * 409 if the task has been written since. 404 if there is no such task, 400 for invalid fields.
+     */
     @PutMapping("/tasks/{id}")
     public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task) {
-        return ResponseEntity.ok(taskRepository.save(task.update(
-            task.description(),
-            task.deadline(),
-            task.priority(),
-            task.constraints()
-        )));
+        try {
+            return ResponseEntity.ok(taskService.updateTask(id, task));
+        } catch (TaskNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
     }
 }
\ No newline at end of file
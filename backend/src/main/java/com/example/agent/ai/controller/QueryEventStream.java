@@ -0,0 +1,53 @@
+package com.example.agent.ai.controller;
+
+import com.example.agent.ai.model.QueryResponse;
+import com.example.agent.ai.service.QueryListener;
+import com.example.agent.common.model.Task;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Writes query pipeline events to an SSE stream. A failed send (usually a disconnected client)
+ * is rethrown unchecked so the pipeline stops instead of paying for more LLM tokens.
+ */
+class QueryEventStream implements QueryListener {
+    private final SseEmitter emitter;
+
+    QueryEventStream(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onIntentClassified(String intent) {
+        send("intent", Map.of("intent", intent));
+    }
+
+    @Override
+    public void onRefinementToken(String token) {
+        send("token", token);
+    }
+
+    @Override
+    public void onActionExecuted(Task task) {
+        send("action", task != null ? task : Map.of());
+    }
+
+    void onResponse(QueryResponse response) {
+        send("response", response);
+    }
+
+    void onError(String message) {
+        send("error", Map.of("message", message));
+    }
+
+    private void send(String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to send " + name + " event", e);
+        }
+    }
+}
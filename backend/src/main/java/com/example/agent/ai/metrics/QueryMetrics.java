@@ -0,0 +1,108 @@
+package com.example.agent.ai.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the query pipeline. Every stage is recorded as {@code agent.query.stage} tagged with
+ * stage, intent and outcome, and each whole query as {@code agent.query} tagged with intent and
+ * outcome. Both publish percentile histograms, so p50/p99 per stage can be computed in Prometheus;
+ * timer counts give throughput.
+ */
+@Component
+public class QueryMetrics {
+    public static final String QUERY_TIMER = "agent.query";
+    public static final String STAGE_TIMER = "agent.query.stage";
+    /** Intent tag for stages that run before (or without) a classified intent. */
+    public static final String UNKNOWN_INTENT = "UNKNOWN";
+
+    public enum Stage {
+        CLASSIFY, COMBINED, REFINE, DECIDE, DISPATCH, ACTION;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, FOLLOW_UP, NO_INTENT, CANCELLED, ERROR;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordStage(Timer.Sample sample, Stage stage, String intent, Outcome outcome) {
+        sample.stop(Timer.builder(STAGE_TIMER)
+            .tag("stage", stage.tag())
+            .tag("intent", intentTag(intent))
+            .tag("outcome", outcome.tag())
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    public void recordQuery(Timer.Sample sample, String intent, Outcome outcome) {
+        sample.stop(Timer.builder(QUERY_TIMER)
+            .tag("intent", intentTag(intent))
+            .tag("outcome", outcome.tag())
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    /**
+     * Times a stage whose intent tag is known up front, classifying its outcome from the result.
+     * Exceptions are recorded with outcome error and rethrown; a stage whose thread was interrupted
+     * (a cancelled speculative call) is recorded as cancelled.
+     */
+    public <T> T timeStage(Stage stage, String intent, Supplier<T> call, Function<T, Outcome> outcome) {
+        return time(stage, intent, call, result -> intent, outcome);
+    }
+
+    /**
+     * Times a stage whose intent tag is derived from its result, e.g. classification.
+     */
+    public <T> T timeStage(Stage stage, Supplier<T> call, Function<T, String> intent, Function<T, Outcome> outcome) {
+        return time(stage, UNKNOWN_INTENT, call, intent, outcome);
+    }
+
+    private <T> T time(
+            Stage stage,
+            String errorIntent,
+            Supplier<T> call,
+            Function<T, String> intent,
+            Function<T, Outcome> outcome) {
+        Timer.Sample sample = start();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            recordStage(sample, stage, errorIntent, interruptedOr(Outcome.ERROR));
+            throw e;
+        }
+        recordStage(sample, stage, intent.apply(result), interruptedOr(outcome.apply(result)));
+        return result;
+    }
+
+    private static Outcome interruptedOr(Outcome outcome) {
+        return Thread.currentThread().isInterrupted() ? Outcome.CANCELLED : outcome;
+    }
+
+    private static String intentTag(String intent) {
+        return intent == null || intent.isEmpty() ? UNKNOWN_INTENT : intent;
+    }
+}
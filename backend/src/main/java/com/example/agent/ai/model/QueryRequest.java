@@ -1,6 +1,16 @@
 package com.example.agent.ai.model;
 
+/**
+ * A natural language query. Follow-ups reference their conversation by the sessionId the server
+ * returned; the server holds the context. An inline context is only used when no sessionId is
+ * given, e.g. to seed a new conversation with the task being edited.
+ */
 public record QueryRequest(
     String query,
-    ConversationContext context
-) {}
\ No newline at end of file
+    ConversationContext context,
+    String sessionId
+) {
+    public QueryRequest(String query, ConversationContext context) {
+        this(query, context, null);
+    }
+}
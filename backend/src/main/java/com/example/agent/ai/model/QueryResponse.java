@@ -2,9 +2,22 @@ package com.example.agent.ai.model;
 
 import com.example.agent.common.model.Task;
 
+import java.util.List;
+
 public record QueryResponse(
     String response,
     Task resultTask,
     boolean requiresFollowUp,
-    ConversationContext context
-) {}
\ No newline at end of file
+    ConversationContext context,
+    String sessionId,
+    List<Task> resultTasks
+) {
+    public QueryResponse(String response, Task resultTask, boolean requiresFollowUp, ConversationContext context,
+                         String sessionId) {
+        this(response, resultTask, requiresFollowUp, context, sessionId, null);
+    }
+
+    public QueryResponse(String response, Task resultTask, boolean requiresFollowUp, ConversationContext context) {
+        this(response, resultTask, requiresFollowUp, context, null);
+    }
+}
@@ -1,102 +1,158 @@
 package com.example.agent.ai.service;
 
+import com.example.agent.ai.metrics.QueryMetrics;
+import com.example.agent.ai.metrics.QueryMetrics.Outcome;
+import com.example.agent.ai.metrics.QueryMetrics.Stage;
 import com.example.agent.ai.model.ConversationContext;
 import com.example.agent.ai.model.QueryRequest;
 import com.example.agent.ai.model.QueryResponse;
-import com.example.agent.common.model.Task;
-import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.ai.service.conversation.ConversationStore;
 import com.example.agent.ai.service.decision.DecisionMaker;
 import com.example.agent.ai.service.decision.ActionDecision;
+import com.example.agent.task.service.action.ActionResult;
 import com.example.agent.task.service.action.RequireInfoAction;
-import com.example.agent.task.service.action.TaskParameters;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
+/**
+ * Runs a natural language query through the decision maker and executes the chosen action.
+ * The LLM calls made while deciding run outside any transaction; only the action execution
+ * runs in a short transaction, so a JDBC connection is never held for the duration of a model
+ * round trip. Actions return the tasks their own statements produced, which are answered as is.
+ * Conversation context for follow-ups is kept in the {@link ConversationStore} under a session id
+ * issued by this service, and dropped once the conversation ends. A request naming an unknown or
+ * expired session starts a new one under a fresh id; a client-supplied context is only used to
+ * seed a conversation when the request names no session.
+ * Each query and each of its stages is timed through {@link QueryMetrics}.
+ */
 @Service
-@Transactional
 public class AIService {
     private static final Logger logger = LoggerFactory.getLogger(AIService.class);
-    private final TaskRepository taskRepository;
     private final DecisionMaker decisionMaker;
+    private final TransactionOperations transactionOperations;
+    private final ConversationStore conversationStore;
+    private final QueryMetrics metrics;
     
-    public AIService(TaskRepository taskRepository, DecisionMaker decisionMaker) {
-        this.taskRepository = taskRepository;
+    public AIService(
+            DecisionMaker decisionMaker,
+            TransactionOperations transactionOperations,
+            ConversationStore conversationStore,
+            QueryMetrics metrics) {
         this.decisionMaker = decisionMaker;
+        this.transactionOperations = transactionOperations;
+        this.conversationStore = conversationStore;
+        this.metrics = metrics;
     }
     
     public QueryResponse processQuery(QueryRequest request) {
         logger.info("Entering processQuery with request: {}", request);
+        return process(request, decisionMaker::decide, QueryListener.NONE);
+    }
+
+    /**
+     * Processes the query like {@link #processQuery(QueryRequest)}, reporting each completed
+     * stage (intent, refinement tokens, executed action) to the listener as it happens.
+     */
+    public QueryResponse processQueryStreaming(QueryRequest request, QueryListener listener) {
+        logger.info("Entering processQueryStreaming with request: {}", request);
+        return process(request, contextMap -> decisionMaker.decideStreaming(contextMap, listener), listener);
+    }
+
+    private QueryResponse process(
+            QueryRequest request,
+            Function<Map<String, Object>, Optional<ActionDecision>> decider,
+            QueryListener listener) {
+        if (request == null || request.query() == null || request.query().trim().isEmpty()) {
+            logger.warn("Invalid query request: {}", request);
+            throw new IllegalArgumentException("Query cannot be null or empty");
+        }
+        boolean namesSession = request.sessionId() != null && !request.sessionId().isBlank();
+        String sessionId = UUID.randomUUID().toString();
+
+        Timer.Sample querySample = metrics.start();
+        String intent = null;
+        Outcome outcome = Outcome.ERROR;
         try {
-            if (request == null || request.query() == null || request.query().trim().isEmpty()) {
-                logger.warn("Invalid query request: {}", request);
-                throw new IllegalArgumentException("Query cannot be null or empty");
-            }
 
             logger.debug("Creating context map for decision maker");
             Map<String, Object> contextMap = new HashMap<>();
             contextMap.put("query", request.query());
 
-            ConversationContext previousContext = request.context() != null ? 
-                request.context() : ConversationContext.createNew();
+            Optional<ConversationContext> storedContext = namesSession
+                ? conversationStore.find(request.sessionId())
+                : Optional.empty();
+            if (storedContext.isPresent()) {
+                sessionId = request.sessionId();
+            }
+            ConversationContext previousContext = storedContext.orElseGet(() ->
+                !namesSession && request.context() != null ? request.context() : ConversationContext.createNew());
             contextMap.put("previousContext", previousContext);
 
             logger.info("Processing query through decision maker");
-            Optional<ActionDecision> decision = decisionMaker.decide(contextMap);
+            Optional<ActionDecision> decision = metrics.timeStage(Stage.DECIDE, () -> decider.apply(contextMap),
+                result -> result.map(ActionDecision::intent).orElse(null),
+                AIService::decisionOutcome);
             if (decision.isEmpty()) {
                 logger.warn("No intent recognized for query: {}", request.query());
-                return new QueryResponse("Failed to process query: No intent recognized", null, false, null);
+                outcome = Outcome.NO_INTENT;
+                conversationStore.remove(sessionId);
+                return new QueryResponse("Failed to process query: No intent recognized", null, false, null, sessionId);
             }
 
             ActionDecision actionDecision = decision.get();
             logger.debug("Action decision made: {}", actionDecision);
+            intent = actionDecision.intent();
 
             if (actionDecision.action() instanceof RequireInfoAction) {
                 logger.info("More information required: {}", actionDecision.nextPrompt());
-                return new QueryResponse(actionDecision.nextPrompt(), null, true, (ConversationContext) actionDecision.context());
+                outcome = Outcome.FOLLOW_UP;
+                ConversationContext followUpContext = (ConversationContext) actionDecision.context();
+                conversationStore.save(sessionId, followUpContext);
+                return new QueryResponse(actionDecision.nextPrompt(), null, true, followUpContext, sessionId);
             }
 
-            logger.info("Executing action: {}", actionDecision.action());
-            TaskParameters result = actionDecision.action().execute(actionDecision.parameters());
-            Task resultTask = null;
-
-            if (result.taskId() != null && !result.taskId().isEmpty()) {
-                logger.debug("Fetching task by ID: {}", result.taskId());
-                resultTask = taskRepository.findById(Long.parseLong(result.taskId()))
-                    .orElseThrow(() -> new IllegalArgumentException("Task not found"));
-            } else if (result.description() != null && !result.description().isEmpty()) {
-                logger.debug("Creating new task from parameters");
-                resultTask = createTaskFromParameters(result);
-            }
+            ActionResult result = metrics.timeStage(Stage.DISPATCH, intent,
+                () -> transactionOperations.execute(status -> executeAction(actionDecision)),
+                executed -> Outcome.SUCCESS);
+            listener.onActionExecuted(result.task());
+            conversationStore.remove(sessionId);
 
             logger.info("Task processed successfully");
-            return new QueryResponse("Task processed successfully", resultTask, false, null);
+            outcome = Outcome.SUCCESS;
+            return new QueryResponse("Task processed successfully", result.task(), false, null, sessionId, result.tasks());
         } catch (IllegalArgumentException e) {
             logger.error("Illegal argument exception: {}", e.getMessage(), e);
             throw e;
         } catch (Exception e) {
             logger.error("Error processing query: {}", e.getMessage(), e);
-            return new QueryResponse("Error processing query: " + e.getMessage(), null, false, null);
+            return new QueryResponse("Error processing query: " + e.getMessage(), null, false, null, sessionId);
         } finally {
-            logger.info("Exiting processQuery");
+            metrics.recordQuery(querySample, intent, outcome);
+            logger.info("Exiting process");
         }
     }
     
-    private Task createTaskFromParameters(TaskParameters params) {
-        Task task = Task.createNewWithDetails(
-            params.description(),
-            params.deadline() != null ? LocalDateTime.parse(params.deadline()) : null,
-            params.priority(),
-            params.constraints(),
-            null,
-            null
-        );
-        return taskRepository.save(task);
+    private ActionResult executeAction(ActionDecision actionDecision) {
+        logger.info("Executing action: {}", actionDecision.action());
+        ActionResult result = metrics.timeStage(Stage.ACTION, actionDecision.intent(),
+            () -> actionDecision.action().execute(actionDecision.parameters()),
+            executed -> Outcome.SUCCESS);
+        return result != null ? result : ActionResult.none();
+    }
+
+    private static Outcome decisionOutcome(Optional<ActionDecision> decision) {
+        if (decision.isEmpty()) {
+            return Outcome.NO_INTENT;
+        }
+        return decision.get().action() instanceof RequireInfoAction ? Outcome.FOLLOW_UP : Outcome.SUCCESS;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.agent.ai.service;
+
+import com.example.agent.ai.service.decision.DecisionListener;
+import com.example.agent.common.model.Task;
+
+/**
+ * Receives progress events for a query as each pipeline stage completes.
+ */
+public interface QueryListener extends DecisionListener {
+    QueryListener NONE = new QueryListener() {};
+
+    /**
+     * Called after the chosen action has run; task is null for actions without a single result.
+     */
+    default void onActionExecuted(Task task) {}
+}
@@ -0,0 +1,21 @@
+package com.example.agent.ai.service.conversation;
+
+import com.example.agent.ai.model.ConversationContext;
+
+import java.util.Optional;
+
+/**
+ * Server-side storage for in-progress conversations, keyed by an opaque session id.
+ * Entries expire after a period of inactivity; an expired or unknown id behaves as a new conversation.
+ */
+public interface ConversationStore {
+
+    Optional<ConversationContext> find(String sessionId);
+
+    /**
+     * Stores the context under the session id, replacing any previous context and restarting its TTL.
+     */
+    void save(String sessionId, ConversationContext context);
+
+    void remove(String sessionId);
+}
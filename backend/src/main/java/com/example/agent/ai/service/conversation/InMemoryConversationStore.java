@@ -0,0 +1,58 @@
+package com.example.agent.ai.service.conversation;
+
+import com.example.agent.ai.model.ConversationContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Single-node conversation store. Sessions are evicted once the TTL passes since their last save, or when
+ * the store exceeds its maximum size, and are lost on restart.
+ */
+@Component
+@ConditionalOnProperty(name = "agent.conversation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationStore implements ConversationStore {
+    private final Cache<String, ConversationContext> sessions;
+
+    @Autowired
+    public InMemoryConversationStore(
+            @Value("${agent.conversation.maximum-size:100000}") long maximumSize,
+            @Value("${agent.conversation.ttl:30m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this(maximumSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    InMemoryConversationStore(long maximumSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "conversations");
+    }
+
+    @Override
+    public Optional<ConversationContext> find(String sessionId) {
+        return Optional.ofNullable(sessions.getIfPresent(sessionId));
+    }
+
+    @Override
+    public void save(String sessionId, ConversationContext context) {
+        sessions.put(sessionId, context);
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+}
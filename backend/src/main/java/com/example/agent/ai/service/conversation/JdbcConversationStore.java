@@ -0,0 +1,102 @@
+package com.example.agent.ai.service.conversation;
+
+import com.example.agent.ai.model.ConversationContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conversation store backed by the UNLOGGED conversation_sessions table, so that several backend
+ * nodes can serve the same session. UNLOGGED skips the write-ahead log: writes are cheap, and the
+ * table is truncated after a crash, which is acceptable for short-lived conversation state.
+ * Expired rows are ignored on read and purged periodically.
+ */
+@Component
+@ConditionalOnProperty(name = "agent.conversation.store", havingValue = "jdbc")
+public class JdbcConversationStore implements ConversationStore {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConversationStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public JdbcConversationStore(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${agent.conversation.ttl:30m}") Duration ttl) {
+        this(jdbcTemplate, objectMapper, ttl, Clock.systemUTC());
+    }
+
+    JdbcConversationStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Duration ttl, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<ConversationContext> find(String sessionId) {
+        List<String> rows = jdbcTemplate.queryForList(
+            "SELECT context FROM conversation_sessions WHERE session_id = ? AND expires_at > ?",
+            String.class, sessionId, now());
+        return rows.stream().findFirst().map(this::deserialize);
+    }
+
+    @Override
+    public void save(String sessionId, ConversationContext context) {
+        // MERGE (Postgres 15+) rather than ON CONFLICT, so H2 runs the same statement in tests. Its
+        // insert branch cannot race: only the request that was issued a new session id writes it first.
+        jdbcTemplate.update("""
+            MERGE INTO conversation_sessions s
+            USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS TEXT), CAST(? AS TIMESTAMP))) AS v (session_id, context, expires_at)
+            ON s.session_id = v.session_id
+            WHEN MATCHED THEN UPDATE SET context = v.context, expires_at = v.expires_at
+            WHEN NOT MATCHED THEN INSERT (session_id, context, expires_at) VALUES (v.session_id, v.context, v.expires_at)
+            """, sessionId, serialize(context), Timestamp.from(clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        jdbcTemplate.update("DELETE FROM conversation_sessions WHERE session_id = ?", sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${agent.conversation.purge-interval:5m}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM conversation_sessions WHERE expires_at <= ?", now());
+        logger.debug("Purged {} expired conversation sessions", purged);
+    }
+
+    private Timestamp now() {
+        return Timestamp.from(Instant.now(clock));
+    }
+
+    private String serialize(ConversationContext context) {
+        try {
+            return objectMapper.writeValueAsString(context);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize conversation context", e);
+        }
+    }
+
+    private ConversationContext deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, ConversationContext.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize conversation context", e);
+        }
+    }
+}
@@ -7,13 +7,25 @@ public record ActionDecision(
     TaskAction action, 
     TaskParameters parameters,
     String nextPrompt,
-    Object context
+    Object context,
+    String intent
 ) {
     /**
      * Constructor for creating an action decision with just an action and parameters
      */
     public ActionDecision(TaskAction action, TaskParameters parameters) {
-        this(action, parameters, null, null);
+        this(action, parameters, null, null, null);
+    }
+
+    public ActionDecision(TaskAction action, TaskParameters parameters, String nextPrompt, Object context) {
+        this(action, parameters, nextPrompt, context, null);
+    }
+
+    /**
+     * Constructor for an action decided for a classified intent
+     */
+    public static ActionDecision forIntent(String intent, TaskAction action, TaskParameters parameters) {
+        return new ActionDecision(action, parameters, null, null, intent);
     }
     
     /**
@@ -25,4 +37,15 @@ public record ActionDecision(
             Object context) {
         return new ActionDecision(action, null, nextPrompt, context);
     }
-}
\ No newline at end of file
+
+    /**
+     * Follow-up request for a classified intent that needs additional information
+     */
+    public static ActionDecision requireMoreInfo(
+            String intent,
+            TaskAction action,
+            String nextPrompt,
+            Object context) {
+        return new ActionDecision(action, null, nextPrompt, context, intent);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.agent.ai.service.decision;
+
+/**
+ * Receives progress events while {@link DecisionMaker} works through a query.
+ */
+public interface DecisionListener {
+    DecisionListener NONE = new DecisionListener() {};
+
+    /**
+     * Called once the intent is known, before any refinement starts.
+     */
+    default void onIntentClassified(String intent) {}
+
+    /**
+     * Called for each refinement token as it arrives from the model.
+     */
+    default void onRefinementToken(String token) {}
+}
@@ -3,32 +3,86 @@ package com.example.agent.ai.service.decision;
 import com.example.agent.task.service.action.TaskAction;
 import com.example.agent.task.service.action.RequireInfoAction;
 import com.example.agent.task.service.action.TaskParameters;
+import com.example.agent.ai.metrics.QueryMetrics;
+import com.example.agent.ai.metrics.QueryMetrics.Outcome;
+import com.example.agent.ai.metrics.QueryMetrics.Stage;
 import com.example.agent.ai.model.ConversationContext;
 import com.example.agent.common.model.TaskData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class DecisionMaker {
     private static final Logger logger = LoggerFactory.getLogger(DecisionMaker.class);
+
+    // Intents whose actions consume the refined task details
+    private static final Set<String> INTENTS_REQUIRING_REFINEMENT = Set.of("CREATE_TASK", "COMPLETE_TASK");
     
     // Record to represent the intent classification response
     protected record IntentClassification(String intent) {}
+
+    // Record to represent the combined intent + refinement response
+    protected record CombinedClassification(
+        String intent,
+        String description,
+        String deadline,
+        String priority,
+        String constraints,
+        String taskId,
+        boolean needsMoreInfo,
+        String followUpQuestion
+    ) {}
+
+    // Classified intent plus refined details; refinementContext is null when refinement was skipped
+    private record StageResults(String intent, ConversationContext refinementContext) {}
     
     private final ChatClient chatClient;
     private final List<TaskAction> availableActions;
     private final Refinement refinement;
+    private final IntentCache intentCache;
+    private final LocalIntentClassifier localClassifier;
+    private final QueryMetrics metrics;
+    // The application task executor (virtual threads), which Spring shuts down with the context
+    private final AsyncTaskExecutor stageExecutor;
+    private final DecisionMode mode;
+    private final Duration llmTimeout;
     
-    public DecisionMaker(ChatClient chatClient, List<TaskAction> taskActions, Refinement refinement) {
+    public DecisionMaker(
+            ChatClient chatClient,
+            List<TaskAction> taskActions,
+            Refinement refinement,
+            IntentCache intentCache,
+            LocalIntentClassifier localClassifier,
+            QueryMetrics metrics,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor stageExecutor,
+            @Value("${agent.decision.mode:combined}") DecisionMode mode,
+            @Value("${agent.decision.llm-timeout:30s}") Duration llmTimeout) {
         this.chatClient = chatClient;
         this.availableActions = taskActions;
         this.refinement = refinement;
+        this.intentCache = intentCache;
+        this.localClassifier = localClassifier;
+        this.metrics = metrics;
+        this.stageExecutor = stageExecutor;
+        this.mode = mode;
+        this.llmTimeout = llmTimeout;
     }
     
     public Optional<ActionDecision> decide(Map<String, Object> context) {
@@ -40,25 +94,77 @@ public class DecisionMaker {
             return Optional.empty();
         }
 
-        IntentClassification intentClassification = classifyIntent(query);
-        String intent = intentClassification.intent();
+        // Get previous context if available
+        ConversationContext previousContext = (ConversationContext) context.get("previousContext");
+        TaskData previousData = previousContext != null ? previousContext.collectedData() : null;
+
+        LocalIntentClassifier.IntentMatch localMatch = localClassifier.classify(query);
+        StageResults stages = localClassifier.isConfident(localMatch)
+            ? decideLocally(query, previousData, localMatch)
+            : decideWithLlm(query, previousData, localMatch);
+        String intent = stages.intent();
+        ConversationContext refinementContext = stages.refinementContext();
         logger.debug("Intent classified as: {}", intent);
+        return toDecision(query, intent, refinementContext);
+    }
 
-        if (intent == null || intent.isEmpty()) {
-            logger.warn("No intent recognized for query: {}", query);
+    /**
+     * Variant of {@link #decide(Map)} for streaming clients. The intent is resolved first (locally,
+     * from the cache or with a classification call bounded by the LLM timeout, with the same
+     * degraded fallback) and reported to the listener, then the refinement is streamed token by token. This trades the combined/concurrent round-trip
+     * savings for an early first event.
+     */
+    public Optional<ActionDecision> decideStreaming(Map<String, Object> context, DecisionListener listener) {
+        logger.info("Entering decideStreaming with context: {}", context);
+
+        String query = (String) context.get("query");
+        if (query == null) {
+            logger.warn("Query is null in context");
             return Optional.empty();
         }
 
-        // Get previous context if available
         ConversationContext previousContext = (ConversationContext) context.get("previousContext");
         TaskData previousData = previousContext != null ? previousContext.collectedData() : null;
 
-        logger.info("Refining task with query: {} and previousData: {}", query, previousData);
-        ConversationContext refinementContext = refinement.refineTask(query, previousData);
+        LocalIntentClassifier.IntentMatch localMatch = localClassifier.classify(query);
+        ConversationContext refinementContext = null;
+        String intent;
+        if (localClassifier.isConfident(localMatch)) {
+            intent = localMatch.intent();
+            refinementContext = localResults(localMatch).refinementContext();
+        } else {
+            StageResults stages = withinLlmTimeout(() -> classifyThroughCache(query), localMatch);
+            intent = stages.intent();
+            refinementContext = stages.refinementContext();
+        }
+        logger.debug("Intent classified as: {}", intent);
 
-        if (refinementContext.requiresFollowUp()) {
+        if (intent == null || intent.isEmpty()) {
+            logger.warn("No intent recognized for query: {}", query);
+            return Optional.empty();
+        }
+        listener.onIntentClassified(intent);
+
+        if (refinementContext == null && requiresRefinement(intent)) {
+            logger.info("Streaming refinement with query: {} and previousData: {}", query, previousData);
+            refinementContext = metrics.timeStage(Stage.REFINE, intent,
+                () -> refinement.refineTask(query, previousData, listener::onRefinementToken),
+                DecisionMaker::refinementOutcome);
+        }
+        return toDecision(query, intent, refinementContext);
+    }
+
+    // Package-private for the JMH benchmarks in src/jmh
+    Optional<ActionDecision> toDecision(String query, String intent, ConversationContext refinementContext) {
+        if (intent == null || intent.isEmpty()) {
+            logger.warn("No intent recognized for query: {}", query);
+            return Optional.empty();
+        }
+
+        if (requiresRefinement(intent) && refinementContext.requiresFollowUp()) {
             logger.info("Follow-up required: {}", refinementContext.nextPrompt());
             return Optional.of(ActionDecision.requireMoreInfo(
+                intent,
                 new RequireInfoAction(),
                 refinementContext.nextPrompt(),
                 refinementContext
@@ -66,19 +172,193 @@ public class DecisionMaker {
         }
 
         // Only proceed with action creation if we have all needed information
-        TaskParameters parameters = buildParameters(intent, refinementContext.collectedData());
+        TaskData taskData = refinementContext != null ? refinementContext.collectedData() : null;
+        TaskParameters parameters = buildParameters(query, intent, taskData);
         logger.debug("Task parameters built: {}", parameters);
 
         Optional<ActionDecision> actionDecision = availableActions.stream()
                 .filter(action -> action.canHandle(intent))
                 .findFirst()
-                .map(action -> new ActionDecision(action, parameters));
+                .map(action -> ActionDecision.forIntent(intent, action, parameters));
 
         logger.info("Exiting decide with actionDecision: {}", actionDecision);
         return actionDecision;
     }
 
-    private IntentClassification classifyIntent(String query) {
+    /**
+     * Uses a confident local classification, refining only when the match does not already
+     * carry the task details. A sample of these decisions is re-classified by the LLM in the
+     * background to track how often the local classifier agrees with it.
+     */
+    private StageResults decideLocally(String query, TaskData previousData, LocalIntentClassifier.IntentMatch match) {
+        logger.info("Intent classified locally as {} with confidence {}", match.intent(), match.confidence());
+        if (localClassifier.shouldShadowSample()) {
+            stageExecutor.submit(() -> shadowClassify(query, match.intent()));
+        }
+        if (match.taskData() == null && requiresRefinement(match.intent())) {
+            logger.info("Refining task with query: {} and previousData: {}", query, previousData);
+            return new StageResults(match.intent(), refine(query, previousData, match.intent()));
+        }
+        return localResults(match);
+    }
+
+    private void shadowClassify(String query, String localIntent) {
+        try {
+            localClassifier.recordShadowResult(localIntent, classifyIntent(query));
+        } catch (RuntimeException e) {
+            logger.debug("Shadow classification failed: {}", e.getMessage());
+        }
+    }
+
+    private StageResults decideWithLlm(String query, TaskData previousData, LocalIntentClassifier.IntentMatch match) {
+        return withinLlmTimeout(() -> classifyWithLlm(query, previousData), match);
+    }
+
+    /**
+     * Runs an LLM stage bounded by the LLM timeout. If the LLM fails or times out, a usable
+     * local match is returned instead (degraded mode).
+     */
+    private StageResults withinLlmTimeout(Callable<StageResults> llmStage, LocalIntentClassifier.IntentMatch match) {
+        Future<StageResults> llmFuture = stageExecutor.submit(llmStage);
+        try {
+            return llmFuture.get(llmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            llmFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while classifying intent", e);
+        } catch (TimeoutException | ExecutionException e) {
+            llmFuture.cancel(true);
+            RuntimeException failure = e instanceof ExecutionException executionException
+                ? unwrap(executionException)
+                : new IllegalStateException("LLM did not respond within " + llmTimeout, e);
+            if (match.intent() == null || (match.taskData() == null && requiresRefinement(match.intent()))) {
+                throw failure;
+            }
+            logger.warn("LLM unavailable ({}), falling back to local intent {}", failure.getMessage(), match.intent());
+            localClassifier.recordDegraded();
+            return localResults(match);
+        }
+    }
+
+    private StageResults classifyWithLlm(String query, TaskData previousData) {
+        ConversationContext refinementContext = null;
+        String intent;
+        String cachedIntent = intentCache.get(query);
+        if (cachedIntent != null) {
+            // Known phrasing: skip classification and only refine when the intent needs it
+            intent = cachedIntent;
+            if (requiresRefinement(intent)) {
+                logger.info("Refining task with query: {} and previousData: {}", query, previousData);
+                refinementContext = refine(query, previousData, intent);
+            }
+        } else {
+            if (mode == DecisionMode.COMBINED) {
+                refinementContext = classifyAndRefine(query, previousData);
+            }
+
+            if (refinementContext != null) {
+                intent = refinementContext.currentIntent();
+                // The combined prompt also sees previous data, so only fresh queries are cacheable
+                if (isEmpty(previousData)) {
+                    intentCache.put(query, intent);
+                }
+            } else {
+                // Two-call path, also used as the fallback when the combined call fails
+                StageResults stages = classifyAndRefineConcurrently(query, previousData);
+                intent = stages.intent();
+                refinementContext = stages.refinementContext();
+                intentCache.put(query, intent);
+            }
+        }
+        return new StageResults(intent, refinementContext);
+    }
+
+    private StageResults classifyThroughCache(String query) {
+        String cachedIntent = intentCache.get(query);
+        String intent = cachedIntent != null ? cachedIntent : classifyIntent(query);
+        intentCache.put(query, intent);
+        return new StageResults(intent, null);
+    }
+
+    private static StageResults localResults(LocalIntentClassifier.IntentMatch match) {
+        ConversationContext context = match.taskData() != null
+            ? new ConversationContext(match.intent(), match.taskData(), false, null, null)
+            : null;
+        return new StageResults(match.intent(), context);
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException("LLM call failed", e.getCause());
+    }
+
+    private static boolean isEmpty(TaskData data) {
+        return data == null || data.equals(TaskData.createEmpty());
+    }
+
+    private static boolean requiresRefinement(String intent) {
+        // Set.of rejects null lookups, and a classification may come back without an intent
+        return intent != null && INTENTS_REQUIRING_REFINEMENT.contains(intent);
+    }
+
+    /**
+     * Runs intent classification and task refinement concurrently, so the two-call path costs
+     * one LLM round trip instead of two. Refinement runs on a virtual thread and is always
+     * either joined or cancelled before this method returns; it is cancelled as soon as the
+     * classified intent turns out not to need it.
+     */
+    private StageResults classifyAndRefineConcurrently(String query, TaskData previousData) {
+        logger.info("Refining task with query: {} and previousData: {}", query, previousData);
+        Future<ConversationContext> refinementFuture =
+            stageExecutor.submit(() -> refine(query, previousData, QueryMetrics.UNKNOWN_INTENT));
+        try {
+            String intent = classifyIntent(query);
+            if (!requiresRefinement(intent)) {
+                logger.debug("Cancelling refinement for intent: {}", intent);
+                refinementFuture.cancel(true);
+                return new StageResults(intent, null);
+            }
+            return new StageResults(intent, refinementFuture.get());
+        } catch (InterruptedException e) {
+            refinementFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while refining task", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (RuntimeException e) {
+            refinementFuture.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Refines the task details, timed as the refine stage. Speculative refinements started
+     * before classification finishes are tagged with the unknown intent.
+     */
+    private ConversationContext refine(String query, TaskData previousData, String intent) {
+        return metrics.timeStage(Stage.REFINE, intent,
+            () -> refinement.refineTask(query, previousData),
+            DecisionMaker::refinementOutcome);
+    }
+
+    private static Outcome refinementOutcome(ConversationContext context) {
+        return context != null && context.requiresFollowUp() ? Outcome.FOLLOW_UP : Outcome.SUCCESS;
+    }
+
+    /**
+     * Classifies the intent with the LLM; null when the model returns no classification.
+     */
+    private String classifyIntent(String query) {
+        IntentClassification result = metrics.timeStage(Stage.CLASSIFY, () -> callClassifier(query),
+            classification -> classification != null ? classification.intent() : null,
+            classification -> classification == null || classification.intent() == null
+                || classification.intent().isEmpty() ? Outcome.NO_INTENT : Outcome.SUCCESS);
+        return result != null ? result.intent() : null;
+    }
+
+    private IntentClassification callClassifier(String query) {
         return chatClient
                 .prompt()
                 .system("""
@@ -95,7 +375,69 @@ public class DecisionMaker {
                 .entity(IntentClassification.class);
     }
 
-    private TaskParameters buildParameters(String intent, TaskData taskData) {
+    /**
+     * Classifies the intent and refines the task details in a single LLM round trip.
+     * @return the refined context with the classified intent, or null if the combined
+     *         response could not be obtained and the two-call path should be used instead
+     */
+    private ConversationContext classifyAndRefine(String query, TaskData previousData) {
+        CombinedClassification response;
+        try {
+            response = metrics.timeStage(Stage.COMBINED, () -> callCombinedClassifier(query, previousData),
+                result -> result != null ? result.intent() : null,
+                result -> result == null ? Outcome.NO_INTENT
+                    : result.needsMoreInfo() ? Outcome.FOLLOW_UP : Outcome.SUCCESS);
+        } catch (RuntimeException e) {
+            logger.warn("Combined classification failed, falling back to two-call mode: {}", e.getMessage());
+            return null;
+        }
+
+        if (response == null) {
+            logger.warn("Empty combined classification response, falling back to two-call mode");
+            return null;
+        }
+        logger.debug("Combined LLM response received: {}", response);
+
+        return new ConversationContext(
+            response.intent(),
+            new TaskData(
+                response.description(),
+                response.deadline(),
+                response.priority(),
+                response.constraints(),
+                response.taskId()
+            ),
+            response.needsMoreInfo(),
+            response.needsMoreInfo() ? response.followUpQuestion() : null,
+            null
+        );
+    }
+
+    private CombinedClassification callCombinedClassifier(String query, TaskData previousData) {
+        return chatClient
+                .prompt()
+                .system("""
+                    You are a task management assistant that helps users manage their tasks.
+                    Analyze the user's request and format your response as JSON with these fields:
+                    - intent: one of CREATE_TASK, COMPLETE_TASK, LIST_TASKS
+                    - description: A clear task description, or null if not applicable
+                    - deadline: A deadline date in ISO format, or null if not specified
+                    - priority: priority level (HIGH, MEDIUM, LOW), or null if not specified
+                    - constraints: Any constraints or requirements, or null if not specified
+                    - taskId: The numeric id of the task to complete, or null if not specified
+                    - needsMoreInfo: true if you need to ask a follow-up question, false otherwise
+                    - followUpQuestion: If needsMoreInfo is true, provide a specific question to ask
+                    """)
+                .user(refinement.buildPrompt(query, previousData))
+                .call()
+                .entity(CombinedClassification.class);
+    }
+
+    private TaskParameters buildParameters(String query, String intent, TaskData taskData) {
+        if ("LIST_TASKS".equals(intent)) {
+            // Listing filters come from the query text itself, whichever path classified it
+            return TaskParameters.forListTasks(TaskFilterParser.parse(query, LocalDateTime.now()));
+        }
         if (taskData == null) {
             return null;
         }
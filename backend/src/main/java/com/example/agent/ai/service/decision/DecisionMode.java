@@ -0,0 +1,16 @@
+package com.example.agent.ai.service.decision;
+
+/**
+ * Selects how {@link DecisionMaker} talks to the language model.
+ */
+public enum DecisionMode {
+    /**
+     * A single prompt returns the intent together with the refined task fields.
+     */
+    COMBINED,
+
+    /**
+     * Intent classification and task refinement are separate LLM calls.
+     */
+    TWO_CALL
+}
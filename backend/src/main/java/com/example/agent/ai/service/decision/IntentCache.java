@@ -0,0 +1,79 @@
+package com.example.agent.ai.service.decision;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of intent classifications keyed on normalized query text, so that
+ * near-identical phrasings ("Show my tasks!", "show my  tasks") share one LLM classification.
+ * Uses Caffeine's W-TinyLFU eviction with a write TTL, and publishes hit, miss and eviction
+ * counts as cache metrics under the name "intentClassification". A maximum size of zero
+ * disables caching.
+ */
+@Component
+public class IntentCache {
+    // Sentence punctuation ending a word; punctuation inside a token ("4.2", "#12") is kept
+    private static final Pattern SENTENCE_PUNCTUATION = Pattern.compile("[.,!?;:]+(?=\\s|$)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<String, String> cache;
+    private final boolean enabled;
+
+    @Autowired
+    public IntentCache(
+            @Value("${agent.intent-cache.maximum-size:10000}") long maximumSize,
+            @Value("${agent.intent-cache.ttl:1h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this(maximumSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    IntentCache(long maximumSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = maximumSize > 0;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "intentClassification");
+    }
+
+    /**
+     * @return the cached intent for the query, or null on a miss
+     */
+    public String get(String query) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(normalize(query));
+    }
+
+    /**
+     * Caches a classified intent. Unrecognized (null or empty) intents are not cached.
+     */
+    public void put(String query, String intent) {
+        if (!enabled || intent == null || intent.isEmpty()) {
+            return;
+        }
+        cache.put(normalize(query), intent);
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    static String normalize(String query) {
+        String folded = SENTENCE_PUNCTUATION.matcher(query.toLowerCase(Locale.ROOT)).replaceAll("");
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.agent.ai.service.decision;
+
+import com.example.agent.common.model.TaskData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic keyword classifier that recognizes unambiguous task commands without an LLM call.
+ * Matches at or above the configured confidence threshold are used directly by DecisionMaker;
+ * weaker matches only serve as a fallback when the LLM is slow or unavailable.
+ * Hit rate, shadow-sampled agreement with the LLM and degraded-mode use are exported as metrics.
+ */
+@Component
+public class LocalIntentClassifier {
+    private static final Pattern COMPLETE_BY_ID = Pattern.compile(
+        "^(?:please )?(?:complete|finish|close|mark|tick off|check off)(?: task)? #?(\\d+)"
+            + "(?:(?: as)? (?:done|complete|completed|finished))?$");
+    private static final Pattern TASK_WORD = Pattern.compile("\\btasks?\\b");
+    private static final Set<String> LIST_VERBS = Set.of("list", "show", "display", "view");
+    private static final Set<String> CREATE_VERBS = Set.of("create", "add", "new");
+    private static final Set<String> COMPLETE_VERBS = Set.of("complete", "finish", "close", "mark");
+
+    /**
+     * Result of local classification; intent is null when nothing matched. taskData is set when
+     * the match already carries everything the action needs, so refinement can be skipped.
+     */
+    public record IntentMatch(String intent, double confidence, TaskData taskData) {
+        static final IntentMatch NONE = new IntentMatch(null, 0.0, null);
+    }
+
+    private final double confidenceThreshold;
+    private final double shadowSampleRate;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter agreements;
+    private final Counter disagreements;
+    private final Counter degraded;
+
+    public LocalIntentClassifier(
+            @Value("${agent.fast-path.confidence-threshold:0.8}") double confidenceThreshold,
+            @Value("${agent.fast-path.shadow-sample-rate:0.05}") double shadowSampleRate,
+            MeterRegistry meterRegistry) {
+        this.confidenceThreshold = confidenceThreshold;
+        this.shadowSampleRate = shadowSampleRate;
+        this.hits = meterRegistry.counter("agent.fast_path.requests", "result", "hit");
+        this.misses = meterRegistry.counter("agent.fast_path.requests", "result", "miss");
+        this.agreements = meterRegistry.counter("agent.fast_path.shadow", "result", "agree");
+        this.disagreements = meterRegistry.counter("agent.fast_path.shadow", "result", "disagree");
+        this.degraded = meterRegistry.counter("agent.fast_path.degraded");
+    }
+
+    /**
+     * Classifies the query and records whether it was confident enough to bypass the LLM.
+     */
+    public IntentMatch classify(String query) {
+        IntentMatch match = match(IntentCache.normalize(query));
+        (isConfident(match) ? hits : misses).increment();
+        return match;
+    }
+
+    public boolean isConfident(IntentMatch match) {
+        return match.intent() != null && match.confidence() >= confidenceThreshold;
+    }
+
+    public boolean shouldShadowSample() {
+        return shadowSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < shadowSampleRate;
+    }
+
+    public void recordShadowResult(String localIntent, String llmIntent) {
+        (localIntent.equals(llmIntent) ? agreements : disagreements).increment();
+    }
+
+    public void recordDegraded() {
+        degraded.increment();
+    }
+
+    static IntentMatch match(String text) {
+        Matcher completeById = COMPLETE_BY_ID.matcher(text);
+        if (completeById.matches()) {
+            return new IntentMatch("COMPLETE_TASK", 0.95, TaskData.createForCompletion(completeById.group(1)));
+        }
+
+        String[] words = text.split(" ");
+        String verb = words[0];
+        boolean mentionsTask = TASK_WORD.matcher(text).find();
+        int listWords = count(words, LIST_VERBS);
+        int createWords = count(words, CREATE_VERBS);
+        int completeWords = count(words, COMPLETE_VERBS);
+
+        if (mentionsTask && LIST_VERBS.contains(verb) && createWords == 0 && completeWords == 0) {
+            return new IntentMatch("LIST_TASKS", 0.9, null);
+        }
+        if (mentionsTask && CREATE_VERBS.contains(verb) && listWords == 0 && completeWords == 0) {
+            return new IntentMatch("CREATE_TASK", 0.85, null);
+        }
+
+        // Weak keyword evidence, only good enough for degraded mode
+        if (listWords > 0 && createWords == 0 && completeWords == 0) {
+            return new IntentMatch("LIST_TASKS", 0.5, null);
+        }
+        if (createWords > 0 && listWords == 0 && completeWords == 0) {
+            return new IntentMatch("CREATE_TASK", 0.5, null);
+        }
+        if (completeWords > 0 && listWords == 0 && createWords == 0) {
+            return new IntentMatch("COMPLETE_TASK", 0.5, null);
+        }
+        return IntentMatch.NONE;
+    }
+
+    private static int count(String[] words, Set<String> vocabulary) {
+        int count = 0;
+        for (String word : words) {
+            if (vocabulary.contains(word)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -5,12 +5,27 @@ import com.example.agent.common.model.TaskData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.converter.BeanOutputConverter;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 @Component
 public class Refinement {
     private static final Logger logger = LoggerFactory.getLogger(Refinement.class);
 
+    private static final String SYSTEM_PROMPT = """
+        You are a task refinement assistant. Analyze the task and help make it well-defined.
+        Extract the following fields and format your response as JSON:
+        - description: A clear task description
+        - deadline: A deadline date in ISO format, or null if not specified
+        - priority: priority level (HIGH, MEDIUM, LOW), or null if not specified
+        - constraints: Any constraints or requirements, or null if not specified
+        - needsMoreInfo: true if you need to ask a follow-up question, false otherwise
+        - followUpQuestion: If needsMoreInfo is true, provide a specific question to ask
+        """;
+
     // Record to define the structure expected from the LLM
     record TaskRefinementResponse(
         String description,
@@ -30,30 +45,55 @@ public class Refinement {
     public ConversationContext refineTask(String query, TaskData previousData) {
         logger.info("Entering refineTask with query: {} and previousData: {}", query, previousData);
 
-        String currentIntent = "CREATE_TASK";
-        logger.debug("Default intent set to CREATE_TASK");
-
         String prompt = buildPrompt(query, previousData);
         logger.debug("Prompt built for LLM: {}", prompt);
 
         TaskRefinementResponse response = chatClient
             .prompt()
-            .system("""
-                You are a task refinement assistant. Analyze the task and help make it well-defined.
-                Extract the following fields and format your response as JSON:
-                - description: A clear task description
-                - deadline: A deadline date in ISO format, or null if not specified
-                - priority: priority level (HIGH, MEDIUM, LOW), or null if not specified
-                - constraints: Any constraints or requirements, or null if not specified
-                - needsMoreInfo: true if you need to ask a follow-up question, false otherwise
-                - followUpQuestion: If needsMoreInfo is true, provide a specific question to ask
-                """)
+            .system(SYSTEM_PROMPT)
             .user(prompt)
             .call()
             .entity(TaskRefinementResponse.class);
 
         logger.debug("LLM response received: {}", response);
+        ConversationContext context = toContext(response);
+        logger.info("Exiting refineTask with context: {}", context);
+        return context;
+    }
+
+    /**
+     * Streaming variant of {@link #refineTask(String, TaskData)} that hands every token to the
+     * consumer as it arrives from the model, then parses the complete response.
+     * If the consumer throws, the model stream is cancelled.
+     */
+    public ConversationContext refineTask(String query, TaskData previousData, Consumer<String> tokenConsumer) {
+        logger.info("Entering streaming refineTask with query: {} and previousData: {}", query, previousData);
+
+        String prompt = buildPrompt(query, previousData);
+        BeanOutputConverter<TaskRefinementResponse> converter = new BeanOutputConverter<>(TaskRefinementResponse.class);
+        StringBuilder content = new StringBuilder();
 
+        try (Stream<String> tokens = chatClient
+                .prompt()
+                .system(SYSTEM_PROMPT)
+                .user(prompt + System.lineSeparator() + converter.getFormat())
+                .stream()
+                .content()
+                .toStream()) {
+            tokens.forEach(token -> {
+                tokenConsumer.accept(token);
+                content.append(token);
+            });
+        }
+
+        TaskRefinementResponse response = converter.convert(content.toString());
+        logger.debug("Streamed LLM response received: {}", response);
+        ConversationContext context = toContext(response);
+        logger.info("Exiting streaming refineTask with context: {}", context);
+        return context;
+    }
+
+    private ConversationContext toContext(TaskRefinementResponse response) {
         TaskData collectedData = new TaskData(
             response.description(),
             response.deadline(),
@@ -64,19 +104,16 @@ public class Refinement {
 
         logger.info("Collected data: {}", collectedData);
 
-        ConversationContext context = new ConversationContext(
-            currentIntent,
+        return new ConversationContext(
+            "CREATE_TASK",
             collectedData,
             response.needsMoreInfo(),
             response.needsMoreInfo() ? response.followUpQuestion() : null,
             null
         );
-
-        logger.info("Exiting refineTask with context: {}", context);
-        return context;
     }
     
-    private String buildPrompt(String query, TaskData previousData) {
+    String buildPrompt(String query, TaskData previousData) {
         // If we don't have collected data yet, this is a new task
         if (previousData == null || (previousData.description() == null && previousData.taskId() == null)) {
             return """
@@ -0,0 +1,144 @@
+package com.example.agent.ai.service.decision;
+
+import com.example.agent.task.repository.TaskFilter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the filters spelled out in a listing query ("high priority tasks due this week",
+ * "open subtasks of task 12", "tasks about 'quarterly report'") into a {@link TaskFilter}, which the
+ * listing runs as one parameterized query. Plain pattern matching, so a listing costs no LLM call
+ * beyond classification. Words that are not filters are ignored; a query without any lists every task.
+ */
+final class TaskFilterParser {
+    private static final Pattern PRIORITY = Pattern.compile(
+        "\\b(high|medium|low)[ -]priority\\b|\\bpriority (?:is |of )?(high|medium|low)\\b|\\b(urgent)\\b");
+    private static final Pattern COMPLETED = Pattern.compile("\\b(?:completed|done|finished|closed)\\b");
+    private static final Pattern OPEN = Pattern.compile(
+        "\\b(?:open|active|pending|incomplete|unfinished|outstanding|remaining|to ?do)\\b");
+    private static final Pattern OVERDUE = Pattern.compile("\\b(?:overdue|late|past due)\\b");
+    private static final Pattern PARENT = Pattern.compile(
+        "\\b(?:sub ?tasks?|children|child tasks?) (?:of|under|for) (?:task )?#?(\\d+)\\b");
+    private static final Pattern ROOT = Pattern.compile("\\b(?:root|top[ -]level)\\b");
+    private static final Pattern DUE_PERIOD = Pattern.compile(
+        "\\b(?:due|deadline) (today|tomorrow|this week|next week|this month|next month)\\b");
+    // At most four digits: longer spans overflow, or pass the dates the database can store
+    private static final Pattern DUE_WITHIN = Pattern.compile(
+        "\\b(?:due )?(?:within|in) (?:the next )?(\\d{1,4}) (day|week)s?\\b");
+    private static final Pattern DUE_DATE = Pattern.compile(
+        "\\b(?:due|deadline) (before|by|after|on) (\\d{4}-\\d{2}-\\d{2})\\b");
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]+)\"|(?<![\\w'])'([^']+)'(?![\\w'])");
+    private static final Pattern TEXT = Pattern.compile(
+        "\\b(?:about|containing|mentioning|matching|named|called|titled|regarding) (.+?)"
+            + "(?= (?:due|deadline|priority|that|which|and|before|after|within)\\b|[.?!]|$)");
+
+    private TaskFilterParser() {}
+
+    /**
+     * Returns the filter the query asks for, with relative deadlines ("today", "this week",
+     * "within 3 days") resolved against now.
+     */
+    static TaskFilter parse(String query, LocalDateTime now) {
+        String text = query.toLowerCase(Locale.ROOT).trim();
+
+        Boolean completed = null;
+        boolean overdue = OVERDUE.matcher(text).find();
+        if (overdue || OPEN.matcher(text).find()) {
+            completed = false;
+        } else if (COMPLETED.matcher(text).find()) {
+            completed = true;
+        }
+
+        Long parentId = null;
+        Matcher parent = PARENT.matcher(text);
+        if (parent.find()) {
+            try {
+                parentId = Long.parseLong(parent.group(1));
+            } catch (NumberFormatException e) {
+                // Too many digits for an id: no such task, so leave the filter out
+            }
+        }
+        boolean rootOnly = parentId == null && ROOT.matcher(text).find();
+
+        LocalDateTime[] deadline = deadlineRange(text, now);
+        return new TaskFilter(completed, parentId, rootOnly, priority(text), overdue,
+            deadline[0], deadline[1], searchText(query, text));
+    }
+
+    private static String priority(String text) {
+        Matcher matcher = PRIORITY.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        String level = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+        return level != null ? level.toUpperCase(Locale.ROOT) : "HIGH";
+    }
+
+    /** The [from, to) deadline bounds, either of which may be null. */
+    private static LocalDateTime[] deadlineRange(String text, LocalDateTime now) {
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        Matcher period = DUE_PERIOD.matcher(text);
+        if (period.find()) {
+            LocalDateTime week = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            LocalDateTime month = today.withDayOfMonth(1);
+            return switch (period.group(1)) {
+                case "today" -> range(today, today.plusDays(1));
+                case "tomorrow" -> range(today.plusDays(1), today.plusDays(2));
+                case "this week" -> range(week, week.plusWeeks(1));
+                case "next week" -> range(week.plusWeeks(1), week.plusWeeks(2));
+                case "this month" -> range(month, month.plusMonths(1));
+                default -> range(month.plusMonths(1), month.plusMonths(2));
+            };
+        }
+        Matcher within = DUE_WITHIN.matcher(text);
+        if (within.find()) {
+            int amount = Integer.parseInt(within.group(1));
+            return range(now, "week".equals(within.group(2)) ? now.plusWeeks(amount) : now.plusDays(amount));
+        }
+        Matcher date = DUE_DATE.matcher(text);
+        if (date.find()) {
+            LocalDateTime day;
+            try {
+                day = LocalDate.parse(date.group(2)).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                return range(null, null);
+            }
+            return switch (date.group(1)) {
+                case "before" -> range(null, day);
+                case "by" -> range(null, day.plusDays(1));
+                case "after" -> range(day.plusDays(1), null);
+                default -> range(day, day.plusDays(1));
+            };
+        }
+        return range(null, null);
+    }
+
+    private static LocalDateTime[] range(LocalDateTime from, LocalDateTime to) {
+        return new LocalDateTime[] {from, to};
+    }
+
+    /**
+     * Quoted text keeps its case as written; otherwise the words after "about", "containing" and
+     * the like, up to the next filter keyword.
+     */
+    private static String searchText(String query, String text) {
+        Matcher quoted = QUOTED.matcher(query);
+        if (quoted.find()) {
+            String value = quoted.group(1) != null ? quoted.group(1) : quoted.group(2);
+            return value.isBlank() ? null : value.trim();
+        }
+        Matcher matcher = TEXT.matcher(text);
+        if (matcher.find()) {
+            String value = matcher.group(1).trim();
+            return value.isEmpty() ? null : value;
+        }
+        return null;
+    }
+}
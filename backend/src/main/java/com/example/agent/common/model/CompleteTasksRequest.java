@@ -0,0 +1,9 @@
+package com.example.agent.common.model;
+
+import java.util.List;
+
+/**
+ * Tasks to complete in one statement. With cascade, each task's descendants are completed too,
+ * so a single root id with cascade closes out a whole subtree.
+ */
+public record CompleteTasksRequest(List<Long> ids, boolean cascade) {}
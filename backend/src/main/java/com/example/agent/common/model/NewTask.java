@@ -0,0 +1,19 @@
+package com.example.agent.common.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One task in a batch create request. ref names the task within the batch so that a later entry can
+ * nest under it with parentRef; parentId instead nests it under a task that already exists.
+ */
+public record NewTask(
+    String ref,
+    String description,
+    LocalDateTime deadline,
+    String priority,
+    String constraints,
+    Long parentId,
+    String parentRef,
+    Map<String, Object> metadata
+) {}
@@ -1,6 +1,8 @@
 package com.example.agent.common.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 import java.time.LocalDateTime;
@@ -18,13 +20,15 @@ public record Task(
     String priority,
     String constraints,
     @Column("parent_id") Long parentId,
-    Map<String, Object> metadata
+    Map<String, Object> metadata,
+    @Version Long version
 ) {
     private static final Set<String> VALID_PRIORITIES = Set.of("LOW", "MEDIUM", "HIGH");
-    private static boolean SKIP_VALIDATION = false;
+    // Per thread: a shared flag let one thread's update() switch off another thread's validation
+    private static final ThreadLocal<Boolean> SKIP_VALIDATION = ThreadLocal.withInitial(() -> false);
 
     public Task {
-        if (!SKIP_VALIDATION) {
+        if (!SKIP_VALIDATION.get()) {
             if (description == null || description.trim().isEmpty()) {
                 throw new IllegalArgumentException("Task description cannot be null or empty");
             }
@@ -39,6 +43,32 @@ public record Task(
         }
     }
 
+    /**
+     * Rebuilds a stored task when reading rows. Stored tasks are not validated again:
+     * a deadline that has passed since the task was created is expected, not an error.
+     */
+    @PersistenceCreator
+    public static Task fromRow(
+            Long id,
+            String description,
+            boolean completed,
+            LocalDateTime createdAt,
+            LocalDateTime completedAt,
+            LocalDateTime deadline,
+            String priority,
+            String constraints,
+            Long parentId,
+            Map<String, Object> metadata,
+            Long version) {
+        try {
+            SKIP_VALIDATION.set(true);
+            return new Task(id, description, completed, createdAt, completedAt, deadline, priority,
+                constraints, parentId, metadata, version);
+        } finally {
+            SKIP_VALIDATION.remove();
+        }
+    }
+
     public static Task createNew(String description) {
         return new Task(
             null,
@@ -50,6 +80,7 @@ public record Task(
             null,
             null,
             null,
+            null,
             null
         );
     }
@@ -71,7 +102,8 @@ public record Task(
             priority,
             constraints,
             parentId,
-            metadata
+            metadata,
+            null
         );
     }
     
@@ -83,7 +115,7 @@ public record Task(
             Long parentId,
             Map<String, Object> metadata) {
         try {
-            SKIP_VALIDATION = true;
+            SKIP_VALIDATION.set(true);
             return new Task(
                 null,
                 description,
@@ -94,10 +126,11 @@ public record Task(
                 priority,
                 constraints,
                 parentId,
-                metadata
+                metadata,
+                null
             );
         } finally {
-            SKIP_VALIDATION = false;
+            SKIP_VALIDATION.remove();
         }
     }
     
@@ -105,18 +138,25 @@ public record Task(
         if (completed) {
             return this;
         }
-        return new Task(
-            id,
-            description,
-            true,
-            createdAt,
-            LocalDateTime.now(),
-            deadline,
-            priority,
-            constraints,
-            parentId,
-            metadata
-        );
+        // Completing an overdue task is expected, so the deadline is not checked again
+        try {
+            SKIP_VALIDATION.set(true);
+            return new Task(
+                id,
+                description,
+                true,
+                createdAt,
+                LocalDateTime.now(),
+                deadline,
+                priority,
+                constraints,
+                parentId,
+                metadata,
+                version
+            );
+        } finally {
+            SKIP_VALIDATION.remove();
+        }
     }
 
     public Task updateMetadata(Map<String, Object> newMetadata) {
@@ -130,13 +170,14 @@ public record Task(
             priority,
             constraints,
             parentId,
-            newMetadata
+            newMetadata,
+            version
         );
     }
 
     public Task update(String description, LocalDateTime deadline, String priority, String constraints) {
         try {
-            SKIP_VALIDATION = true;
+            SKIP_VALIDATION.set(true);
             return new Task(
                 id,
                 description != null ? description : this.description,
@@ -147,10 +188,11 @@ public record Task(
                 priority != null ? priority : this.priority,
                 constraints != null ? constraints : this.constraints,
                 parentId,
-                metadata
+                metadata,
+                version
             );
         } finally {
-            SKIP_VALIDATION = false;
+            SKIP_VALIDATION.remove();
         }
     }
 
@@ -0,0 +1,17 @@
+package com.example.agent.common.model;
+
+/**
+ * A committed change to one task, or its deadline passing, as pushed to /api/tasks/events
+ * subscribers. task is the task after the change; it is null only in transit, when the change
+ * was too large to carry it.
+ */
+public record TaskEvent(Type type, Long id, Task task) {
+
+    public enum Type {
+        CREATED, UPDATED, COMPLETED, OVERDUE
+    }
+
+    public static TaskEvent of(Type type, Task task) {
+        return new TaskEvent(type, task.id(), task);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.agent.common.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A task with its subtasks nested beneath it. Serializes as the task's own fields plus "children"
+ * and "truncated". A truncated node has subtasks that were not loaded because it sits at the depth
+ * limit; its children list is empty and its own tree has to be fetched to see them.
+ */
+public record TaskNode(@JsonUnwrapped Task task, List<TaskNode> children, boolean truncated) {
+
+    public TaskNode {
+        children = List.copyOf(children);
+    }
+
+    public TaskNode(Task task, List<TaskNode> children) {
+        this(task, children, false);
+    }
+
+    /**
+     * Nests tasks listed parents-before-children (e.g. ordered by depth). A task whose parent is not
+     * in the list becomes a root. Repeated ids, as produced by walking cyclic parent links,
+     * are dropped, so the result is always a forest.
+     */
+    public static List<TaskNode> assemble(List<Task> tasksInDepthOrder) {
+        return assemble(tasksInDepthOrder, Set.of());
+    }
+
+    /**
+     * Like {@link #assemble(List)}, marking the tasks in truncatedIds as truncated.
+     */
+    public static List<TaskNode> assemble(List<Task> tasksInDepthOrder, Set<Long> truncatedIds) {
+        Map<Long, Task> seen = new LinkedHashMap<>();
+        Map<Long, List<Task>> childrenByParent = new HashMap<>();
+        List<Task> roots = new ArrayList<>();
+        for (Task task : tasksInDepthOrder) {
+            if (seen.containsKey(task.id())) {
+                continue;
+            }
+            if (task.parentId() != null && seen.containsKey(task.parentId())) {
+                childrenByParent.computeIfAbsent(task.parentId(), id -> new ArrayList<>()).add(task);
+            } else {
+                roots.add(task);
+            }
+            seen.put(task.id(), task);
+        }
+        return roots.stream().map(root -> nest(root, childrenByParent, truncatedIds)).toList();
+    }
+
+    private static TaskNode nest(Task task, Map<Long, List<Task>> childrenByParent, Set<Long> truncatedIds) {
+        List<TaskNode> children = childrenByParent.getOrDefault(task.id(), List.of()).stream()
+            .map(child -> nest(child, childrenByParent, truncatedIds))
+            .toList();
+        return new TaskNode(task, children, truncatedIds.contains(task.id()));
+    }
+}
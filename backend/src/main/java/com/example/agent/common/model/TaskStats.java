@@ -0,0 +1,17 @@
+package com.example.agent.common.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Task counts for dashboards. byPriority counts every task with a priority, complete or not;
+ * reconciledAt is when the counts were last recomputed from the table.
+ */
+public record TaskStats(
+    long total,
+    long active,
+    long completed,
+    long overdue,
+    Map<String, Long> byPriority,
+    LocalDateTime reconciledAt
+) {}
@@ -0,0 +1,16 @@
+package com.example.agent.common.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a task list view shows, read without the task's constraints or metadata.
+ * createdAt is included because pages are ordered and resumed by it.
+ */
+public record TaskSummary(
+    long id,
+    String description,
+    boolean completed,
+    String priority,
+    LocalDateTime deadline,
+    LocalDateTime createdAt
+) {}
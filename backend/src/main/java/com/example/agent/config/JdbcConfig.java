@@ -0,0 +1,34 @@
+package com.example.agent.config;
+
+import com.example.agent.AIAgentApplication;
+import com.example.agent.task.repository.TaskMetadataCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JDBC setup with the converters for the tasks' JSONB metadata column. Replaces
+ * Spring Boot's default configuration, which registers no user converters.
+ */
+@Configuration
+public class JdbcConfig extends AbstractJdbcConfiguration {
+    // Looked up lazily: the codec depends on the dialect this configuration defines
+    private final ObjectProvider<TaskMetadataCodec> metadataCodec;
+
+    public JdbcConfig(ObjectProvider<TaskMetadataCodec> metadataCodec) {
+        this.metadataCodec = metadataCodec;
+    }
+
+    @Override
+    protected List<?> userConverters() {
+        return metadataCodec.getObject().converters();
+    }
+
+    @Override
+    protected Collection<String> getMappingBasePackages() {
+        return List.of(AIAgentApplication.class.getPackageName());
+    }
+}
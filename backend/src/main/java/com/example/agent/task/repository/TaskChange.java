@@ -0,0 +1,8 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+
+/**
+ * A task as one write found it and as the write left it.
+ */
+public record TaskChange(Task before, Task after) {}
@@ -0,0 +1,7 @@
+package com.example.agent.task.repository;
+
+/**
+ * Number of tasks with one priority (null for none) and completion state, and how many of them
+ * were overdue when counted.
+ */
+public record TaskCount(String priority, boolean completed, long tasks, long overdue) {}
@@ -0,0 +1,49 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Keyset pagination position: the (created_at, id) of the last task already returned.
+ * Clients treat the encoded form as opaque. Cursors order like the listings they page through.
+ */
+public record TaskCursor(LocalDateTime createdAt, long id) implements Comparable<TaskCursor> {
+    private static final Comparator<TaskCursor> ORDER =
+        Comparator.comparing(TaskCursor::createdAt).thenComparingLong(TaskCursor::id);
+
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.createdAt(), task.id());
+    }
+
+    @Override
+    public int compareTo(TaskCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a cursor produced by {@link #encode()}
+     */
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid task cursor: " + value);
+            }
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid task cursor: " + value, e);
+        }
+    }
+}
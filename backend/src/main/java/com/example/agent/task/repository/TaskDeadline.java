@@ -0,0 +1,20 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * When an incomplete task is due, with the (created_at, id) it is listed by: all the deadline
+ * scheduler keeps in memory per task.
+ */
+public record TaskDeadline(long id, LocalDateTime createdAt, LocalDateTime deadline) {
+
+    public static TaskDeadline of(Task task) {
+        return new TaskDeadline(task.id(), task.createdAt(), task.deadline());
+    }
+
+    public TaskCursor cursor() {
+        return new TaskCursor(createdAt, id);
+    }
+}
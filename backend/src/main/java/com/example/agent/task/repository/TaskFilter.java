@@ -0,0 +1,82 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Row filter shared by the paginated and streamed task listings. Null or false fields do not filter.
+ * The deadline range is [deadlineFrom, deadlineTo), the creation range [createdFrom, createdTo), and
+ * text matches descriptions containing it, ignoring case.
+ *
+ * @throws IllegalArgumentException if priority is not null, LOW, MEDIUM or HIGH
+ */
+public record TaskFilter(
+    Boolean completed,
+    Long parentId,
+    boolean rootOnly,
+    String priority,
+    boolean overdue,
+    LocalDateTime deadlineFrom,
+    LocalDateTime deadlineTo,
+    String text,
+    LocalDateTime createdFrom,
+    LocalDateTime createdTo
+) {
+    public static final TaskFilter ALL = new TaskFilter(null, null, false, null, false);
+    private static final Set<String> PRIORITIES = Set.of("LOW", "MEDIUM", "HIGH");
+
+    public TaskFilter {
+        if (priority != null && !PRIORITIES.contains(priority)) {
+            throw new IllegalArgumentException("Invalid priority value: " + priority);
+        }
+    }
+
+    public TaskFilter(Boolean completed, Long parentId, boolean rootOnly, String priority, boolean overdue) {
+        this(completed, parentId, rootOnly, priority, overdue, null, null, null);
+    }
+
+    public TaskFilter(Boolean completed, Long parentId, boolean rootOnly, String priority, boolean overdue,
+                      LocalDateTime deadlineFrom, LocalDateTime deadlineTo, String text) {
+        this(completed, parentId, rootOnly, priority, overdue, deadlineFrom, deadlineTo, text, null, null);
+    }
+
+    public static TaskFilter active() {
+        return new TaskFilter(false, null, false, null, false);
+    }
+
+    public static TaskFilter subtasksOf(Long parentId) {
+        return new TaskFilter(null, parentId, false, null, false);
+    }
+
+    public static TaskFilter root() {
+        return new TaskFilter(null, null, true, null, false);
+    }
+
+    public static TaskFilter withPriority(String priority) {
+        return new TaskFilter(null, null, false, priority, false);
+    }
+
+    public static TaskFilter overdueTasks() {
+        return new TaskFilter(false, null, false, null, true);
+    }
+
+    /**
+     * Whether the task passes this filter, as the SQL WHERE clause would evaluate it at the given time.
+     */
+    public boolean matches(Task task, LocalDateTime now) {
+        return (completed == null || completed == task.completed())
+            && (parentId == null || parentId.equals(task.parentId()))
+            && (!rootOnly || task.parentId() == null)
+            && (priority == null || priority.equals(task.priority()))
+            && (!overdue || task.deadline() != null && task.deadline().isBefore(now))
+            && (deadlineFrom == null || task.deadline() != null && !task.deadline().isBefore(deadlineFrom))
+            && (deadlineTo == null || task.deadline() != null && task.deadline().isBefore(deadlineTo))
+            && (text == null || task.description() != null
+                && task.description().toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT)))
+            && (createdFrom == null || task.createdAt() != null && !task.createdAt().isBefore(createdFrom))
+            && (createdTo == null || task.createdAt() != null && task.createdAt().isBefore(createdTo));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.TaskNode;
+
+import java.util.List;
+
+/**
+ * One page of root tasks with their subtrees; nextCursor is null once the roots run out.
+ */
+public record TaskForest(List<TaskNode> roots, TaskCursor nextCursor) {}
@@ -0,0 +1,145 @@
+package com.example.agent.task.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.postgresql.util.PGobject;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.jdbc.core.mapping.JdbcValue;
+import org.springframework.data.relational.core.dialect.Dialect;
+import org.springframework.data.relational.core.dialect.PostgresDialect;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts Task.metadata between its map and the JSONB column, for Spring Data's row mapping and
+ * for the hand-written queries. The reader and writer are built once for the map type, and values
+ * are parsed straight into maps rather than through a JsonNode tree.
+ *
+ * Postgres takes and returns jsonb as PGobject text. H2's JSON type takes and returns the JSON
+ * text as bytes; bound as a string it would store a JSON string instead of the object.
+ */
+@Component
+public class TaskMetadataCodec {
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final boolean postgres;
+
+    public TaskMetadataCodec(ObjectMapper objectMapper, Dialect dialect) {
+        this.reader = objectMapper.readerFor(MAP_TYPE);
+        this.writer = objectMapper.writerFor(MAP_TYPE);
+        this.postgres = dialect instanceof PostgresDialect;
+    }
+
+    /**
+     * The converters that let Spring Data JDBC write and read the metadata column.
+     */
+    public List<Object> converters() {
+        return postgres
+            ? List.of(new MetadataWriter(this), new PgObjectReader(this))
+            : List.of(new MetadataWriter(this), new BytesReader(this));
+    }
+
+    /**
+     * The value to bind for a JSONB parameter. Null stays null.
+     */
+    public Object toColumn(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        String json = toJson(metadata);
+        if (!postgres) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        PGobject value = new PGobject();
+        value.setType("jsonb");
+        try {
+            value.setValue(json);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to bind task metadata", e);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a metadata column value as the driver returned it: PGobject, bytes or text.
+     */
+    public Map<String, Object> fromColumn(Object value) {
+        try {
+            return switch (value) {
+                case null -> null;
+                case PGobject object -> object.getValue() == null ? null : reader.readValue(object.getValue());
+                case byte[] bytes -> reader.readValue(bytes);
+                default -> reader.readValue(value.toString());
+            };
+        } catch (IOException e) {
+            throw new IllegalStateException("Stored task metadata is not a JSON object: " + e.getMessage(), e);
+        }
+    }
+
+    public String toJson(Map<String, Object> metadata) {
+        try {
+            return writer.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Task metadata is not serializable: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether document contains fragment as jsonb's @> operator decides it: every key of an object
+     * fragment is present with a contained value, every element of an array fragment is contained
+     * in some element of the array, and scalars are equal. Used where the database has no jsonb.
+     */
+    static boolean contains(Object document, Object fragment) {
+        if (fragment instanceof Map<?, ?> wanted) {
+            return document instanceof Map<?, ?> map && wanted.entrySet().stream()
+                .allMatch(entry -> map.containsKey(entry.getKey()) && contains(map.get(entry.getKey()), entry.getValue()));
+        }
+        if (fragment instanceof List<?> wanted) {
+            return document instanceof List<?> list && wanted.stream()
+                .allMatch(element -> list.stream().anyMatch(candidate -> contains(candidate, element)));
+        }
+        if (document instanceof Number a && fragment instanceof Number b) {
+            // jsonb compares numbers by value, so 1 and 1.0 are equal
+            return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString())) == 0;
+        }
+        return document == null ? fragment == null : document.equals(fragment);
+    }
+
+    @WritingConverter
+    record MetadataWriter(TaskMetadataCodec codec) implements Converter<Map<String, Object>, JdbcValue> {
+        @Override
+        public JdbcValue convert(Map<String, Object> metadata) {
+            return JdbcValue.of(codec.toColumn(metadata), codec.postgres ? JDBCType.OTHER : JDBCType.VARBINARY);
+        }
+    }
+
+    @ReadingConverter
+    record PgObjectReader(TaskMetadataCodec codec) implements Converter<PGobject, Map<String, Object>> {
+        @Override
+        public Map<String, Object> convert(PGobject value) {
+            return codec.fromColumn(value);
+        }
+    }
+
+    @ReadingConverter
+    record BytesReader(TaskMetadataCodec codec) implements Converter<byte[], Map<String, Object>> {
+        @Override
+        public Map<String, Object> convert(byte[] value) {
+            return codec.fromColumn(value);
+        }
+    }
+}
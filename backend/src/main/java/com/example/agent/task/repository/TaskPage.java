@@ -0,0 +1,10 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+
+import java.util.List;
+
+/**
+ * One page of tasks in (created_at, id) order; nextCursor is null on the last page.
+ */
+public record TaskPage(List<Task> tasks, TaskCursor nextCursor) {}
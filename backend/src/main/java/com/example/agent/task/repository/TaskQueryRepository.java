@@ -0,0 +1,107 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.common.model.TaskSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paginated and streamed task queries, ordered by (created_at, id), and sorted searches.
+ */
+public interface TaskQueryRepository {
+
+    /**
+     * Returns up to limit tasks after the cursor (from the start when null).
+     */
+    TaskPage findPage(TaskFilter filter, TaskCursor after, int limit);
+
+    /**
+     * Returns the same page as {@link #findPage}, reading only the columns of a {@link TaskSummary}.
+     */
+    TaskSummaryPage findSummaryPage(TaskFilter filter, TaskCursor after, int limit);
+
+    /**
+     * Returns up to limit tasks after the cursor whose metadata contains the given JSON object,
+     * as jsonb's @> operator decides: {"tags": ["home"]} matches tasks tagged "home" among others.
+     */
+    TaskPage findByMetadata(Map<String, Object> contains, TaskCursor after, int limit);
+
+    /**
+     * Streams every matching task after the cursor through a JDBC cursor with a bounded fetch size.
+     * Must be called inside a transaction (Postgres only uses a server-side cursor when autocommit
+     * is off), and the stream must be closed to release the connection's result set.
+     */
+    Stream<Task> streamAll(TaskFilter filter, TaskCursor after);
+
+    /**
+     * Returns the first limit matching tasks in the given order. Any combination of filter fields
+     * runs as one parameterized query.
+     */
+    List<Task> search(TaskFilter filter, TaskSort sort, int limit);
+
+    /**
+     * Loads the task and every descendant down to maxDepth levels in one recursive query.
+     */
+    Optional<TaskNode> findTree(long rootId, int maxDepth);
+
+    /**
+     * Loads up to limit root tasks after the cursor, each with its descendants down to maxDepth levels,
+     * in one recursive query.
+     */
+    TaskForest findForest(TaskCursor after, int limit, int maxDepth);
+
+    /**
+     * Reserves count ids from the tasks sequence in one round trip, so a batch can link
+     * parents and children before anything is inserted.
+     */
+    List<Long> allocateIds(int count);
+
+    /**
+     * Inserts tasks that already carry their ids with JDBC batching. Parents must precede their children.
+     */
+    void insertAll(List<Task> tasks);
+
+    /**
+     * Returns which of the given ids exist, without loading the tasks.
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Marks the given tasks completed at completedAt in one UPDATE ... RETURNING statement and returns
+     * the tasks it changed. Tasks already completed, and ids that do not exist, are left out. With cascade,
+     * every descendant down to maxDepth levels is completed by the same statement.
+     */
+    List<Task> completeAll(Collection<Long> ids, boolean cascade, int maxDepth, LocalDateTime completedAt);
+
+    /**
+     * Overwrites the task's description, deadline, priority and constraints with those of changes
+     * that are not null, and bumps its version, in one UPDATE statement. When changes carries a
+     * version the update only applies if the stored task still has it. Empty if no row was updated:
+     * the task does not exist or its version has moved on.
+     */
+    Optional<TaskChange> updateFields(long id, Task changes);
+
+    /**
+     * Counts every task by priority and completion state in one aggregate scan, along with the
+     * incomplete ones whose deadline is before now.
+     */
+    List<TaskCount> countTasks(LocalDateTime now);
+
+    /**
+     * Returns the deadlines of incomplete tasks due in [from, to), one per task.
+     */
+    List<LocalDateTime> findActiveDeadlines(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the deadline, creation time and id of every incomplete task that has a deadline,
+     * without reading the rest of the row.
+     */
+    List<TaskDeadline> findActiveTaskDeadlines();
+}
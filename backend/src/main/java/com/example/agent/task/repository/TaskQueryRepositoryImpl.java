@@ -0,0 +1,413 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.common.model.TaskSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jdbc.core.convert.EntityRowMapper;
+import org.springframework.data.jdbc.core.convert.JdbcConverter;
+import org.springframework.data.relational.core.dialect.Dialect;
+import org.springframework.data.relational.core.dialect.PostgresDialect;
+import org.springframework.data.relational.core.mapping.RelationalMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keyset queries on (created_at, id), served by idx_tasks_created_at_id: each page seeks
+ * straight to the cursor instead of skipping OFFSET rows. Filtered queries are assembled from
+ * the filter's conditions with every value bound, and their SQL is cached per {@link Shape}. Rows are mapped with Spring Data's
+ * entity row mapper, so results match what the derived repository queries return.
+ *
+ * Trees are walked with WITH RECURSIVE down to a depth limit, which also stops runaway recursion
+ * through cyclic parent links; {@link TaskNode#assemble} drops the repeated rows such a cycle yields.
+ */
+class TaskQueryRepositoryImpl implements TaskQueryRepository {
+    // truncated marks tasks at the depth limit whose subtasks the walk did not load
+    private static final String SELECT_TREE = " SELECT t.*, (tree.depth = :maxDepth"
+        + " AND EXISTS (SELECT 1 FROM tasks c WHERE c.parent_id = t.id)) AS truncated"
+        + " FROM tree JOIN tasks t ON t.id = tree.id ORDER BY tree.depth, t.created_at, t.id";
+    private static final String ALLOCATE_IDS =
+        "WITH RECURSIVE n (i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < ?)"
+            + " SELECT nextval('tasks_id_seq') FROM n";
+    private static final String INSERT = "INSERT INTO tasks"
+        + " (id, description, completed, created_at, completed_at, deadline, priority, constraints, parent_id, metadata)"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String ALL_COLUMNS = "*";
+    private static final String SUMMARY_COLUMNS = "id, description, completed, priority, deadline, created_at";
+    private static final RowMapper<TaskSummary> SUMMARY_MAPPER = (rs, rowNum) -> new TaskSummary(
+        rs.getLong("id"), rs.getString("description"), rs.getBoolean("completed"), rs.getString("priority"),
+        toLocalDateTime(rs.getTimestamp("deadline")), toLocalDateTime(rs.getTimestamp("created_at")));
+
+    private final NamedParameterJdbcTemplate pageTemplate;
+    private final NamedParameterJdbcTemplate streamTemplate;
+    private final RowMapper<Task> rowMapper;
+    private final TaskMetadataCodec metadataCodec;
+    private final boolean postgres;
+    private final Map<Shape, String> selects = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    TaskQueryRepositoryImpl(
+            DataSource dataSource,
+            JdbcConverter converter,
+            RelationalMappingContext mappingContext,
+            TaskMetadataCodec metadataCodec,
+            Dialect dialect,
+            @Value("${agent.tasks.stream-fetch-size:500}") int streamFetchSize) {
+        this.metadataCodec = metadataCodec;
+        // H2 has no UPDATE ... RETURNING, so it reads updated rows through FINAL TABLE, and no jsonb operators
+        this.postgres = dialect instanceof PostgresDialect;
+        this.pageTemplate = new NamedParameterJdbcTemplate(dataSource);
+        JdbcTemplate streamJdbcTemplate = new JdbcTemplate(dataSource);
+        streamJdbcTemplate.setFetchSize(streamFetchSize);
+        this.streamTemplate = new NamedParameterJdbcTemplate(streamJdbcTemplate);
+        this.rowMapper = new EntityRowMapper<>(
+            (RelationalPersistentEntity<Task>) mappingContext.getRequiredPersistentEntity(Task.class), converter);
+    }
+
+    @Override
+    public TaskPage findPage(TaskFilter filter, TaskCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit + 1);
+        List<Task> tasks = pageTemplate.query(
+            select(ALL_COLUMNS, filter, after, TaskSort.CREATED, parameters) + " LIMIT :limit", parameters, rowMapper);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(List.copyOf(page), TaskCursor.after(page.get(limit - 1)));
+    }
+
+    @Override
+    public TaskSummaryPage findSummaryPage(TaskFilter filter, TaskCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit + 1);
+        List<TaskSummary> tasks = pageTemplate.query(
+            select(SUMMARY_COLUMNS, filter, after, TaskSort.CREATED, parameters) + " LIMIT :limit",
+            parameters, SUMMARY_MAPPER);
+        if (tasks.size() <= limit) {
+            return new TaskSummaryPage(tasks, null);
+        }
+        TaskSummary last = tasks.get(limit - 1);
+        return new TaskSummaryPage(List.copyOf(tasks.subList(0, limit)), new TaskCursor(last.createdAt(), last.id()));
+    }
+
+    @Override
+    public List<Task> search(TaskFilter filter, TaskSort sort, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+        return pageTemplate.query(select(ALL_COLUMNS, filter, null, sort, parameters) + " LIMIT :limit", parameters, rowMapper);
+    }
+
+    @Override
+    public TaskPage findByMetadata(Map<String, Object> contains, TaskCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit + 1);
+        String cursor = "";
+        if (after != null) {
+            cursor = " AND (created_at, id) > (:afterCreatedAt, :afterId)";
+            parameters.addValue("afterCreatedAt", after.createdAt());
+            parameters.addValue("afterId", after.id());
+        }
+        List<Task> tasks;
+        if (postgres) {
+            // Served by the GIN index idx_tasks_metadata in schema-postgresql.sql
+            parameters.addValue("metadata", metadataCodec.toColumn(contains));
+            tasks = pageTemplate.query("SELECT * FROM tasks WHERE metadata @> :metadata" + cursor
+                + " ORDER BY created_at, id LIMIT :limit", parameters, rowMapper);
+        } else {
+            // H2 has no jsonb operators: scan the tasks that have metadata and test containment here
+            try (Stream<Task> candidates = streamTemplate.queryForStream(
+                    "SELECT * FROM tasks WHERE metadata IS NOT NULL" + cursor + " ORDER BY created_at, id",
+                    parameters, rowMapper)) {
+                tasks = candidates.filter(task -> TaskMetadataCodec.contains(task.metadata(), contains))
+                    .limit(limit + 1)
+                    .toList();
+            }
+        }
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(List.copyOf(page), TaskCursor.after(page.get(limit - 1)));
+    }
+
+    @Override
+    public Stream<Task> streamAll(TaskFilter filter, TaskCursor after) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        return streamTemplate.queryForStream(select(ALL_COLUMNS, filter, after, TaskSort.CREATED, parameters), parameters, rowMapper);
+    }
+
+    @Override
+    public Optional<TaskNode> findTree(long rootId, int maxDepth) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("rootId", rootId)
+            .addValue("maxDepth", maxDepth);
+        List<TaskNode> trees = queryTree(
+            "WITH RECURSIVE " + tree("SELECT id, 0 FROM tasks WHERE id = :rootId") + SELECT_TREE, parameters);
+        return trees.stream().findFirst();
+    }
+
+    @Override
+    public TaskForest findForest(TaskCursor after, int limit, int maxDepth) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit)
+            .addValue("maxDepth", maxDepth);
+        String roots = select(ALL_COLUMNS, TaskFilter.root(), after, TaskSort.CREATED, parameters) + " LIMIT :limit";
+        List<TaskNode> forest = queryTree(
+            "WITH RECURSIVE " + tree("SELECT id, 0 FROM (" + roots + ") roots") + SELECT_TREE, parameters);
+        // A full page may be followed by an empty one; counting one extra root would load its whole subtree
+        TaskCursor next = forest.size() == limit ? TaskCursor.after(forest.get(limit - 1).task()) : null;
+        return new TaskForest(forest, next);
+    }
+
+    @Override
+    public List<Long> allocateIds(int count) {
+        return pageTemplate.getJdbcTemplate().queryForList(ALLOCATE_IDS, Long.class, count);
+    }
+
+    @Override
+    public void insertAll(List<Task> tasks) {
+        pageTemplate.getJdbcTemplate().batchUpdate(INSERT, tasks, INSERT_BATCH_SIZE, (ps, task) -> {
+            ps.setLong(1, task.id());
+            ps.setString(2, task.description());
+            ps.setBoolean(3, task.completed());
+            ps.setTimestamp(4, Timestamp.valueOf(task.createdAt()));
+            ps.setTimestamp(5, task.completedAt() == null ? null : Timestamp.valueOf(task.completedAt()));
+            ps.setTimestamp(6, task.deadline() == null ? null : Timestamp.valueOf(task.deadline()));
+            ps.setString(7, task.priority());
+            ps.setString(8, task.constraints());
+            if (task.parentId() == null) {
+                ps.setNull(9, Types.BIGINT);
+            } else {
+                ps.setLong(9, task.parentId());
+            }
+            ps.setObject(10, metadataCodec.toColumn(task.metadata()));
+        });
+    }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(pageTemplate.queryForList(
+            "SELECT id FROM tasks WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    @Override
+    public List<Task> completeAll(Collection<Long> ids, boolean cascade, int maxDepth, LocalDateTime completedAt) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+            .addValue("maxDepth", maxDepth)
+            .addValue("completedAt", completedAt);
+        String targets = cascade
+            ? "(WITH RECURSIVE " + tree("SELECT id, 0 FROM tasks WHERE id IN (:ids)") + " SELECT id FROM tree)"
+            : "(:ids)";
+        String update = "UPDATE tasks SET completed = true, completed_at = :completedAt, version = version + 1"
+            + " WHERE id IN " + targets + " AND completed = false";
+        String sql = postgres ? update + " RETURNING *" : "SELECT * FROM FINAL TABLE (" + update + ")";
+        return pageTemplate.query(sql, parameters, rowMapper);
+    }
+
+    @Override
+    public Optional<TaskChange> updateFields(long id, Task changes) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("id", id)
+            .addValue("description", changes.description())
+            .addValue("deadline", changes.deadline())
+            .addValue("priority", changes.priority())
+            .addValue("constraints", changes.constraints());
+        String set = " SET description = COALESCE(:description, tasks.description),"
+            + " deadline = COALESCE(:deadline, tasks.deadline),"
+            + " priority = COALESCE(:priority, tasks.priority),"
+            + " constraints = COALESCE(:constraints, tasks.constraints),"
+            + " version = tasks.version + 1";
+        String where = changes.version() == null ? "" : " AND tasks.version = :version";
+        parameters.addValue("version", changes.version());
+        // Both forms return the row as it was before the update. The locking CTE makes Postgres
+        // read the latest committed row, as the UPDATE itself does, so a concurrent write is not missed.
+        String sql = postgres
+            ? "WITH previous AS (SELECT * FROM tasks WHERE id = :id FOR UPDATE) UPDATE tasks" + set
+                + " FROM previous WHERE tasks.id = previous.id" + where + " RETURNING previous.*"
+            : "SELECT * FROM OLD TABLE (UPDATE tasks" + set + " WHERE tasks.id = :id" + where + ")";
+        return pageTemplate.query(sql, parameters, rowMapper).stream().findFirst()
+            .map(before -> new TaskChange(before, Task.fromRow(before.id(),
+                changes.description() != null ? changes.description() : before.description(),
+                before.completed(), before.createdAt(), before.completedAt(),
+                changes.deadline() != null ? changes.deadline() : before.deadline(),
+                changes.priority() != null ? changes.priority() : before.priority(),
+                changes.constraints() != null ? changes.constraints() : before.constraints(),
+                before.parentId(), before.metadata(), before.version() + 1)));
+    }
+
+    @Override
+    public List<TaskCount> countTasks(LocalDateTime now) {
+        return pageTemplate.query("""
+            SELECT priority, completed, COUNT(*) AS tasks,
+                   SUM(CASE WHEN completed = false AND deadline < :now THEN 1 ELSE 0 END) AS overdue
+            FROM tasks GROUP BY priority, completed
+            """,
+            new MapSqlParameterSource("now", now),
+            (rs, rowNum) -> new TaskCount(rs.getString("priority"), rs.getBoolean("completed"),
+                rs.getLong("tasks"), rs.getLong("overdue")));
+    }
+
+    @Override
+    public List<LocalDateTime> findActiveDeadlines(LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("from", from).addValue("to", to);
+        return pageTemplate.query(
+            "SELECT deadline FROM tasks WHERE completed = false AND deadline >= :from AND deadline < :to",
+            parameters, (rs, rowNum) -> rs.getTimestamp("deadline").toLocalDateTime());
+    }
+
+    @Override
+    public List<TaskDeadline> findActiveTaskDeadlines() {
+        return pageTemplate.getJdbcTemplate().query(
+            "SELECT id, created_at, deadline FROM tasks WHERE completed = false AND deadline IS NOT NULL",
+            (rs, rowNum) -> new TaskDeadline(rs.getLong("id"), toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("deadline"))));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private List<TaskNode> queryTree(String sql, MapSqlParameterSource parameters) {
+        Set<Long> loadedIds = new HashSet<>();
+        Set<Long> truncatedIds = new HashSet<>();
+        List<Task> tasks = pageTemplate.query(sql, parameters, (rs, rowNum) -> {
+            Task task = rowMapper.mapRow(rs, rowNum);
+            // Only a task's first row counts; a repeat at the limit comes from a cycle and is dropped
+            if (loadedIds.add(task.id()) && rs.getBoolean("truncated")) {
+                truncatedIds.add(task.id());
+            }
+            return task;
+        });
+        return TaskNode.assemble(tasks, truncatedIds);
+    }
+
+    private static String tree(String anchor) {
+        return "tree (id, depth) AS (" + anchor
+            + " UNION ALL SELECT c.id, tree.depth + 1 FROM tasks c JOIN tree ON c.parent_id = tree.id"
+            + " WHERE tree.depth < :maxDepth)";
+    }
+
+    /** Escapes LIKE wildcards with the default escape character, backslash on both Postgres and H2. */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private String select(String columns, TaskFilter filter, TaskCursor after, TaskSort sort,
+                          MapSqlParameterSource parameters) {
+        if (filter.parentId() != null) {
+            parameters.addValue("parentId", filter.parentId());
+        }
+        if (filter.priority() != null) {
+            parameters.addValue("priority", filter.priority());
+        }
+        if (filter.deadlineFrom() != null) {
+            parameters.addValue("deadlineFrom", filter.deadlineFrom());
+        }
+        if (filter.deadlineTo() != null) {
+            parameters.addValue("deadlineTo", filter.deadlineTo());
+        }
+        if (filter.text() != null) {
+            parameters.addValue("text", "%" + escapeLike(filter.text()) + "%");
+        }
+        if (filter.createdFrom() != null) {
+            parameters.addValue("createdFrom", filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            parameters.addValue("createdTo", filter.createdTo());
+        }
+        if (after != null) {
+            parameters.addValue("afterCreatedAt", after.createdAt());
+            parameters.addValue("afterId", after.id());
+        }
+        return selects.computeIfAbsent(Shape.of(columns, filter, after != null, sort), Shape::sql);
+    }
+
+    /**
+     * Which columns a query reads and which conditions it has, apart from their values. Queries of one shape share their SQL text,
+     * so the parsed statement is reused by NamedParameterJdbcTemplate and the prepared statement by
+     * the database: pgjdbc switches to a named server-side statement after a few executions of the
+     * same text, and H2 keeps compiled statements per session by text. There are a few thousand
+     * possible shapes at most, so the cache needs no bound.
+     */
+    private record Shape(
+        String columns,
+        Boolean completed,
+        boolean parentId,
+        boolean rootOnly,
+        boolean priority,
+        boolean overdue,
+        boolean deadlineFrom,
+        boolean deadlineTo,
+        boolean text,
+        boolean createdFrom,
+        boolean createdTo,
+        boolean after,
+        TaskSort sort
+    ) {
+        static Shape of(String columns, TaskFilter filter, boolean after, TaskSort sort) {
+            return new Shape(columns, filter.completed(), filter.parentId() != null, filter.rootOnly(),
+                filter.priority() != null, filter.overdue(), filter.deadlineFrom() != null,
+                filter.deadlineTo() != null, filter.text() != null, filter.createdFrom() != null,
+                filter.createdTo() != null, after, sort);
+        }
+
+        String sql() {
+            List<String> conditions = new ArrayList<>();
+            if (completed != null) {
+                // Inlined rather than bound so Postgres can match the partial index on completed = false
+                conditions.add(completed ? "completed = true" : "completed = false");
+            }
+            if (parentId) {
+                conditions.add("parent_id = :parentId");
+            }
+            if (rootOnly) {
+                conditions.add("parent_id IS NULL");
+            }
+            if (priority) {
+                conditions.add("priority = :priority");
+            }
+            if (overdue) {
+                conditions.add("deadline < CURRENT_TIMESTAMP");
+            }
+            if (deadlineFrom) {
+                conditions.add("deadline >= :deadlineFrom");
+            }
+            if (deadlineTo) {
+                conditions.add("deadline < :deadlineTo");
+            }
+            if (text) {
+                // Unanchored ILIKE, served on Postgres by the trigram index in schema-postgresql.sql
+                conditions.add("description ILIKE :text");
+            }
+            if (createdFrom) {
+                conditions.add("created_at >= :createdFrom");
+            }
+            if (createdTo) {
+                conditions.add("created_at < :createdTo");
+            }
+            if (after) {
+                conditions.add("(created_at, id) > (:afterCreatedAt, :afterId)");
+            }
+            String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+            return "SELECT " + columns + " FROM tasks" + where + " ORDER BY " + sort.orderBy();
+        }
+    }
+}
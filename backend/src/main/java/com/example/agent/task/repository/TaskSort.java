@@ -0,0 +1,43 @@
+package com.example.agent.task.repository;
+
+import java.util.Locale;
+
+/**
+ * Result order of a task search. Every order ends on id so that ties come back in a stable order;
+ * tasks without a deadline sort after those with one either way.
+ */
+public enum TaskSort {
+    CREATED("created", "created_at, id"),
+    CREATED_DESC("-created", "created_at DESC, id DESC"),
+    DEADLINE("deadline", "deadline NULLS LAST, id"),
+    DEADLINE_DESC("-deadline", "deadline DESC NULLS LAST, id DESC");
+
+    private final String name;
+    private final String orderBy;
+
+    TaskSort(String name, String orderBy) {
+        this.name = name;
+        this.orderBy = orderBy;
+    }
+
+    /**
+     * Parses the sort as written in a request: "created" or "deadline", prefixed with "-" for
+     * descending order. Null means {@link #CREATED}.
+     */
+    public static TaskSort parse(String value) {
+        if (value == null) {
+            return CREATED;
+        }
+        String name = value.trim().toLowerCase(Locale.ROOT);
+        for (TaskSort sort : values()) {
+            if (sort.name.equals(name)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+
+    String orderBy() {
+        return orderBy;
+    }
+}
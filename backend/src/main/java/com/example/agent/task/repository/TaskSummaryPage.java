@@ -0,0 +1,10 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.TaskSummary;
+
+import java.util.List;
+
+/**
+ * One page of task summaries in (created_at, id) order; nextCursor is null on the last page.
+ */
+public record TaskSummaryPage(List<TaskSummary> tasks, TaskCursor nextCursor) {}
@@ -0,0 +1,334 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.common.model.TaskEvent.Type;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskDeadline;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.event.TaskEventBus;
+import com.example.agent.task.service.event.TaskEventHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * The deadlines of incomplete tasks, held in memory in deadline order, so the overdue tasks are
+ * found without a range query and a task is announced the moment it becomes overdue. Only each
+ * task's deadline, creation time and id are kept; the rows are loaded by id when a listing or an
+ * announcement needs them. Tasks that have fallen due are also kept in listing order, so a page of
+ * overdue tasks is read from its cursor on. A timer on the task scheduler wakes at the next deadline. Every node
+ * keeps its own copy current from the committed changes its {@link TaskEventHub} receives, but
+ * only the node the event bus names publisher sends "overdue" events, so each goes out once.
+ * Nodes also follow the overdue events the publisher sends, so a node that takes over sends what
+ * fell due since the last one it saw. The deadlines are reloaded from the table every reload
+ * interval, which picks up writes made directly in the database.
+ */
+@Component
+public class DeadlineScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineScheduler.class);
+    /** Overdue means deadline < now, so the timer wakes just after the deadline rather than on it. */
+    private static final Duration WAKE_MARGIN = Duration.ofMillis(1);
+    private static final Comparator<TaskDeadline> LISTING_ORDER = Comparator.comparing(TaskDeadline::cursor);
+
+    private record Due(LocalDateTime deadline, long id) implements Comparable<Due> {
+        private static final Comparator<Due> ORDER =
+            Comparator.comparing(Due::deadline).thenComparingLong(Due::id);
+
+        /** Sorts before every task due at the given time. */
+        static Due before(LocalDateTime deadline) {
+            return new Due(deadline, Long.MIN_VALUE);
+        }
+
+        static Due of(TaskDeadline task) {
+            return new Due(task.deadline(), task.id());
+        }
+
+        @Override
+        public int compareTo(Due other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskEventBus taskEventBus;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final Object reloadLock = new Object();
+
+    // Guarded by this
+    private final Map<Long, TaskDeadline> deadlines = new HashMap<>();
+    private final NavigableSet<Due> byDeadline = new TreeSet<>();
+    /** The tracked tasks due before overdueUpTo, in listing order. */
+    private final NavigableSet<TaskDeadline> overdue = new TreeSet<>(LISTING_ORDER);
+    private LocalDateTime overdueUpTo = LocalDateTime.MIN;
+    /** Every task due before this has passed the timer, or was already overdue when loaded. */
+    private LocalDateTime firedUpTo;
+    /** Every task due up to this has been announced, by this node or by the publisher it heard from. */
+    private Due announcedUpTo;
+    /** Changes received while a reload's query runs, applied again on top of its result. */
+    private List<Task> changedDuringReload;
+    private ScheduledFuture<?> timer;
+    private LocalDateTime timerDeadline;
+
+    @Autowired
+    public DeadlineScheduler(
+            TaskRepository taskRepository,
+            TaskEventHub taskEventHub,
+            TaskEventBus taskEventBus,
+            TaskScheduler taskScheduler) {
+        this(taskRepository, taskEventHub, taskEventBus, taskScheduler, Clock.systemDefaultZone());
+    }
+
+    DeadlineScheduler(TaskRepository taskRepository, TaskEventHub taskEventHub, TaskEventBus taskEventBus,
+                      TaskScheduler taskScheduler, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.taskEventBus = taskEventBus;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        taskEventHub.addListener(this::receive);
+        // Off the bus's listener thread: catching up queries and publishes
+        taskEventBus.onPublisherAcquired(() -> taskScheduler.schedule(this::announce, Instant.now(clock)));
+    }
+
+    /**
+     * Returns up to limit overdue tasks after the cursor, ordered and paged like the table listings.
+     * The page's rows are read by id; a task completed since its event arrived is left out.
+     */
+    public TaskPage overduePage(TaskCursor after, int limit) {
+        boolean loaded;
+        synchronized (this) {
+            loaded = firedUpTo != null;
+        }
+        if (!loaded) {
+            reload();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<TaskDeadline> page = new ArrayList<>();
+        synchronized (this) {
+            advanceOverdue(now);
+            NavigableSet<TaskDeadline> from = after == null
+                ? overdue
+                : overdue.tailSet(new TaskDeadline(after.id(), after.createdAt(), null), false);
+            for (TaskDeadline task : from) {
+                if (page.size() > limit) {
+                    break;
+                }
+                page.add(task);
+            }
+        }
+        TaskCursor next = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            next = page.get(limit - 1).cursor();
+        }
+        return new TaskPage(loadOverdue(page, now), next);
+    }
+
+    /**
+     * Replaces the tracked deadlines with those of the incomplete tasks in the table. Changes that
+     * commit while the query runs are applied again on top of its result, so none is lost.
+     */
+    @Scheduled(fixedDelayString = "${agent.deadlines.reload-interval:5m}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changedDuringReload = new ArrayList<>();
+            }
+            List<TaskDeadline> loaded;
+            try {
+                loaded = taskRepository.findActiveTaskDeadlines();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                deadlines.clear();
+                byDeadline.clear();
+                overdue.clear();
+                loaded.forEach(this::put);
+                changedDuringReload.forEach(this::put);
+                changedDuringReload = null;
+                if (firedUpTo == null) {
+                    // Tasks already overdue at startup were announced by whichever node saw them pass
+                    firedUpTo = LocalDateTime.now(clock);
+                    announcedUpTo = Due.before(firedUpTo);
+                }
+                schedule();
+            }
+        }
+    }
+
+    private void receive(TaskEvent event) {
+        track(event.task());
+        if (event.type() == Type.OVERDUE && event.task() != null && event.task().deadline() != null) {
+            heard(new Due(event.task().deadline(), event.task().id()));
+        }
+    }
+
+    /**
+     * Applies a committed change: tracks the task while it is incomplete with a deadline, drops it otherwise.
+     */
+    synchronized void track(Task task) {
+        if (task == null || task.id() == null) {
+            return;
+        }
+        put(task);
+        if (changedDuringReload != null) {
+            changedDuringReload.add(task);
+        }
+        schedule();
+    }
+
+    private synchronized void heard(Due announced) {
+        if (announcedUpTo != null && announced.compareTo(announcedUpTo) > 0) {
+            announcedUpTo = announced;
+        }
+    }
+
+    private void put(Task task) {
+        if (!task.completed() && task.deadline() != null) {
+            put(TaskDeadline.of(task));
+        } else {
+            remove(task.id());
+        }
+    }
+
+    private void put(TaskDeadline task) {
+        remove(task.id());
+        deadlines.put(task.id(), task);
+        byDeadline.add(Due.of(task));
+        if (task.deadline().isBefore(overdueUpTo)) {
+            overdue.add(task);
+        }
+    }
+
+    private void remove(long id) {
+        TaskDeadline previous = deadlines.remove(id);
+        if (previous != null) {
+            byDeadline.remove(Due.of(previous));
+            overdue.remove(previous);
+        }
+    }
+
+    /**
+     * Moves the tasks that fell due since the last call into the overdue set.
+     */
+    private void advanceOverdue(LocalDateTime now) {
+        if (!now.isAfter(overdueUpTo)) {
+            return;
+        }
+        for (Due due : byDeadline.subSet(Due.before(overdueUpTo), true, Due.before(now), false)) {
+            overdue.add(deadlines.get(due.id()));
+        }
+        overdueUpTo = now;
+    }
+
+    /**
+     * Points the timer at the first deadline not yet passed, if it is not already set for it.
+     */
+    private void schedule() {
+        if (firedUpTo == null) {
+            return;
+        }
+        Due next = byDeadline.ceiling(Due.before(firedUpTo));
+        LocalDateTime deadline = next == null ? null : next.deadline();
+        if (deadline != null && deadline.equals(timerDeadline)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        timerDeadline = deadline;
+        if (deadline != null) {
+            timer = taskScheduler.schedule(this::fire, deadline.plus(WAKE_MARGIN).atZone(clock.getZone()).toInstant());
+        }
+    }
+
+    void fire() {
+        synchronized (this) {
+            timer = null;
+            timerDeadline = null;
+            firedUpTo = LocalDateTime.now(clock);
+            schedule();
+        }
+        announce();
+    }
+
+    /**
+     * On the publisher, sends an "overdue" event for every task that fell due since the last one
+     * announced. That is what the timer just passed, or on a node that has just become publisher,
+     * also what fell due while no node was publishing.
+     */
+    void announce() {
+        if (!taskEventBus.isPublisher()) {
+            return;
+        }
+        List<TaskDeadline> due = new ArrayList<>();
+        LocalDateTime now;
+        synchronized (this) {
+            if (announcedUpTo == null) {
+                return;
+            }
+            now = LocalDateTime.now(clock);
+            Due upTo = Due.before(now);
+            if (announcedUpTo.compareTo(upTo) >= 0) {
+                return;
+            }
+            for (Due entry : byDeadline.subSet(announcedUpTo, false, upTo, false)) {
+                due.add(deadlines.get(entry.id()));
+            }
+            announcedUpTo = upTo;
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            List<Task> overdue = loadOverdue(due, now);
+            if (!overdue.isEmpty()) {
+                taskEventBus.publish(overdue.stream().map(task -> TaskEvent.of(Type.OVERDUE, task)).toList());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to announce {} overdue tasks: {}", due.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the rows of the given tasks in the given order, keeping those still incomplete and overdue.
+     */
+    private List<Task> loadOverdue(List<TaskDeadline> tasks, LocalDateTime now) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> rows = StreamSupport.stream(
+                taskRepository.findAllById(tasks.stream().map(TaskDeadline::id).toList()).spliterator(), false)
+            .collect(Collectors.toMap(Task::id, Function.identity()));
+        return tasks.stream()
+            .map(task -> rows.get(task.id()))
+            .filter(task -> task != null && !task.completed() && task.deadline() != null && task.deadline().isBefore(now))
+            .toList();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of task finder results keyed on filter, cursor and page size, so the
+ * listings every UI client polls (active, root, overdue, by priority) are served from memory.
+ * Bounded by entry count and by an estimate of the bytes the cached tasks retain. Writes made
+ * through {@link TaskService} evict, once their transaction commits, only the cached pages the
+ * changed tasks appear on or move into; overdue listings also expire after a short TTL, since
+ * tasks become overdue without any write. Pages are indexed by the ids of the tasks they list, so
+ * finding the pages a task was on is a lookup; a write changing more tasks than
+ * agent.task-cache.invalidate-all-above drops every page instead of checking each one. Hits and misses are counted per finder as
+ * "agent.task_cache.requests", next to the cache metrics published under the name "taskFinders".
+ * A maximum of zero entries disables caching; single finders can be disabled by name.
+ */
+@Component
+public class TaskCache {
+    /** Rough heap cost of a cached task without its strings: the record, timestamps and boxed ids. */
+    private static final int TASK_BYTES = 256;
+    private static final int METADATA_ENTRY_BYTES = 128;
+    private static final int PAGE_BYTES = 128;
+
+    /**
+     * The finder a filter belongs to, named as in agent.task-cache.disabled-finders.
+     */
+    enum Finder {
+        ALL, ACTIVE, ROOT, SUBTASKS, PRIORITY, OVERDUE, SEARCH;
+
+        static Finder of(TaskFilter filter) {
+            if (filter.text() != null || filter.deadlineFrom() != null || filter.deadlineTo() != null
+                    || filter.createdFrom() != null || filter.createdTo() != null) {
+                return SEARCH;
+            }
+            if (filter.overdue()) {
+                return OVERDUE;
+            }
+            if (filter.priority() != null) {
+                return PRIORITY;
+            }
+            if (filter.parentId() != null) {
+                return SUBTASKS;
+            }
+            if (filter.rootOnly()) {
+                return ROOT;
+            }
+            return Boolean.FALSE.equals(filter.completed()) ? ACTIVE : ALL;
+        }
+
+        static Finder named(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown task finder: " + name, e);
+            }
+        }
+    }
+
+    private record Key(TaskFilter filter, TaskCursor after, int limit) {}
+
+    private final Cache<Key, TaskPage> cache;
+    private final boolean enabled;
+    private final Set<Finder> disabledFinders;
+    private final Map<Finder, Counter> hits = new EnumMap<>(Finder.class);
+    private final Map<Finder, Counter> misses = new EnumMap<>(Finder.class);
+    /** The keys of the cached pages listing each task. Only changed inside the entry's compute. */
+    private final Map<Long, Set<Key>> keysByTaskId = new ConcurrentHashMap<>();
+    private final int invalidateAllAbove;
+    /** Bumped by every eviction sweep, so a load that raced a write is not left in the cache. */
+    private final AtomicLong writes = new AtomicLong();
+
+    @Autowired
+    public TaskCache(
+            @Value("${agent.task-cache.maximum-entries:10000}") long maximumEntries,
+            @Value("${agent.task-cache.maximum-size:64MB}") DataSize maximumSize,
+            @Value("${agent.task-cache.ttl:5m}") Duration ttl,
+            @Value("${agent.task-cache.overdue-ttl:30s}") Duration overdueTtl,
+            @Value("${agent.task-cache.invalidate-all-above:100}") int invalidateAllAbove,
+            @Value("${agent.task-cache.disabled-finders:}") Set<String> disabledFinders,
+            MeterRegistry meterRegistry) {
+        this(maximumEntries, maximumSize.toBytes(), ttl, overdueTtl, invalidateAllAbove,
+            disabledFinders.stream().filter(name -> !name.isBlank()).map(Finder::named).collect(Collectors.toSet()),
+            meterRegistry, Ticker.systemTicker());
+    }
+
+    TaskCache(long maximumEntries, long maximumBytes, Duration ttl, Duration overdueTtl, int invalidateAllAbove,
+              Set<Finder> disabledFinders, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = maximumEntries > 0 && maximumBytes > 0;
+        this.invalidateAllAbove = invalidateAllAbove;
+        this.disabledFinders = disabledFinders.isEmpty() ? EnumSet.noneOf(Finder.class) : EnumSet.copyOf(disabledFinders);
+        // Caffeine bounds either size or weight: every entry weighs at least its share of the byte
+        // budget, so the weight bound also caps the entry count
+        long minimumWeight = enabled ? Math.max(1, maximumBytes / maximumEntries) : 1;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(enabled ? maximumBytes : 0)
+            .weigher((Key key, TaskPage page) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minimumWeight, weigh(page))))
+            // Runs inside the evicting compute, so it cannot interleave with a put of the same key
+            .evictionListener((Key key, TaskPage page, RemovalCause cause) -> {
+                if (key != null && page != null) {
+                    unindex(key, page);
+                }
+            })
+            .expireAfter(new Expiry<Key, TaskPage>() {
+                @Override
+                public long expireAfterCreate(Key key, TaskPage page, long currentTime) {
+                    return (Finder.of(key.filter()) == Finder.OVERDUE ? overdueTtl : ttl).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, TaskPage page, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, page, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(Key key, TaskPage page, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "taskFinders");
+        for (Finder finder : Finder.values()) {
+            String name = finder.name().toLowerCase(Locale.ROOT);
+            hits.put(finder, meterRegistry.counter("agent.task_cache.requests", "finder", name, "result", "hit"));
+            misses.put(finder, meterRegistry.counter("agent.task_cache.requests", "finder", name, "result", "miss"));
+        }
+    }
+
+    /**
+     * Returns the cached page for the filter, cursor and page size, loading and caching it on a miss.
+     */
+    public TaskPage getPage(TaskFilter filter, TaskCursor after, int limit, Supplier<TaskPage> loader) {
+        return get(new Key(filter, after, limit), loader);
+    }
+
+    private TaskPage get(Key key, Supplier<TaskPage> loader) {
+        Finder finder = Finder.of(key.filter());
+        if (!enabled || disabledFinders.contains(finder)) {
+            return loader.get();
+        }
+        TaskPage cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.get(finder).increment();
+            return cached;
+        }
+        misses.get(finder).increment();
+        long generation = writes.get();
+        TaskPage loaded = loader.get();
+        // Cached pages are shared between callers, so they must not be mutable
+        List<Task> tasks = List.copyOf(loaded.tasks());
+        TaskPage page = tasks == loaded.tasks() ? loaded : new TaskPage(tasks, loaded.nextCursor());
+        put(key, page);
+        // A write that committed during the load may have swept the cache before this put
+        if (writes.get() != generation) {
+            remove(key);
+        }
+        return page;
+    }
+
+    private void put(Key key, TaskPage page) {
+        cache.asMap().compute(key, (k, previous) -> {
+            if (previous != null) {
+                unindex(k, previous);
+            }
+            index(k, page);
+            return page;
+        });
+    }
+
+    private void remove(Key key) {
+        cache.asMap().computeIfPresent(key, (k, page) -> {
+            unindex(k, page);
+            return null;
+        });
+    }
+
+    private void index(Key key, TaskPage page) {
+        for (Task task : page.tasks()) {
+            if (task.id() != null) {
+                keysByTaskId.compute(task.id(), (id, keys) -> {
+                    Set<Key> indexed = keys == null ? new HashSet<>() : keys;
+                    indexed.add(key);
+                    return indexed;
+                });
+            }
+        }
+    }
+
+    private void unindex(Key key, TaskPage page) {
+        for (Task task : page.tasks()) {
+            if (task.id() != null) {
+                keysByTaskId.computeIfPresent(task.id(), (id, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+    }
+
+    /**
+     * Evicts every cached page the tasks, as just written, are on or now belong on. Inside a
+     * transaction the eviction waits for the commit, so a concurrent read cannot re-cache the
+     * rows the write is replacing.
+     */
+    public void evict(Collection<Task> changed) {
+        if (!enabled || changed.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = List.copyOf(changed);
+        AfterCommit.run(() -> sweep(tasks));
+    }
+
+    private void sweep(Collection<Task> changed) {
+        writes.incrementAndGet();
+        if (changed.size() > invalidateAllAbove) {
+            invalidateAll();
+            return;
+        }
+        for (Task task : changed) {
+            Set<Key> listing = task.id() == null ? null : keysByTaskId.remove(task.id());
+            if (listing != null) {
+                listing.forEach(this::remove);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Key, TaskPage> entry : cache.asMap().entrySet()) {
+            if (changed.stream().anyMatch(task -> joins(entry.getKey(), entry.getValue(), task, now))) {
+                remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Drops every cached page. Entries are removed one by one, keeping the index in step with
+     * pages cached concurrently.
+     */
+    private void invalidateAll() {
+        cache.asMap().keySet().forEach(this::remove);
+    }
+
+    /**
+     * Whether a task that is not on the cached page now belongs on it: it passes the filter and its
+     * position falls after the page's cursor and, for a full page, no later than its last task.
+     * Tasks leaving a filter need no check here, as every page they could shift is a page they were on.
+     */
+    private static boolean joins(Key key, TaskPage page, Task task, LocalDateTime now) {
+        if (!key.filter().matches(task, now)) {
+            return false;
+        }
+        if (task.createdAt() == null || task.id() == null) {
+            return true;
+        }
+        TaskCursor position = TaskCursor.after(task);
+        return (key.after() == null || position.compareTo(key.after()) > 0)
+            && (page.nextCursor() == null || position.compareTo(page.nextCursor()) <= 0);
+    }
+
+    static long weigh(TaskPage page) {
+        long bytes = PAGE_BYTES;
+        for (Task task : page.tasks()) {
+            bytes += TASK_BYTES + length(task.description()) + length(task.constraints());
+            if (task.metadata() != null) {
+                bytes += (long) METADATA_ENTRY_BYTES * task.metadata().size();
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.agent.task.service;
+
+/**
+ * Thrown when a task looked up by id does not exist. It extends IllegalArgumentException, so callers
+ * that treat every bad argument alike keep working. Controllers catch it separately to answer 404
+ * rather than 400.
+ */
+public class TaskNotFoundException extends IllegalArgumentException {
+
+    public TaskNotFoundException(Long taskId) {
+        super("Task not found with ID: " + taskId);
+    }
+}
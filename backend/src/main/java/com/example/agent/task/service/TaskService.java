@@ -1,7 +1,21 @@
 package com.example.agent.task.service;
 
+import com.example.agent.common.model.NewTask;
 import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.common.model.TaskEvent.Type;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.task.repository.TaskChange;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskForest;
+import com.example.agent.task.repository.TaskPage;
 import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.repository.TaskSort;
+import com.example.agent.task.repository.TaskSummaryPage;
+import com.example.agent.task.service.event.TaskEventBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -9,69 +23,265 @@ import java.util.Set;
 import java.util.Optional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TaskService {
     private final TaskRepository taskRepository;
+    private final TaskCache taskCache;
+    private final TaskStatistics taskStatistics;
+    private final DeadlineScheduler deadlineScheduler;
+    private final TaskEventBus taskEventBus;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxTreeDepth;
+    private final int maxBatchSize;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(
+            TaskRepository taskRepository,
+            TaskCache taskCache,
+            TaskStatistics taskStatistics,
+            DeadlineScheduler deadlineScheduler,
+            TaskEventBus taskEventBus,
+            @Value("${agent.tasks.default-page-size:100}") int defaultPageSize,
+            @Value("${agent.tasks.max-page-size:1000}") int maxPageSize,
+            @Value("${agent.tasks.max-tree-depth:32}") int maxTreeDepth,
+            @Value("${agent.tasks.max-batch-size:10000}") int maxBatchSize) {
         this.taskRepository = taskRepository;
+        this.taskCache = taskCache;
+        this.taskStatistics = taskStatistics;
+        this.deadlineScheduler = deadlineScheduler;
+        this.taskEventBus = taskEventBus;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxTreeDepth = maxTreeDepth;
+        this.maxBatchSize = maxBatchSize;
     }
 
-    public List<Task> getAllTasks() {
-        return StreamSupport.stream(taskRepository.findAll().spliterator(), false)
-            .collect(Collectors.toList());
+    /**
+     * Returns one keyset page in (created_at, id) order. A null limit uses the default page size;
+     * larger limits are capped at the maximum page size. Pages are read through the {@link TaskCache},
+     * except overdue ones, which the {@link DeadlineScheduler} serves from memory.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage getTaskPage(TaskFilter filter, TaskCursor after, Integer limit) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Task filter cannot be null");
+        }
+        int pageSize = pageSize(limit);
+        if (filter.equals(TaskFilter.overdueTasks())) {
+            return deadlineScheduler.overduePage(after, pageSize);
+        }
+        return taskCache.getPage(filter, after, pageSize, () -> taskRepository.findPage(filter, after, pageSize));
     }
 
-    public List<Task> getActiveTasks() {
-        return taskRepository.findByCompletedFalse();
+    /**
+     * Returns the page {@link #getTaskPage} would, as summaries read from only the columns they show.
+     * Summary pages skip the {@link TaskCache}, which holds full tasks.
+     */
+    @Transactional(readOnly = true)
+    public TaskSummaryPage getTaskSummaryPage(TaskFilter filter, TaskCursor after, Integer limit) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Task filter cannot be null");
+        }
+        return taskRepository.findSummaryPage(filter, after, pageSize(limit));
     }
 
-    public Task createTask(Task task) {
-        if (task == null) {
-            throw new IllegalArgumentException("Task cannot be null");
+    /**
+     * Returns one keyset page, like {@link #getTaskPage}, of the tasks whose metadata contains the
+     * given JSON object. Not cached.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByMetadata(Map<String, Object> contains, TaskCursor after, Integer limit) {
+        if (contains == null || contains.isEmpty()) {
+            throw new IllegalArgumentException("Metadata filter must name at least one key");
         }
-        return taskRepository.save(task);
+        return taskRepository.findByMetadata(contains, after, pageSize(limit));
     }
 
-    public Task completeTask(Long taskId) {
+    /**
+     * Returns the first tasks matching any combination of filters, in the given order. The limit is
+     * sized like a page limit. Searches go straight to the database: their filter combinations are
+     * too varied for the {@link TaskCache} to hit.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(TaskFilter filter, TaskSort sort, Integer limit) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Task filter cannot be null");
+        }
+        if (sort == null) {
+            throw new IllegalArgumentException("Task sort cannot be null");
+        }
+        return taskRepository.search(filter, sort, pageSize(limit));
+    }
+
+    /**
+     * Returns the task with all of its descendants nested beneath it, or empty if it does not exist.
+     * A null depth loads down to the maximum tree depth; larger depths are capped at it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TaskNode> getTaskTree(Long taskId, Integer depth) {
         if (taskId == null) {
             throw new IllegalArgumentException("Task ID cannot be null");
         }
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new IllegalArgumentException("Task not found with ID: " + taskId));
-        return taskRepository.save(task.markCompleted());
+        return taskRepository.findTree(taskId, treeDepth(depth));
+    }
+
+    /**
+     * Returns one keyset page of root tasks, each with all of its descendants nested beneath it.
+     */
+    @Transactional(readOnly = true)
+    public TaskForest getTaskForest(TaskCursor after, Integer limit, Integer depth) {
+        return taskRepository.findForest(after, pageSize(limit), treeDepth(depth));
+    }
+
+    /**
+     * Hands every matching task to the consumer as it is read from the database cursor,
+     * so memory stays bounded by the fetch size rather than the table size.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(TaskFilter filter, TaskCursor after, Consumer<Task> consumer) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Task filter cannot be null");
+        }
+        try (Stream<Task> tasks = taskRepository.streamAll(filter, after)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    public Task createTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Task saved = taskRepository.save(task);
+        taskCache.evict(List.of(saved));
+        taskStatistics.created(List.of(saved));
+        taskEventBus.publish(List.of(TaskEvent.of(Type.CREATED, saved)));
+        return saved;
     }
 
-    public List<Task> getSubtasks(Long parentId) {
-        if (parentId == null) {
-            throw new IllegalArgumentException("Parent ID cannot be null");
+    /**
+     * Creates every task in one transaction and returns their ids in request order. Nothing is
+     * written unless the whole batch is valid: each task passes the same checks as a single create,
+     * refs are unique, a parentRef names an earlier task in the batch, and every parentId exists.
+     * Ids are allocated up front so children can reference parents within the same JDBC batch.
+     */
+    public List<Long> createTasks(List<NewTask> newTasks) {
+        if (newTasks == null || newTasks.isEmpty()) {
+            throw new IllegalArgumentException("Task batch cannot be empty");
+        }
+        if (newTasks.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Task batch of " + newTasks.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        Map<String, Integer> indexByRef = new HashMap<>();
+        Set<Long> parentIds = new HashSet<>();
+        for (int i = 0; i < newTasks.size(); i++) {
+            NewTask newTask = newTasks.get(i);
+            if (newTask == null) {
+                throw new IllegalArgumentException("Task " + i + " cannot be null");
+            }
+            if (newTask.parentId() != null && newTask.parentRef() != null) {
+                throw new IllegalArgumentException("Task " + i + ": set parentId or parentRef, not both");
+            }
+            if (newTask.parentRef() != null && !indexByRef.containsKey(newTask.parentRef())) {
+                throw new IllegalArgumentException(
+                    "Task " + i + ": parentRef '" + newTask.parentRef() + "' does not name an earlier task in the batch");
+            }
+            if (newTask.ref() != null && indexByRef.putIfAbsent(newTask.ref(), i) != null) {
+                throw new IllegalArgumentException("Task " + i + ": duplicate ref '" + newTask.ref() + "'");
+            }
+            if (newTask.parentId() != null) {
+                parentIds.add(newTask.parentId());
+            }
+            toTask(i, newTask, null, newTask.parentId(), createdAt);
+        }
+        Set<Long> missingParents = new HashSet<>(parentIds);
+        missingParents.removeAll(taskRepository.findExistingIds(parentIds));
+        if (!missingParents.isEmpty()) {
+            throw new IllegalArgumentException("Parent tasks not found: " + missingParents);
         }
-        List<Task> subtasks = taskRepository.findSubtasks(parentId);
-        if (subtasks.isEmpty()) {
-            throw new IllegalArgumentException("No subtasks found for parent ID: " + parentId);
+
+        List<Long> ids = taskRepository.allocateIds(newTasks.size());
+        List<Task> tasks = new ArrayList<>(newTasks.size());
+        for (int i = 0; i < newTasks.size(); i++) {
+            NewTask newTask = newTasks.get(i);
+            Long parentId = newTask.parentRef() != null
+                ? ids.get(indexByRef.get(newTask.parentRef()))
+                : newTask.parentId();
+            tasks.add(toTask(i, newTask, ids.get(i), parentId, createdAt));
         }
-        return subtasks;
+        taskRepository.insertAll(tasks);
+        taskCache.evict(tasks);
+        taskStatistics.created(tasks);
+        taskEventBus.publish(events(Type.CREATED, tasks));
+        return ids;
     }
 
-    public List<Task> getRootTasks() {
-        return taskRepository.findRootTasks();
+    private static Task toTask(int index, NewTask newTask, Long id, Long parentId, LocalDateTime createdAt) {
+        try {
+            return new Task(id, newTask.description(), false, createdAt, null, newTask.deadline(),
+                newTask.priority(), newTask.constraints(), parentId, newTask.metadata(), null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Task " + index + ": " + e.getMessage(), e);
+        }
     }
 
-    public List<Task> getTasksByPriority(String priority) {
-        if (priority == null || !Set.of("LOW", "MEDIUM", "HIGH").contains(priority)) {
-            throw new IllegalArgumentException("Invalid priority value: " + priority);
+    public Task completeTask(Long taskId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Task ID cannot be null");
+        }
+        List<Task> completed = taskRepository.completeAll(List.of(taskId), false, 0, LocalDateTime.now());
+        if (!completed.isEmpty()) {
+            taskCache.evict(completed);
+            taskStatistics.completed(completed);
+            taskEventBus.publish(events(Type.COMPLETED, completed));
+            return completed.get(0);
         }
-        return taskRepository.findByPriority(priority);
+        // Nothing changed: the task is already complete, or missing
+        return taskRepository.findById(taskId)
+            .orElseThrow(() -> new TaskNotFoundException(taskId));
     }
 
-    public List<Task> getOverdueTasks() {
-        return taskRepository.findOverdueTasks();
+    /**
+     * Completes the given tasks in one set-based UPDATE and returns those this call completed;
+     * tasks that were already complete or do not exist are left out. With cascade, every
+     * descendant of each task (down to the maximum tree depth) is completed by the same statement.
+     */
+    public List<Task> completeTasks(List<Long> taskIds, boolean cascade) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            throw new IllegalArgumentException("Task IDs cannot be empty");
+        }
+        if (taskIds.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Cannot complete " + taskIds.size() + " tasks at once; the maximum is " + maxBatchSize);
+        }
+        if (taskIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Task ID cannot be null");
+        }
+        List<Task> completed = taskRepository.completeAll(Set.copyOf(taskIds), cascade, maxTreeDepth, LocalDateTime.now());
+        taskCache.evict(completed);
+        taskStatistics.completed(completed);
+        taskEventBus.publish(events(Type.COMPLETED, completed));
+        return completed;
     }
 
+    /**
+     * Applies the non-null description, deadline, priority and constraints of updatedTask in one
+     * conditional UPDATE, without reading the task first. When updatedTask carries a version the
+     * update only applies if the task has not been written since that version was read.
+     *
+     * @throws IllegalArgumentException if the task does not exist
+     * @throws OptimisticLockingFailureException if the task's version differs from updatedTask's
+     */
     public Task updateTask(Long taskId, Task updatedTask) {
         if (taskId == null) {
             throw new IllegalArgumentException("Task ID cannot be null");
@@ -79,15 +289,34 @@ public class TaskService {
         if (updatedTask == null) {
             throw new IllegalArgumentException("Updated task cannot be null");
         }
-        Task existingTask = taskRepository.findById(taskId)
-            .orElseThrow(() -> new IllegalArgumentException("Task not found with ID: " + taskId));
+        TaskChange change = taskRepository.updateFields(taskId, updatedTask).orElseThrow(() -> {
+            if (updatedTask.version() != null && taskRepository.existsById(taskId)) {
+                return new OptimisticLockingFailureException(
+                    "Task " + taskId + " was modified after version " + updatedTask.version());
+            }
+            return new TaskNotFoundException(taskId);
+        });
+        taskCache.evict(List.of(change.after()));
+        taskStatistics.updated(change.before(), change.after());
+        taskEventBus.publish(List.of(TaskEvent.of(Type.UPDATED, change.after())));
+        return change.after();
+    }
 
-        Task updated = existingTask.update(
-            updatedTask.description(),
-            updatedTask.deadline(),
-            updatedTask.priority(),
-            updatedTask.constraints()
-        );
-        return taskRepository.save(updated);
+    private static List<TaskEvent> events(Type type, List<Task> tasks) {
+        return tasks.stream().map(task -> TaskEvent.of(type, task)).toList();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        return limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+    }
+
+    private int treeDepth(Integer depth) {
+        if (depth != null && depth < 0) {
+            throw new IllegalArgumentException("Tree depth cannot be negative: " + depth);
+        }
+        return depth == null ? maxTreeDepth : Math.min(depth, maxTreeDepth);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskStats;
+import com.example.agent.task.repository.TaskCount;
+import com.example.agent.task.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Task counters kept in memory and adjusted by every write made through {@link TaskService}, so a
+ * stats read never touches the table. Overdue is a matter of time as well as writes: the deadlines
+ * of incomplete tasks falling due before the next reconciliation are held in a sorted map and
+ * moved into the overdue count as they pass. The counters are recomputed from the table every
+ * reconcile interval, which corrects writes made by other nodes or directly in the database.
+ */
+@Component
+public class TaskStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatistics.class);
+
+    private final TaskRepository taskRepository;
+    private final Duration reconcileInterval;
+    private final Clock clock;
+
+    // Guarded by this
+    private long total;
+    private long completed;
+    private long overdue;
+    private final Map<String, Long> byPriority = new HashMap<>();
+    /** Deadline to number of incomplete tasks due then, for deadlines in [now, horizon). */
+    private final NavigableMap<LocalDateTime, Long> upcoming = new TreeMap<>();
+    /** Deadlines from here on are not tracked until the next reconciliation moves the horizon. */
+    private LocalDateTime horizon = LocalDateTime.MIN;
+    private LocalDateTime reconciledAt;
+
+    @Autowired
+    public TaskStatistics(
+            TaskRepository taskRepository,
+            @Value("${agent.task-stats.reconcile-interval:5m}") Duration reconcileInterval) {
+        this(taskRepository, reconcileInterval, Clock.systemDefaultZone());
+    }
+
+    TaskStatistics(TaskRepository taskRepository, Duration reconcileInterval, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.reconcileInterval = reconcileInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current counts, reconciling first if the table has not been counted yet.
+     */
+    public TaskStats snapshot() {
+        synchronized (this) {
+            if (reconciledAt != null) {
+                return stats();
+            }
+        }
+        reconcile();
+        synchronized (this) {
+            return stats();
+        }
+    }
+
+    /**
+     * Recomputes every counter from the table. Writes that commit while the counting queries run
+     * may be counted twice or missed; the next reconciliation corrects them.
+     */
+    @Scheduled(fixedDelayString = "${agent.task-stats.reconcile-interval:5m}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        // Twice the interval, so time does not pass the horizon when the next run starts late
+        LocalDateTime newHorizon = now.plus(reconcileInterval.multipliedBy(2));
+        List<TaskCount> counts = taskRepository.countTasks(now);
+        List<LocalDateTime> deadlines = taskRepository.findActiveDeadlines(now, newHorizon);
+        synchronized (this) {
+            long previousTotal = total;
+            total = 0;
+            completed = 0;
+            overdue = 0;
+            byPriority.clear();
+            upcoming.clear();
+            for (TaskCount count : counts) {
+                total += count.tasks();
+                overdue += count.overdue();
+                if (count.completed()) {
+                    completed += count.tasks();
+                }
+                if (count.priority() != null) {
+                    byPriority.merge(count.priority(), count.tasks(), Long::sum);
+                }
+            }
+            deadlines.forEach(deadline -> upcoming.merge(deadline, 1L, Long::sum));
+            horizon = newHorizon;
+            if (reconciledAt != null && previousTotal != total) {
+                logger.debug("Task statistics drifted by {} tasks since the last reconciliation", total - previousTotal);
+            }
+            reconciledAt = now;
+        }
+    }
+
+    /**
+     * Counts newly inserted tasks once their transaction commits.
+     */
+    void created(Collection<Task> tasks) {
+        List<Task> created = List.copyOf(tasks);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                LocalDateTime now = promote();
+                for (Task task : created) {
+                    count(task.completed(), task.priority(), task.deadline(), 1, now);
+                }
+            }
+        });
+    }
+
+    /**
+     * Moves tasks this write completed from active to completed once it commits.
+     */
+    void completed(Collection<Task> tasks) {
+        List<Task> done = List.copyOf(tasks);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                LocalDateTime now = promote();
+                for (Task task : done) {
+                    count(false, task.priority(), task.deadline(), -1, now);
+                    count(true, task.priority(), task.deadline(), 1, now);
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces the contribution of a task's previous state with its new one once the write commits.
+     */
+    void updated(Task before, Task after) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                LocalDateTime now = promote();
+                count(before.completed(), before.priority(), before.deadline(), -1, now);
+                count(after.completed(), after.priority(), after.deadline(), 1, now);
+            }
+        });
+    }
+
+    private void count(boolean isCompleted, String priority, LocalDateTime deadline, int sign, LocalDateTime now) {
+        total += sign;
+        if (isCompleted) {
+            completed += sign;
+        }
+        if (priority != null) {
+            byPriority.merge(priority, (long) sign, Long::sum);
+        }
+        if (!isCompleted && deadline != null && deadline.isBefore(horizon)) {
+            if (deadline.isBefore(now)) {
+                overdue += sign;
+            } else {
+                upcoming.merge(deadline, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    /**
+     * Moves deadlines that have passed into the overdue count and returns the time it used.
+     */
+    private LocalDateTime promote() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        NavigableMap<LocalDateTime, Long> due = upcoming.headMap(now, false);
+        due.values().forEach(tasks -> overdue += tasks);
+        due.clear();
+        return now;
+    }
+
+    private TaskStats stats() {
+        promote();
+        Map<String, Long> priorities = new HashMap<>();
+        byPriority.forEach((priority, tasks) -> {
+            if (tasks != 0) {
+                priorities.put(priority, tasks);
+            }
+        });
+        return new TaskStats(total, total - completed, completed, overdue, Map.copyOf(priorities), reconciledAt);
+    }
+}
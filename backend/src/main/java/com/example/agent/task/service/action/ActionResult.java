@@ -0,0 +1,25 @@
+package com.example.agent.task.service.action;
+
+import com.example.agent.common.model.Task;
+
+import java.util.List;
+
+/**
+ * What an action produced: the task it wrote, as returned by the write itself, or the tasks it
+ * listed. Callers use it as is, so a query costs no read beyond those the action made.
+ */
+public record ActionResult(Task task, List<Task> tasks) {
+    private static final ActionResult NONE = new ActionResult(null, null);
+
+    public static ActionResult of(Task task) {
+        return new ActionResult(task, null);
+    }
+
+    public static ActionResult listing(List<Task> tasks) {
+        return new ActionResult(null, List.copyOf(tasks));
+    }
+
+    public static ActionResult none() {
+        return NONE;
+    }
+}
@@ -18,15 +18,12 @@ public class CompleteTaskAction implements TaskAction {
     /**
      * Executes the task completion action by processing the provided parameters.
      * @param parameters The task parameters containing the taskId
-     * @return The task parameters with updated information
+     * @return The completed task, as returned by the completing UPDATE
      */
     @Override
-    public TaskParameters execute(TaskParameters parameters) {
+    public ActionResult execute(TaskParameters parameters) {
         String taskId = parameters.taskId();
-        taskService.completeTask(Long.parseLong(taskId));
-        
-        // Return the parameters with additional information if needed
-        return parameters;
+        return ActionResult.of(taskService.completeTask(Long.parseLong(taskId)));
     }
 
     /**
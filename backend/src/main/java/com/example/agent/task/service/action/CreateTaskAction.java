@@ -17,7 +17,7 @@ public class CreateTaskAction implements TaskAction {
     }
 
     @Override
-    public TaskParameters execute(TaskParameters parameters) {
+    public ActionResult execute(TaskParameters parameters) {
         logger.info("Entering execute method with parameters: {}", parameters);
 
         if (parameters == null || parameters.description() == null || parameters.description().isEmpty()) {
@@ -39,15 +39,7 @@ public class CreateTaskAction implements TaskAction {
             logger.debug("Saving task to repository");
             task = taskService.createTask(task);
             logger.info("Task created successfully with ID: {}", task.id());
-            
-            // Return new parameters with the task ID if available
-            return TaskParameters.forCreateTask(
-                task.id() != null ? task.id().toString() : null,
-                task.description(),
-                task.deadline() != null ? task.deadline().format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null,
-                task.priority(),
-                task.constraints()
-            );
+            return ActionResult.of(task);
         } catch (Exception e) {
             logger.error("Error occurred while creating task: {}", e.getMessage(), e);
             throw e;
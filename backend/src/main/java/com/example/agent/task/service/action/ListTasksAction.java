@@ -1,11 +1,10 @@
 package com.example.agent.task.service.action;
 
-import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskPage;
 import com.example.agent.task.service.TaskService;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
  * ListTasksAction is responsible for listing tasks in the system.
  * This class implements the TaskAction interface and specifically handles the LIST_TASKS intent.
@@ -24,17 +23,16 @@ public class ListTasksAction implements TaskAction {
     }
 
     /**
-     * Executes the list tasks action by processing the provided parameters.
-     * @param parameters The parameters for finding tasks (may include filters)
-     * @return The task parameters with updated information
+     * Executes the list tasks action by running the filter in the parameters as one query.
+     * @param parameters The parameters for finding tasks; without a filter every task is listed
+     * @return The first page of matching tasks
      */
     @Override
-    public TaskParameters execute(TaskParameters parameters) {
-        List<Task> tasks = taskService.getAllTasks();
-        
-        // For now, just return the parameters unchanged
-        // In a more advanced implementation, you might include task listing information
-        return parameters;
+    public ActionResult execute(TaskParameters parameters) {
+        TaskFilter filter = parameters != null && parameters.filter() != null ? parameters.filter() : TaskFilter.ALL;
+        // Only the first page: loading the whole table per query does not scale
+        TaskPage tasks = taskService.getTaskPage(filter, null, null);
+        return ActionResult.listing(tasks.tasks());
     }
 
     /**
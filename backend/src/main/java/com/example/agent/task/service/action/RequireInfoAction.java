@@ -2,12 +2,12 @@ package com.example.agent.task.service.action;
 
 public class RequireInfoAction implements TaskAction {
     @Override
-    public TaskParameters execute(TaskParameters parameters) {
-        return parameters;
+    public ActionResult execute(TaskParameters parameters) {
+        return ActionResult.none();
     }
 
     @Override
     public boolean canHandle(String intent) {
         return "REQUIRE_INFO".equals(intent);
     }
-}
\ No newline at end of file
+}
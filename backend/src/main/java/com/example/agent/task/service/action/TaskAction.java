@@ -1,6 +1,6 @@
 package com.example.agent.task.service.action;
 
 public interface TaskAction {
-    TaskParameters execute(TaskParameters parameters);
+    ActionResult execute(TaskParameters parameters);
     boolean canHandle(String intent);
-}
\ No newline at end of file
+}
@@ -1,12 +1,19 @@
 package com.example.agent.task.service.action;
 
+import com.example.agent.task.repository.TaskFilter;
+
 public record TaskParameters(
         String description,
         String deadline,
         String priority,
         String constraints,
-        String taskId
+        String taskId,
+        TaskFilter filter
 ) {
+    public TaskParameters(String description, String deadline, String priority, String constraints, String taskId) {
+        this(description, deadline, priority, constraints, taskId, null);
+    }
+
     public static TaskParameters forCreateTask(
             String taskId,
             String description,
@@ -20,4 +27,8 @@ public record TaskParameters(
     public static TaskParameters forCompleteTask(String taskId) {
         return new TaskParameters(null, null, null, null, taskId);
     }
-}
\ No newline at end of file
+
+    public static TaskParameters forListTasks(TaskFilter filter) {
+        return new TaskParameters(null, null, null, null, null, filter);
+    }
+}
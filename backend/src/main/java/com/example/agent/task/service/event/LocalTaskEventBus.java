@@ -0,0 +1,27 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.task.service.AfterCommit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single-node event bus: committed changes go straight to this node's subscribers.
+ */
+@Component
+@ConditionalOnProperty(name = "agent.task-events.transport", havingValue = "local")
+public class LocalTaskEventBus implements TaskEventBus {
+    private final TaskEventHub hub;
+
+    public LocalTaskEventBus(TaskEventHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void publish(List<TaskEvent> events) {
+        List<TaskEvent> committed = List.copyOf(events);
+        AfterCommit.run(() -> hub.broadcast(committed));
+    }
+}
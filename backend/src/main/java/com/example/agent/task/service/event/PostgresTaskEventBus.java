@@ -0,0 +1,290 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.task.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdDelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.StdConverter;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event bus over Postgres LISTEN/NOTIFY, so a change made on any node reaches the subscribers of
+ * every node. Events are sent with pg_notify inside the writing transaction, which Postgres delivers
+ * only on commit. Each node listens on one dedicated pooled connection and hands what arrives to its
+ * {@link TaskEventHub}, its own changes included. Notifications sent while the listener is
+ * reconnecting are missed. The listening connection also competes for a session-level advisory
+ * lock; the node holding it is the publisher of events every node detects, such as overdue tasks.
+ */
+@Component
+@ConditionalOnProperty(name = "agent.task-events.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresTaskEventBus implements TaskEventBus, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresTaskEventBus.class);
+    static final String CHANNEL = "task_events";
+    /** Postgres rejects NOTIFY payloads of 8000 bytes or more. */
+    static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?) AS payload";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    /** Advisory lock key held by the publisher node: "task_evs" in ASCII. */
+    static final long PUBLISHER_LOCK = 0x7461736b5f657673L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper eventReader;
+    private final TaskRepository taskRepository;
+    private final TaskEventHub hub;
+    private final List<Runnable> publisherCallbacks = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile boolean publisher;
+    private Thread listener;
+
+    public PostgresTaskEventBus(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            TaskRepository taskRepository,
+            TaskEventHub hub) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        // Tasks in events are stored rows: an overdue deadline must not fail validation on the way in
+        this.eventReader = objectMapper.copy().registerModule(new SimpleModule()
+            .addDeserializer(Task.class, new StdDelegatingDeserializer<>(new StoredTaskConverter())));
+        this.taskRepository = taskRepository;
+        this.hub = hub;
+    }
+
+    @Override
+    public void publish(List<TaskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Object[] payloads = events.stream().map(this::payload).toArray();
+        // One round trip for the whole batch; runs on the transaction's connection, so it commits with it
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Array array = connection.createArrayOf("text", payloads);
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY)) {
+                statement.setArray(1, array);
+                try (ResultSet ignored = statement.executeQuery()) {
+                    return null;
+                }
+            } finally {
+                array.free();
+            }
+        });
+    }
+
+    /**
+     * The event as JSON, without its task when the whole event would not fit in a notification;
+     * receiving nodes then load the task themselves.
+     */
+    String payload(TaskEvent event) {
+        String json = toJson(event);
+        if (json.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+            return json;
+        }
+        return toJson(new TaskEvent(event.type(), event.id(), null));
+    }
+
+    /**
+     * Broadcasts the notifications of one poll together, so the hub can coalesce the burst a large
+     * write sends. Tasks left out of their payloads are loaded in one query.
+     */
+    void deliver(List<String> payloads) {
+        List<TaskEvent> events = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            try {
+                events.add(eventReader.readValue(payload, TaskEvent.class));
+            } catch (JsonProcessingException e) {
+                logger.warn("Ignoring malformed task event: {}", e.getMessage());
+            }
+        }
+        List<Long> missing = events.stream().filter(event -> event.task() == null).map(TaskEvent::id).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, Task> loaded = new HashMap<>();
+            taskRepository.findAllById(missing).forEach(task -> loaded.put(task.id(), task));
+            events = events.stream()
+                .filter(event -> event.task() != null || loaded.containsKey(event.id()))
+                .map(event -> event.task() != null ? event : new TaskEvent(event.type(), event.id(), loaded.get(event.id())))
+                .toList();
+        }
+        if (!events.isEmpty()) {
+            hub.broadcast(events);
+        }
+    }
+
+    @Override
+    public boolean isPublisher() {
+        return publisher;
+    }
+
+    @Override
+    public void onPublisherAcquired(Runnable callback) {
+        publisherCallbacks.add(callback);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("task-events-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    receive(connection);
+                } finally {
+                    release(connection);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Task event listener failed, reconnecting in {}: {}", RETRY_DELAY, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        logger.info("Listening for task events on channel {}", CHANNEL);
+        while (running) {
+            if (!publisher) {
+                publisher = tryLock(connection);
+                if (publisher) {
+                    publisherAcquired();
+                }
+            }
+            PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT.toMillis());
+            if (notifications != null && notifications.length > 0) {
+                deliver(Arrays.stream(notifications).map(PGNotification::getParameter).toList());
+            }
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + PUBLISHER_LOCK + ")")) {
+            boolean acquired = result.next() && result.getBoolean(1);
+            if (acquired) {
+                logger.info("This node now publishes overdue task events");
+            }
+            return acquired;
+        }
+    }
+
+    private void publisherAcquired() {
+        for (Runnable callback : publisherCallbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                logger.warn("Publisher callback failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops listening and gives up the publisher lock before the connection goes back to the pool,
+     * where both would otherwise outlive this listener. A broken connection has already lost them.
+     */
+    private void release(Connection connection) {
+        boolean held = publisher;
+        publisher = false;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN " + CHANNEL);
+            if (held) {
+                statement.execute("SELECT pg_advisory_unlock(" + PUBLISHER_LOCK + ")");
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not release the task event connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A task's fields as an event carries them, turned into a task through {@link Task#fromRow}, as
+     * row mapping does.
+     */
+    record StoredTask(
+            Long id,
+            String description,
+            boolean completed,
+            LocalDateTime createdAt,
+            LocalDateTime completedAt,
+            LocalDateTime deadline,
+            String priority,
+            String constraints,
+            Long parentId,
+            Map<String, Object> metadata,
+            Long version) {
+
+        Task toTask() {
+            return Task.fromRow(id, description, completed, createdAt, completedAt, deadline, priority,
+                constraints, parentId, metadata, version);
+        }
+    }
+
+    private static final class StoredTaskConverter extends StdConverter<StoredTask, Task> {
+        @Override
+        public Task convert(StoredTask value) {
+            return value.toTask();
+        }
+    }
+
+    private String toJson(TaskEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize task event", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.TaskEvent;
+
+import java.util.List;
+
+/**
+ * Carries task changes to the {@link TaskEventHub} of every backend node.
+ */
+public interface TaskEventBus {
+
+    /**
+     * Publishes changes made by the current transaction. Subscribers only see them once it commits,
+     * and never for a rollback.
+     */
+    void publish(List<TaskEvent> events);
+
+    /**
+     * Whether this node should publish the events every node detects on its own, such as a deadline
+     * passing, so that each is sent once. A bus that only reaches this node always publishes them.
+     */
+    default boolean isPublisher() {
+        return true;
+    }
+
+    /**
+     * Registers a callback run each time this node becomes the publisher, so it can send what fell
+     * due while no node was publishing. A bus that always publishes never calls it.
+     */
+    default void onPublisherAcquired(Runnable callback) {
+    }
+}
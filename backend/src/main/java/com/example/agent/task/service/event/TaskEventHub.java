@@ -0,0 +1,183 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fans task events out to this node's SSE subscribers. Each subscriber has a bounded buffer drained
+ * by its own sender on the application task executor (virtual threads), so one slow client never
+ * delays the others: a subscriber whose buffer is full is dropped, and its client reconnects and
+ * refetches. A change to more tasks than coalesceAbove, such as a batch import or a cascading
+ * completion, takes one buffer slot as a single "bulk" event with the ids, so a burst from one
+ * write does not fill the buffers of clients that are keeping up. Idle streams get a comment line every heartbeat interval, which also detects
+ * disconnected clients. Subscribers are gauged as "agent.task_events.subscribers" and dropped
+ * ones counted as "agent.task_events.dropped".
+ */
+@Component
+public class TaskEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventHub.class);
+
+    static final String BULK_EVENT = "bulk";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<TaskEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final TaskExecutor senderExecutor;
+    private final int bufferSize;
+    private final int coalesceAbove;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Counter dropped;
+
+    public TaskEventHub(
+            @Qualifier("applicationTaskExecutor") TaskExecutor senderExecutor,
+            @Value("${agent.task-events.buffer-size:256}") int bufferSize,
+            @Value("${agent.task-events.coalesce-above:32}") int coalesceAbove,
+            @Value("${agent.task-events.heartbeat:15s}") Duration heartbeat,
+            @Value("${agent.task-events.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.senderExecutor = senderExecutor;
+        this.bufferSize = bufferSize;
+        this.coalesceAbove = coalesceAbove;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.dropped = meterRegistry.counter("agent.task_events.dropped");
+        meterRegistry.gaugeCollectionSize("agent.task_events.subscribers", Tags.empty(), subscribers);
+    }
+
+    /**
+     * Opens an event stream that receives every change committed from now on.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        subscribers.add(subscriber);
+        senderExecutor.execute(() -> send(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Registers an in-process listener called with every event this node receives, on the broadcasting thread.
+     */
+    public void addListener(Consumer<TaskEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void broadcast(TaskEvent event) {
+        broadcast(List.of(event));
+    }
+
+    /**
+     * Hands the events of one write to every listener, then queues them for every subscriber without
+     * blocking, as a single bulk event when there are more than coalesceAbove; subscribers that
+     * cannot keep up are dropped.
+     */
+    public void broadcast(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            for (Consumer<TaskEvent> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    logger.warn("Task event listener failed on {} event for task {}", event.type(), event.id(), e);
+                }
+            }
+        }
+        List<Message> messages = events.size() > coalesceAbove
+            ? List.of(new Message(BULK_EVENT, new BulkChange(events.stream().map(TaskEvent::id).toList())))
+            : events.stream().map(event -> new Message(event.type().name().toLowerCase(Locale.ROOT), event.task())).toList();
+        for (Subscriber subscriber : subscribers) {
+            for (Message message : messages) {
+                if (!subscriber.buffer().offer(message)) {
+                    logger.debug("Dropping task event subscriber with {} undelivered events", bufferSize);
+                    dropped.increment();
+                    close(subscriber);
+                    break;
+                }
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Stops delivery; the sender completes the emitter, so a send blocked on a slow client never blocks the caller.
+     */
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.buffer().clear();
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter();
+        try {
+            while (subscribers.contains(subscriber)) {
+                Message message = subscriber.buffer().poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (subscribers.contains(subscriber)) {
+                    emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or the emitter already completed or timed out
+            logger.debug("Task event stream closed: {}", e.getMessage());
+            close(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close(subscriber);
+            emitter.complete();
+        }
+    }
+
+    /** One SSE event as queued for a subscriber: its name and data. */
+    private record Message(String name, Object data) {}
+
+    /** Data of a bulk event: the ids of every task the write changed. */
+    public record BulkChange(List<Long> ids) {}
+
+    /** Compared by identity: every stream is its own subscriber. */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> buffer;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Message> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        BlockingQueue<Message> buffer() {
+            return buffer;
+        }
+    }
+}
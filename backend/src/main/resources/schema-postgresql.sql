@@ -0,0 +1,23 @@
+-- Conversation state shared by all backend nodes. UNLOGGED: no WAL writes, truncated after a crash.
+CREATE UNLOGGED TABLE IF NOT EXISTS conversation_sessions (
+    session_id VARCHAR(64) PRIMARY KEY,
+    context TEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_sessions_expires_at ON conversation_sessions (expires_at);
+
+-- Partial indexes for the listings that select a small slice of the table: active, root and
+-- overdue tasks, and the deadline scheduler's reload of active deadlines.
+CREATE INDEX IF NOT EXISTS idx_tasks_active ON tasks (created_at, id) WHERE completed = false;
+CREATE INDEX IF NOT EXISTS idx_tasks_root ON tasks (created_at, id) WHERE parent_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_tasks_active_deadline ON tasks (deadline) WHERE completed = false;
+
+-- Trigram index for the listings' text filter (description ILIKE '%text%'), which a B-tree cannot serve.
+-- pg_trgm is a trusted extension, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_tasks_description_trgm ON tasks USING GIN (description gin_trgm_ops);
+
+-- Metadata containment (metadata @> '{"tags": ["home"]}'). jsonb_path_ops only supports @>, and is
+-- smaller and faster for it than the default jsonb_ops.
+CREATE INDEX IF NOT EXISTS idx_tasks_metadata ON tasks USING GIN (metadata jsonb_path_ops);
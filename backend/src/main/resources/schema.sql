@@ -1,7 +1,11 @@
 DROP TABLE IF EXISTS tasks;
+DROP SEQUENCE IF EXISTS tasks_id_seq;
+
+-- A named sequence rather than SERIAL so batch inserts can pre-allocate ids (see TaskQueryRepositoryImpl)
+CREATE SEQUENCE tasks_id_seq;
 
 CREATE TABLE tasks (
-    id SERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('tasks_id_seq') PRIMARY KEY,
     description TEXT NOT NULL,
     completed BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMP NOT NULL,
@@ -10,5 +14,19 @@ CREATE TABLE tasks (
     priority VARCHAR(20),
     constraints TEXT,
     parent_id BIGINT REFERENCES tasks(id),
-    metadata JSONB
-);
\ No newline at end of file
+    metadata JSONB,
+    -- Optimistic concurrency: bumped by every update, checked when a client sends the version it read
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Keyset pagination order for the task listings
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+
+-- Subtask and priority listings, with the keyset order so their pages need no sort
+CREATE INDEX idx_tasks_parent_id ON tasks (parent_id, created_at, id);
+CREATE INDEX idx_tasks_priority ON tasks (priority, created_at, id);
+
+-- Deadline ranges in filtered listings ("tasks due this week"). Pays off when the range is
+-- selective; a dense range is faster walking (created_at, id) to the page limit. Adding
+-- (created_at, id) to this index does not help, since a range on deadline still needs a sort.
+CREATE INDEX idx_tasks_deadline ON tasks (deadline);
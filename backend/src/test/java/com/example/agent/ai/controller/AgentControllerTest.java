@@ -3,22 +3,52 @@ package com.example.agent.ai.controller;
 import com.example.agent.ai.model.QueryRequest;
 import com.example.agent.ai.model.QueryResponse;
 import com.example.agent.ai.service.AIService;
+import com.example.agent.common.model.CompleteTasksRequest;
+import com.example.agent.common.model.NewTask;
 import com.example.agent.common.model.Task;
-import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.common.model.TaskSummary;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.common.model.TaskStats;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskForest;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskSort;
+import com.example.agent.task.repository.TaskSummaryPage;
+import com.example.agent.task.service.TaskNotFoundException;
+import com.example.agent.task.service.TaskService;
+import com.example.agent.task.service.TaskStatistics;
+import com.example.agent.task.service.event.TaskEventHub;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,13 +58,21 @@ class AgentControllerTest {
     private AIService aiService;
 
     @Mock
-    private TaskRepository taskRepository;
+    private TaskService taskService;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private TaskEventHub taskEventHub;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     private AgentController agentController;
 
     @BeforeEach
     void setUp() {
-        agentController = new AgentController(aiService, taskRepository);
+        agentController = new AgentController(aiService, taskService, taskStatistics, taskEventHub, new SyncTaskExecutor(), objectMapper);
     }
 
     @Test
@@ -60,22 +98,64 @@ class AgentControllerTest {
     }
 
     @Test
-    void getAllTasks_ShouldReturnAllTasks() {
+    void getAllTasks_ShouldReturnFirstPage() {
         // Setup
         List<Task> expectedTasks = Arrays.asList(
             Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null),
             Task.createNewWithDetails("Task 2", LocalDateTime.now().plusDays(1), "MEDIUM", null, null, null)
         );
 
-        when(taskRepository.findAll()).thenReturn(expectedTasks);
+        when(taskService.getTaskPage(TaskFilter.ALL, null, null)).thenReturn(new TaskPage(expectedTasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getAllTasks();
+        ResponseEntity<List<Task>> response = agentController.getAllTasks(null, null);
 
         // Verify
         assertNotNull(response);
         assertEquals(200, response.getStatusCode().value());
         assertEquals(expectedTasks, response.getBody());
+        assertFalse(response.getHeaders().containsKey(AgentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllTasks_WithCursor_ShouldResumeAfterItAndReturnNextCursor() {
+        // Setup
+        TaskCursor after = new TaskCursor(LocalDateTime.of(2025, 1, 1, 9, 0), 10L);
+        TaskCursor next = new TaskCursor(LocalDateTime.of(2025, 1, 2, 9, 0), 12L);
+        List<Task> expectedTasks = List.of(Task.createNewWithDetails("Task 11", null, "LOW", null, null, null));
+
+        when(taskService.getTaskPage(TaskFilter.ALL, after, 1)).thenReturn(new TaskPage(expectedTasks, next));
+
+        // Execute
+        ResponseEntity<List<Task>> response = agentController.getAllTasks(after.encode(), 1);
+
+        // Verify
+        assertEquals(expectedTasks, response.getBody());
+        assertEquals(next.encode(), response.getHeaders().getFirst(AgentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllTasks_WithMalformedCursor_ShouldReturnBadRequest() {
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.getAllTasks("not-a-cursor", null));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
+    @Test
+    void getAllTasks_WithNonPositiveLimit_ShouldReturnBadRequest() {
+        // Setup
+        when(taskService.getTaskPage(TaskFilter.ALL, null, 0))
+            .thenThrow(new IllegalArgumentException("Page limit must be positive: 0"));
+
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.getAllTasks(null, 0));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
     }
 
     @Test
@@ -86,10 +166,10 @@ class AgentControllerTest {
             Task.createNewWithDetails("Task 2", LocalDateTime.now().plusDays(1), "MEDIUM", null, null, null)
         );
 
-        when(taskRepository.findByCompletedFalse()).thenReturn(expectedTasks);
+        when(taskService.getTaskPage(TaskFilter.active(), null, null)).thenReturn(new TaskPage(expectedTasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getActiveTasks();
+        ResponseEntity<List<Task>> response = agentController.getActiveTasks(null, null);
 
         // Verify
         assertNotNull(response);
@@ -106,10 +186,11 @@ class AgentControllerTest {
             Task.createNewWithDetails("Subtask 2", null, "MEDIUM", null, null, null)
         );
 
-        when(taskRepository.findSubtasks(parentId)).thenReturn(expectedSubtasks);
+        when(taskService.getTaskPage(TaskFilter.subtasksOf(parentId), null, null))
+            .thenReturn(new TaskPage(expectedSubtasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getSubtasks(parentId);
+        ResponseEntity<List<Task>> response = agentController.getSubtasks(parentId, null, null);
 
         // Verify
         assertNotNull(response);
@@ -125,10 +206,10 @@ class AgentControllerTest {
             Task.createNewWithDetails("Root Task 2", null, "MEDIUM", null, null, null)
         );
 
-        when(taskRepository.findRootTasks()).thenReturn(expectedTasks);
+        when(taskService.getTaskPage(TaskFilter.root(), null, null)).thenReturn(new TaskPage(expectedTasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getRootTasks();
+        ResponseEntity<List<Task>> response = agentController.getRootTasks(null, null);
 
         // Verify
         assertNotNull(response);
@@ -145,10 +226,11 @@ class AgentControllerTest {
             Task.createNewWithDetails("High Priority Task 2", null, "HIGH", null, null, null)
         );
 
-        when(taskRepository.findByPriority(priority)).thenReturn(expectedTasks);
+        when(taskService.getTaskPage(TaskFilter.withPriority(priority), null, null))
+            .thenReturn(new TaskPage(expectedTasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getTasksByPriority(priority);
+        ResponseEntity<List<Task>> response = agentController.getTasksByPriority(priority, null, null);
 
         // Verify
         assertNotNull(response);
@@ -156,6 +238,23 @@ class AgentControllerTest {
         assertEquals(expectedTasks, response.getBody());
     }
 
+    @Test
+    void pagedEndpoints_WithInvalidPriority_ShouldReturnBadRequest() {
+        // Execute
+        List<ResponseStatusException> exceptions = List.of(
+            assertThrows(ResponseStatusException.class, () -> agentController.getTasksByPriority("URGENT", null, null)),
+            assertThrows(ResponseStatusException.class, () -> agentController
+                .searchTasks("all", "URGENT", null, null, null, null, null, false, null, null, null)),
+            assertThrows(ResponseStatusException.class, () -> agentController
+                .getTaskSummaries("all", "URGENT", null, false, null, null)),
+            assertThrows(ResponseStatusException.class, () -> agentController
+                .streamTasks(null, null, false, "URGENT", false, null, "ndjson")));
+
+        // Verify
+        exceptions.forEach(exception -> assertEquals(400, exception.getStatusCode().value()));
+        verifyNoInteractions(taskService);
+    }
+
     @Test
     void getOverdueTasks_ShouldReturnOverdueTasks() {
         // Setup
@@ -165,10 +264,11 @@ class AgentControllerTest {
             Task.createNewWithDetails("Overdue Task 2", LocalDateTime.now().plusDays(2), "MEDIUM", null, null, null)
         );
 
-        when(taskRepository.findOverdueTasks()).thenReturn(expectedTasks);
+        when(taskService.getTaskPage(TaskFilter.overdueTasks(), null, null))
+            .thenReturn(new TaskPage(expectedTasks, null));
 
         // Execute
-        ResponseEntity<List<Task>> response = agentController.getOverdueTasks();
+        ResponseEntity<List<Task>> response = agentController.getOverdueTasks(null, null);
 
         // Verify
         assertNotNull(response);
@@ -176,6 +276,200 @@ class AgentControllerTest {
         assertEquals(expectedTasks, response.getBody());
     }
 
+    @Test
+    void getTaskTree_ShouldReturnNestedSubtree() {
+        // Setup
+        TaskNode tree = new TaskNode(
+            Task.createNewWithDetails("Root", null, "HIGH", null, null, null),
+            List.of(new TaskNode(Task.createNewWithDetails("Child", null, "LOW", null, 1L, null), List.of())));
+
+        when(taskService.getTaskTree(1L, 3)).thenReturn(Optional.of(tree));
+
+        // Execute
+        ResponseEntity<TaskNode> response = agentController.getTaskTree(1L, 3);
+
+        // Verify
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(tree, response.getBody());
+    }
+
+    @Test
+    void getTaskTree_WhenTaskMissing_ShouldReturnNotFound() {
+        // Setup
+        when(taskService.getTaskTree(99L, null)).thenReturn(Optional.empty());
+
+        // Execute
+        ResponseEntity<TaskNode> response = agentController.getTaskTree(99L, null);
+
+        // Verify
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void getTaskTree_WithNegativeDepth_ShouldReturnBadRequest() {
+        // Setup
+        when(taskService.getTaskTree(1L, -1)).thenThrow(new IllegalArgumentException("Tree depth cannot be negative: -1"));
+
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.getTaskTree(1L, -1));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
+    @Test
+    void getTaskForest_ShouldReturnRootsWithNextCursor() {
+        // Setup
+        TaskNode root = new TaskNode(Task.createNewWithDetails("Root", null, "HIGH", null, null, null), List.of());
+        TaskCursor next = new TaskCursor(LocalDateTime.of(2025, 1, 2, 9, 0), 12L);
+
+        when(taskService.getTaskForest(null, 1, null)).thenReturn(new TaskForest(List.of(root), next));
+
+        // Execute
+        ResponseEntity<List<TaskNode>> response = agentController.getTaskForest(null, 1, null);
+
+        // Verify
+        assertEquals(List.of(root), response.getBody());
+        assertEquals(next.encode(), response.getHeaders().getFirst(AgentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void searchTasks_ShouldCombineFiltersIntoOneSearch() {
+        // Setup
+        LocalDateTime weekStart = LocalDateTime.of(2025, 6, 2, 0, 0);
+        LocalDateTime created = LocalDateTime.of(2025, 5, 1, 0, 0);
+        TaskFilter filter = new TaskFilter(false, null, true, "HIGH", true,
+            weekStart, weekStart.plusWeeks(1), null, created, null);
+        List<Task> expectedTasks = List.of(Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null));
+        when(taskService.searchTasks(filter, TaskSort.DEADLINE_DESC, 20)).thenReturn(expectedTasks);
+
+        // Execute
+        ResponseEntity<List<Task>> response = agentController.searchTasks("overdue", "HIGH",
+            weekStart, weekStart.plusWeeks(1), created, null, null, true, " ", "-deadline", 20);
+
+        // Verify
+        assertEquals(expectedTasks, response.getBody());
+    }
+
+    @Test
+    void searchTasks_WithUnknownStatusOrSort_ShouldReturnBadRequest() {
+        // Execute
+        ResponseStatusException badStatus = assertThrows(ResponseStatusException.class, () -> agentController
+            .searchTasks("late", null, null, null, null, null, null, false, null, null, null));
+        ResponseStatusException badSort = assertThrows(ResponseStatusException.class, () -> agentController
+            .searchTasks("all", null, null, null, null, null, null, false, null, "priority", null));
+
+        // Verify
+        assertEquals(400, badStatus.getStatusCode().value());
+        assertEquals(400, badSort.getStatusCode().value());
+    }
+
+    @Test
+    void getTasksByMetadata_ShouldParseContainedObject() {
+        // Setup
+        List<Task> expectedTasks = List.of(Task.createNewWithDetails("Task 1", null, "HIGH", null, null,
+            Map.of("tags", List.of("home"))));
+        when(taskService.getTasksByMetadata(Map.of("tags", List.of("home")), null, null))
+            .thenReturn(new TaskPage(expectedTasks, null));
+
+        // Execute
+        ResponseEntity<List<Task>> response = agentController.getTasksByMetadata("{\"tags\":[\"home\"]}", null, null);
+
+        // Verify
+        assertEquals(expectedTasks, response.getBody());
+    }
+
+    @Test
+    void getTasksByMetadata_WithoutJsonObject_ShouldReturnBadRequest() {
+        // Execute
+        ResponseStatusException notJson = assertThrows(ResponseStatusException.class,
+            () -> agentController.getTasksByMetadata("tags=home", null, null));
+        ResponseStatusException notObject = assertThrows(ResponseStatusException.class,
+            () -> agentController.getTasksByMetadata("[\"home\"]", null, null));
+
+        // Verify
+        assertEquals(400, notJson.getStatusCode().value());
+        assertEquals(400, notObject.getStatusCode().value());
+    }
+
+    @Test
+    void getTaskSummaries_ShouldFilterByStatusAndReturnNextCursor() {
+        // Setup
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 9, 0);
+        List<TaskSummary> expectedTasks = List.of(new TaskSummary(12L, "Task 12", false, "HIGH", null, createdAt));
+        TaskCursor next = new TaskCursor(createdAt, 12L);
+        when(taskService.getTaskSummaryPage(TaskFilter.overdueTasks(), null, 1))
+            .thenReturn(new TaskSummaryPage(expectedTasks, next));
+
+        // Execute
+        ResponseEntity<List<TaskSummary>> response =
+            agentController.getTaskSummaries("Overdue", null, null, false, null, 1);
+
+        // Verify
+        assertEquals(expectedTasks, response.getBody());
+        assertEquals(next.encode(), response.getHeaders().getFirst(AgentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void streamTasks_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Setup
+        List<Task> tasks = List.of(
+            Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null),
+            Task.createNewWithDetails("Task 2", null, "LOW", null, null, null)
+        );
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(2);
+            tasks.forEach(consumer);
+            return null;
+        }).when(taskService).streamTasks(eq(TaskFilter.active()), isNull(), any());
+
+        // Execute
+        ResponseEntity<StreamingResponseBody> response =
+            agentController.streamTasks(false, null, false, null, false, null, "ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Verify
+        assertEquals(AgentController.NDJSON_VALUE, response.getHeaders().getContentType().toString());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Task 1", objectMapper.readTree(lines[0]).get("description").asText());
+        assertEquals("Task 2", objectMapper.readTree(lines[1]).get("description").asText());
+    }
+
+    @Test
+    void streamTasks_WithJsonFormat_ShouldWriteJsonArray() throws Exception {
+        // Setup
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(2);
+            consumer.accept(Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null));
+            return null;
+        }).when(taskService).streamTasks(eq(TaskFilter.ALL), isNull(), any());
+
+        // Execute
+        ResponseEntity<StreamingResponseBody> response =
+            agentController.streamTasks(null, null, false, null, false, null, "json");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Verify
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertTrue(body.isArray());
+        assertEquals(1, body.size());
+        assertEquals("Task 1", body.get(0).get("description").asText());
+    }
+
+    @Test
+    void streamTasks_WithUnknownFormat_ShouldReturnBadRequest() {
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.streamTasks(null, null, false, null, false, null, "csv"));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
     @Test
     void completeTask_ShouldReturnCompletedTask() {
         // Setup
@@ -183,8 +477,7 @@ class AgentControllerTest {
         Task task = Task.createNewWithDetails("Task to complete", null, "MEDIUM", null, null, null);
         Task completedTask = task.markCompleted();
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(completedTask);
+        when(taskService.completeTask(taskId)).thenReturn(completedTask);
 
         // Execute
         ResponseEntity<Task> response = agentController.completeTask(taskId);
@@ -195,12 +488,52 @@ class AgentControllerTest {
         assertEquals(completedTask, response.getBody());
     }
 
+    @Test
+    void completeTask_WhenMissing_ShouldReturnNotFound() {
+        // Setup
+        when(taskService.completeTask(99L)).thenThrow(new TaskNotFoundException(99L));
+
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.completeTask(99L));
+
+        // Verify
+        assertEquals(404, exception.getStatusCode().value());
+    }
+
+    @Test
+    void getTaskStats_ShouldReturnCounterSnapshot() {
+        // Setup
+        TaskStats stats = new TaskStats(10, 7, 3, 2, Map.of("HIGH", 4L), LocalDateTime.of(2025, 1, 1, 0, 0));
+        when(taskStatistics.snapshot()).thenReturn(stats);
+
+        // Execute
+        ResponseEntity<TaskStats> response = agentController.getTaskStats();
+
+        // Verify
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void streamTaskEvents_ShouldSubscribeToHub() {
+        // Setup
+        SseEmitter emitter = new SseEmitter();
+        when(taskEventHub.subscribe()).thenReturn(emitter);
+
+        // Execute
+        SseEmitter response = agentController.streamTaskEvents();
+
+        // Verify
+        assertSame(emitter, response);
+    }
+
     @Test
     void createTask_ShouldReturnCreatedTask() {
         // Setup
         Task taskToCreate = Task.createNewWithDetails("New task", null, "MEDIUM", null, null, null);
 
-        when(taskRepository.save(taskToCreate)).thenReturn(taskToCreate);
+        when(taskService.createTask(taskToCreate)).thenReturn(taskToCreate);
 
         // Execute
         ResponseEntity<Task> response = agentController.createTask(taskToCreate);
@@ -211,6 +544,95 @@ class AgentControllerTest {
         assertEquals(taskToCreate, response.getBody());
     }
 
+    @Test
+    void completeTasks_ShouldReturnTasksCompletedByTheCall() {
+        // Setup
+        List<Task> completed = List.of(Task.createNewWithDetails("Root", null, "HIGH", null, null, null).markCompleted());
+
+        when(taskService.completeTasks(List.of(1L), true)).thenReturn(completed);
+
+        // Execute
+        ResponseEntity<List<Task>> response = agentController.completeTasks(new CompleteTasksRequest(List.of(1L), true));
+
+        // Verify
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(completed, response.getBody());
+    }
+
+    @Test
+    void completeTasks_WithoutIds_ShouldReturnBadRequest() {
+        // Setup
+        when(taskService.completeTasks(null, false)).thenThrow(new IllegalArgumentException("Task IDs cannot be empty"));
+
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.completeTasks(new CompleteTasksRequest(null, false)));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
+    @Test
+    void createTasks_ShouldReturnGeneratedIds() {
+        // Setup
+        List<NewTask> batch = List.of(
+            new NewTask("trip", "Plan trip", null, "HIGH", null, null, null, null),
+            new NewTask(null, "Book flights", null, null, null, null, "trip", null)
+        );
+
+        when(taskService.createTasks(batch)).thenReturn(List.of(10L, 11L));
+
+        // Execute
+        ResponseEntity<List<Long>> response = agentController.createTasks(batch);
+
+        // Verify
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(10L, 11L), response.getBody());
+    }
+
+    @Test
+    void createTasks_WithInvalidBatch_ShouldReturnBadRequest() {
+        // Setup
+        when(taskService.createTasks(List.of())).thenThrow(new IllegalArgumentException("Task batch cannot be empty"));
+
+        // Execute
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.createTasks(List.of()));
+
+        // Verify
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
+    @Test
+    void streamQuery_ShouldRunPipelineWithEventStreamListener() {
+        // Setup
+        QueryRequest request = new QueryRequest("Create a task", null);
+        QueryResponse expectedResponse = new QueryResponse("Task processed successfully", null, false, null);
+
+        when(aiService.processQueryStreaming(eq(request), any(QueryEventStream.class))).thenReturn(expectedResponse);
+
+        // Execute
+        SseEmitter emitter = agentController.streamQuery(request);
+
+        // Verify
+        assertNotNull(emitter);
+        verify(aiService).processQueryStreaming(eq(request), any(QueryEventStream.class));
+    }
+
+    @Test
+    void streamQuery_WhenPipelineFails_ShouldNotPropagate() {
+        // Setup
+        QueryRequest request = new QueryRequest("Create a task", null);
+
+        when(aiService.processQueryStreaming(eq(request), any())).thenThrow(new IllegalStateException("LLM unavailable"));
+
+        // Execute
+        SseEmitter emitter = assertDoesNotThrow(() -> agentController.streamQuery(request));
+
+        // Verify
+        assertNotNull(emitter);
+    }
+
     @Test
     void updateTask_ShouldReturnUpdatedTask() {
         // Setup
@@ -218,7 +640,7 @@ class AgentControllerTest {
         Task taskToUpdate = Task.createNewWithDetails("Updated task", null, "HIGH", null, null, null);
         Task updatedTask = Task.createNewWithDetails("Updated task", null, "HIGH", null, null, null);
 
-        when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+        when(taskService.updateTask(taskId, taskToUpdate)).thenReturn(updatedTask);
 
         // Execute
         ResponseEntity<Task> response = agentController.updateTask(taskId, taskToUpdate);
@@ -228,4 +650,47 @@ class AgentControllerTest {
         assertEquals(200, response.getStatusCode().value());
         assertEquals(updatedTask, response.getBody());
     }
+
+    @Test
+    void updateTask_WithUnknownId_ShouldReturnNotFound() {
+        // Setup
+        Task taskToUpdate = Task.createNewWithDetails("Updated task", null, "HIGH", null, null, null);
+
+        when(taskService.updateTask(99L, taskToUpdate))
+            .thenThrow(new TaskNotFoundException(99L));
+
+        // Execute & Verify
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.updateTask(99L, taskToUpdate));
+        assertEquals(404, exception.getStatusCode().value());
+    }
+
+    @Test
+    void updateTask_WithInvalidField_ShouldReturnBadRequest() {
+        // Setup
+        Task taskToUpdate = Task.createNewWithDetails("Updated task", null, "HIGH", null, null, null);
+
+        when(taskService.updateTask(7L, taskToUpdate))
+            .thenThrow(new IllegalArgumentException("Invalid priority value: URGENT"));
+
+        // Execute & Verify
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.updateTask(7L, taskToUpdate));
+        assertEquals(400, exception.getStatusCode().value());
+        assertEquals("Invalid priority value: URGENT", exception.getReason());
+    }
+
+    @Test
+    void updateTask_WithStaleVersion_ShouldReturnConflict() {
+        // Setup
+        Task taskToUpdate = Task.createNewWithDetails("Updated task", null, "HIGH", null, null, null);
+
+        when(taskService.updateTask(7L, taskToUpdate))
+            .thenThrow(new OptimisticLockingFailureException("Task 7 was modified after version 2"));
+
+        // Execute & Verify
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> agentController.updateTask(7L, taskToUpdate));
+        assertEquals(409, exception.getStatusCode().value());
+    }
 }
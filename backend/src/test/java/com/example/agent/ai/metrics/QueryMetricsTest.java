@@ -0,0 +1,69 @@
+package com.example.agent.ai.metrics;
+
+import com.example.agent.ai.metrics.QueryMetrics.Outcome;
+import com.example.agent.ai.metrics.QueryMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryMetrics metrics = new QueryMetrics(meterRegistry);
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void timeStage_WithResult_TagsIntentAndOutcomeFromResult() {
+        // Execute
+        String result = metrics.timeStage(Stage.CLASSIFY, () -> "LIST_TASKS", intent -> intent, intent -> Outcome.SUCCESS);
+
+        // Verify
+        assertEquals("LIST_TASKS", result);
+        assertEquals(1, stageTimer("classify", "LIST_TASKS", "success").count());
+    }
+
+    @Test
+    void timeStage_WhenCallFails_RecordsErrorAndRethrows() {
+        // Execute
+        assertThrows(IllegalStateException.class, () -> metrics.timeStage(Stage.ACTION, "CREATE_TASK",
+            () -> { throw new IllegalStateException("boom"); }, result -> Outcome.SUCCESS));
+
+        // Verify
+        assertEquals(1, stageTimer("action", "CREATE_TASK", "error").count());
+    }
+
+    @Test
+    void timeStage_WhenInterrupted_RecordsCancelled() {
+        // Execute
+        metrics.timeStage(Stage.REFINE, QueryMetrics.UNKNOWN_INTENT, () -> {
+            Thread.currentThread().interrupt();
+            return null;
+        }, result -> Outcome.SUCCESS);
+
+        // Verify
+        assertEquals(1, stageTimer("refine", "UNKNOWN", "cancelled").count());
+    }
+
+    @Test
+    void recordQuery_WithoutIntent_TagsUnknown() {
+        // Execute
+        metrics.recordQuery(metrics.start(), null, Outcome.NO_INTENT);
+
+        // Verify
+        Timer timer = meterRegistry.get(QueryMetrics.QUERY_TIMER)
+            .tag("intent", "UNKNOWN").tag("outcome", "no_intent").timer();
+        assertEquals(1, timer.count());
+    }
+
+    private Timer stageTimer(String stage, String intent, String outcome) {
+        return meterRegistry.get(QueryMetrics.STAGE_TIMER)
+            .tag("stage", stage).tag("intent", intent).tag("outcome", outcome).timer();
+    }
+}
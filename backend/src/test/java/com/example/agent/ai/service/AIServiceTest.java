@@ -1,38 +1,46 @@
 package com.example.agent.ai.service;
 
+import com.example.agent.ai.metrics.QueryMetrics;
 import com.example.agent.ai.model.ConversationContext;
 import com.example.agent.ai.model.QueryRequest;
 import com.example.agent.ai.model.QueryResponse;
 import com.example.agent.ai.service.decision.ActionDecision;
+import com.example.agent.ai.service.conversation.ConversationStore;
+import com.example.agent.ai.service.conversation.InMemoryConversationStore;
 import com.example.agent.ai.service.decision.DecisionMaker;
 import com.example.agent.common.model.Task;
 import com.example.agent.common.model.TaskData;
-import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.action.ActionResult;
 import com.example.agent.task.service.action.RequireInfoAction;
 import com.example.agent.task.service.action.TaskAction;
 import com.example.agent.task.service.action.TaskParameters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AIServiceTest {
 
-    @Mock
-    private TaskRepository taskRepository;
-
     @Mock
     private DecisionMaker decisionMaker;
 
@@ -42,11 +50,18 @@ class AIServiceTest {
     @Mock
     private RequireInfoAction requireInfoAction;
 
+    private ConversationStore conversationStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryMetrics metrics = new QueryMetrics(meterRegistry);
+
     private AIService aiService;
 
     @BeforeEach
     void setUp() {
-        aiService = new AIService(taskRepository, decisionMaker);
+        conversationStore = new InMemoryConversationStore(100, Duration.ofMinutes(30), new SimpleMeterRegistry());
+        aiService = new AIService(decisionMaker, TransactionOperations.withoutTransaction(),
+            conversationStore, metrics);
     }
 
     @Test
@@ -79,8 +94,7 @@ class AIServiceTest {
         contextMap.put("previousContext", ConversationContext.createNew());
 
         when(decisionMaker.decide(any())).thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
-        when(taskAction.execute(any())).thenReturn(taskParameters);
-        when(taskRepository.save(any())).thenReturn(createdTask);
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(createdTask));
 
         // Execute
         QueryResponse response = aiService.processQuery(request);
@@ -158,6 +172,97 @@ class AIServiceTest {
         assertNull(response.resultTask());
         assertTrue(response.requiresFollowUp());
         assertEquals(context, response.context());
+        assertNotNull(response.sessionId());
+        assertEquals(Optional.of(context), conversationStore.find(response.sessionId()));
+    }
+
+    @Test
+    void processQuery_RecordsQueryAndStageTimers() {
+        // Setup
+        TaskParameters taskParameters = TaskParameters.forCompleteTask("1");
+        Task existingTask = Task.createNewWithDetails("Existing task", null, "MEDIUM", null, null, null);
+
+        when(decisionMaker.decide(any()))
+            .thenReturn(Optional.of(ActionDecision.forIntent("COMPLETE_TASK", taskAction, taskParameters)));
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(existingTask));
+
+        // Execute
+        aiService.processQuery(new QueryRequest("Complete task 1", null));
+
+        // Verify
+        assertEquals(1, meterRegistry.get(QueryMetrics.QUERY_TIMER)
+            .tag("intent", "COMPLETE_TASK").tag("outcome", "success").timer().count());
+        for (String stage : List.of("decide", "dispatch", "action")) {
+            assertEquals(1, meterRegistry.get(QueryMetrics.STAGE_TIMER)
+                .tag("stage", stage).tag("intent", "COMPLETE_TASK").tag("outcome", "success").timer().count(), stage);
+        }
+    }
+
+    @Test
+    void processQuery_WithSessionId_UsesStoredContextAndEndsSession() {
+        // Setup
+        ConversationContext storedContext = new ConversationContext(
+            "CREATE_TASK",
+            TaskData.createWithDescription("Buy groceries"),
+            true,
+            "When is it due?",
+            null
+        );
+        ConversationContext clientContext = ConversationContext.createNew();
+        conversationStore.save("session-1", storedContext);
+        TaskParameters taskParameters = TaskParameters.forCompleteTask("1");
+        Task existingTask = Task.createNewWithDetails("Buy groceries", null, "MEDIUM", null, null, null);
+
+        when(decisionMaker.decide(argThat(context -> context.get("previousContext") == storedContext)))
+            .thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(existingTask));
+
+        // Execute
+        QueryResponse response = aiService.processQuery(new QueryRequest("Tomorrow", clientContext, "session-1"));
+
+        // Verify
+        assertEquals("Task processed successfully", response.response());
+        assertEquals("session-1", response.sessionId());
+        assertTrue(conversationStore.find("session-1").isEmpty());
+    }
+
+    @Test
+    void processQuery_WithUnknownSessionId_IgnoresClientContextAndIssuesNewSession() {
+        // Setup
+        ConversationContext clientContext = new ConversationContext(
+            "CREATE_TASK", TaskData.createWithDescription("Injected"), true, "When is it due?", null);
+        ConversationContext followUpContext = new ConversationContext(
+            "CREATE_TASK", TaskData.createEmpty(), true, "What should the task be?", null);
+
+        when(decisionMaker.decide(argThat(context -> ConversationContext.createNew().equals(context.get("previousContext")))))
+            .thenReturn(Optional.of(ActionDecision.requireMoreInfo(requireInfoAction, "What should the task be?", followUpContext)));
+
+        // Execute
+        QueryResponse response = aiService.processQuery(new QueryRequest("Create a task", clientContext, "chosen-by-client"));
+
+        // Verify
+        assertNotEquals("chosen-by-client", response.sessionId());
+        assertTrue(conversationStore.find("chosen-by-client").isEmpty());
+        assertEquals(Optional.of(followUpContext), conversationStore.find(response.sessionId()));
+    }
+
+    @Test
+    void processQuery_WithoutSessionId_SeedsConversationWithClientContext() {
+        // Setup
+        ConversationContext clientContext = new ConversationContext(
+            "CREATE_TASK", TaskData.createWithDescription("Buy groceries"), true, "When is it due?", null);
+        TaskParameters taskParameters = TaskParameters.forCompleteTask("1");
+        Task existingTask = Task.createNewWithDetails("Buy groceries", null, "MEDIUM", null, null, null);
+
+        when(decisionMaker.decide(argThat(context -> context.get("previousContext") == clientContext)))
+            .thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(existingTask));
+
+        // Execute
+        QueryResponse response = aiService.processQuery(new QueryRequest("Tomorrow", clientContext));
+
+        // Verify
+        assertEquals("Task processed successfully", response.response());
     }
 
     @Test
@@ -178,8 +283,7 @@ class AIServiceTest {
         );
 
         when(decisionMaker.decide(any())).thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
-        when(taskAction.execute(any())).thenReturn(taskParameters);
-        when(taskRepository.findById(anyLong())).thenReturn(Optional.of(existingTask));
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(existingTask));
 
         // Execute
         QueryResponse response = aiService.processQuery(request);
@@ -193,6 +297,26 @@ class AIServiceTest {
         assertNull(response.context());
     }
 
+    @Test
+    void processQuery_WithListing_ReturnsListedTasks() {
+        // Setup
+        List<Task> listed = List.of(
+            Task.createNewWithDetails("First task", null, "HIGH", null, null, null),
+            Task.createNewWithDetails("Second task", null, "LOW", null, null, null));
+
+        when(decisionMaker.decide(any())).thenReturn(Optional.of(
+            ActionDecision.forIntent("LIST_TASKS", taskAction, new TaskParameters(null, null, null, null, null))));
+        when(taskAction.execute(any())).thenReturn(ActionResult.listing(listed));
+
+        // Execute
+        QueryResponse response = aiService.processQuery(new QueryRequest("Show my tasks", null));
+
+        // Verify
+        assertEquals("Task processed successfully", response.response());
+        assertNull(response.resultTask());
+        assertEquals(listed, response.resultTasks());
+    }
+
     @Test
     void processQuery_WithTaskNotFound_ThrowsIllegalArgumentException() {
         // Setup
@@ -202,8 +326,7 @@ class AIServiceTest {
         TaskParameters taskParameters = TaskParameters.forCompleteTask("999");
 
         when(decisionMaker.decide(any())).thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
-        when(taskAction.execute(any())).thenReturn(taskParameters);
-        when(taskRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(taskAction.execute(any())).thenThrow(new IllegalArgumentException("Task not found with ID: 999"));
 
         // Execute & Verify
         assertThrows(IllegalArgumentException.class, () -> aiService.processQuery(request));
@@ -227,4 +350,66 @@ class AIServiceTest {
         assertFalse(response.requiresFollowUp());
         assertNull(response.context());
     }
+
+    @Test
+    void processQuery_DecidesOutsideTransactionAndExecutesInside() {
+        // Setup
+        AtomicBoolean inTransaction = new AtomicBoolean(false);
+        TransactionOperations recordingTransactions = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                inTransaction.set(true);
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    inTransaction.set(false);
+                }
+            }
+        };
+        aiService = new AIService(decisionMaker, recordingTransactions, conversationStore, metrics);
+
+        TaskParameters taskParameters = TaskParameters.forCompleteTask("1");
+        Task existingTask = Task.createNewWithDetails("Existing task", null, "MEDIUM", null, null, null);
+
+        when(decisionMaker.decide(any())).thenAnswer(invocation -> {
+            assertFalse(inTransaction.get(), "LLM decision must not run inside a transaction");
+            return Optional.of(new ActionDecision(taskAction, taskParameters));
+        });
+        when(taskAction.execute(any())).thenAnswer(invocation -> {
+            assertTrue(inTransaction.get(), "Action must run inside a transaction");
+            return ActionResult.of(existingTask);
+        });
+
+        // Execute
+        QueryResponse response = aiService.processQuery(new QueryRequest("Complete task 1", null));
+
+        // Verify
+        assertEquals("Task processed successfully", response.response());
+        assertEquals(existingTask, response.resultTask());
+    }
+
+    @Test
+    void processQueryStreaming_ReportsExecutedAction() {
+        // Setup
+        TaskParameters taskParameters = TaskParameters.forCompleteTask("1");
+        Task existingTask = Task.createNewWithDetails("Existing task", null, "MEDIUM", null, null, null);
+        AtomicReference<Task> executed = new AtomicReference<>();
+        QueryListener listener = new QueryListener() {
+            @Override
+            public void onActionExecuted(Task task) {
+                executed.set(task);
+            }
+        };
+
+        when(decisionMaker.decideStreaming(any(), eq(listener)))
+            .thenReturn(Optional.of(new ActionDecision(taskAction, taskParameters)));
+        when(taskAction.execute(any())).thenReturn(ActionResult.of(existingTask));
+
+        // Execute
+        QueryResponse response = aiService.processQueryStreaming(new QueryRequest("Complete task 1", null), listener);
+
+        // Verify
+        assertEquals("Task processed successfully", response.response());
+        assertEquals(existingTask, executed.get());
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.agent.ai.service.conversation;
+
+import com.example.agent.ai.model.ConversationContext;
+import com.example.agent.common.model.TaskData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryConversationStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ConversationContext context = new ConversationContext(
+        "CREATE_TASK", TaskData.createWithDescription("Buy groceries"), true, "When is it due?", null);
+    private InMemoryConversationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryConversationStore(100, Duration.ofMinutes(30), new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void find_AfterSave_ReturnsContext() {
+        // Execute
+        store.save("session-1", context);
+
+        // Verify
+        assertEquals(Optional.of(context), store.find("session-1"));
+        assertTrue(store.find("session-2").isEmpty());
+    }
+
+    @Test
+    void find_AfterTtl_ReturnsEmpty() {
+        // Setup
+        store.save("session-1", context);
+
+        // Execute
+        nanos.addAndGet(Duration.ofMinutes(31).toNanos());
+
+        // Verify
+        assertTrue(store.find("session-1").isEmpty());
+    }
+
+    @Test
+    void save_RestartsTtl() {
+        // Setup
+        store.save("session-1", context);
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+
+        // Execute
+        store.save("session-1", context);
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+
+        // Verify
+        assertTrue(store.find("session-1").isPresent());
+    }
+
+    @Test
+    void remove_DeletesSession() {
+        // Setup
+        store.save("session-1", context);
+
+        // Execute
+        store.remove("session-1");
+
+        // Verify
+        assertTrue(store.find("session-1").isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.agent.ai.service.conversation;
+
+import com.example.agent.ai.model.ConversationContext;
+import com.example.agent.common.model.TaskData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcConversationStoreTest {
+    private static final Instant NOW = Instant.parse("2030-01-01T12:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcConversationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcConversationStore(jdbcTemplate, new ObjectMapper().findAndRegisterModules(),
+            Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void save_ThenFind_RoundTripsContextAsJson() {
+        // Setup
+        ConversationContext context = new ConversationContext(
+            "CREATE_TASK", new TaskData("Buy groceries", null, "HIGH", null, null), true, "When is it due?", null);
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+
+        // Execute
+        store.save("session-1", context);
+
+        // Verify
+        verify(jdbcTemplate).update(anyString(), eq("session-1"), json.capture(),
+            eq(Timestamp.from(NOW.plus(Duration.ofMinutes(30)))));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("session-1"), any()))
+            .thenReturn(List.of(json.getValue()));
+        assertEquals(Optional.of(context), store.find("session-1"));
+    }
+
+    @Test
+    void find_WithNoLiveRow_ReturnsEmpty() {
+        // Setup
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("session-1"), eq(Timestamp.from(NOW))))
+            .thenReturn(List.of());
+
+        // Execute & Verify
+        assertTrue(store.find("session-1").isEmpty());
+    }
+
+    @Test
+    void save_OnDatabase_ShouldUpsertAndPurgeExpiredRows() {
+        // Setup
+        JdbcTemplate database = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:conversations;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        database.execute("DROP TABLE IF EXISTS conversation_sessions");
+        database.execute("CREATE TABLE conversation_sessions ("
+            + "session_id VARCHAR(64) PRIMARY KEY, context TEXT NOT NULL, expires_at TIMESTAMP NOT NULL)");
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        JdbcConversationStore earlier = new JdbcConversationStore(database, objectMapper,
+            Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        JdbcConversationStore later = new JdbcConversationStore(database, objectMapper,
+            Duration.ofMinutes(30), Clock.fixed(NOW.plus(Duration.ofMinutes(45)), ZoneOffset.UTC));
+        ConversationContext first = new ConversationContext(
+            "CREATE_TASK", TaskData.createWithDescription("Buy groceries"), true, "When is it due?", null);
+        ConversationContext second = new ConversationContext(
+            "CREATE_TASK", new TaskData("Buy groceries", "2030-01-02T10:00:00", null, null, null), true, "Priority?", null);
+
+        // Execute
+        earlier.save("session-1", first);
+        earlier.save("session-1", second);
+        earlier.save("session-2", first);
+        later.save("session-3", first);
+
+        // Verify
+        assertEquals(Optional.of(second), earlier.find("session-1"));
+        assertEquals(3, database.queryForObject("SELECT COUNT(*) FROM conversation_sessions", Integer.class));
+        // 45 minutes on, the first two sessions have expired: ignored on read, then purged
+        assertTrue(later.find("session-1").isEmpty());
+        later.purgeExpired();
+        assertEquals(List.of("session-3"),
+            database.queryForList("SELECT session_id FROM conversation_sessions", String.class));
+        assertEquals(Optional.of(first), later.find("session-3"));
+    }
+}
@@ -1,28 +1,46 @@
 package com.example.agent.ai.service.decision;
 
+import com.example.agent.ai.metrics.QueryMetrics;
 import com.example.agent.ai.model.ConversationContext;
 import com.example.agent.common.model.TaskData;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.service.action.CompleteTaskAction;
 import com.example.agent.task.service.action.CreateTaskAction;
+import com.example.agent.task.service.action.ListTasksAction;
 import com.example.agent.task.service.action.TaskAction;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class DecisionMakerTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
     
     @Mock
     private ChatClient chatClient;
@@ -36,14 +54,37 @@ class DecisionMakerTest {
     @Mock
     private CreateTaskAction createTaskAction;
     
+    @Mock
+    private ListTasksAction listTasksAction;
+
+    @Mock
+    private CompleteTaskAction completeTaskAction;
+    
     @Mock
     private Refinement refinement;
 
+    @Mock
+    private IntentCache intentCache;
+
     private DecisionMaker decisionMaker;
 
+    // Confidence threshold above 1.0 keeps every query on the LLM path
+    private final LocalIntentClassifier llmOnlyClassifier = new LocalIntentClassifier(1.1, 0.0, new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryMetrics metrics = new QueryMetrics(meterRegistry);
+    private final SimpleAsyncTaskExecutor stageExecutor = new SimpleAsyncTaskExecutor("decision-");
+
     @BeforeEach
     void setUp() {
-        decisionMaker = new DecisionMaker(chatClient, List.of(createTaskAction), refinement);
+        stageExecutor.setVirtualThreads(true);
+        decisionMaker = new DecisionMaker(chatClient, List.of(createTaskAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.TWO_CALL, TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stageExecutor.close();
     }
 
     @Test
@@ -78,6 +119,32 @@ class DecisionMakerTest {
         assertNotNull(result.get().parameters());
     }
 
+    @Test
+    void decide_RecordsClassifyAndRefineStageTimers() {
+        // Setup
+        String query = "Create a task";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+        ConversationContext refinementContext = new ConversationContext(
+            "CREATE_TASK", TaskData.createEmpty(), true, "What should the task be?", null);
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("CREATE_TASK"));
+        when(refinement.refineTask(query, null)).thenReturn(refinementContext);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertEquals("CREATE_TASK", result.get().intent());
+        assertEquals(1, meterRegistry.get(QueryMetrics.STAGE_TIMER)
+            .tag("stage", "classify").tag("intent", "CREATE_TASK").tag("outcome", "success").timer().count());
+        // Refinement starts before the intent is known, so it is tagged with the unknown intent
+        assertEquals(1, meterRegistry.get(QueryMetrics.STAGE_TIMER)
+            .tag("stage", "refine").tag("intent", "UNKNOWN").tag("outcome", "follow_up").timer().count());
+    }
+
     @Test
     void decide_WithUnrecognizedIntent_ReturnsEmpty() {
         // Setup
@@ -97,6 +164,43 @@ class DecisionMakerTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void decide_WithNullIntent_ReturnsEmpty() {
+        // Setup
+        String query = "Unknown command";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification(null));
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        verify(intentCache).put(query, null);
+    }
+
+    @Test
+    void decide_WithNoClassificationResponse_ReturnsEmpty() {
+        // Setup
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", "Unknown command");
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class)).thenReturn(null);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        assertEquals(1, meterRegistry.get(QueryMetrics.STAGE_TIMER)
+            .tag("stage", "classify").tag("outcome", "no_intent").timer().count());
+    }
+
     @Test
     void decide_RequiringFollowUp_ReturnsActionDecisionWithPrompt() {
         // Setup
@@ -140,6 +244,441 @@ class DecisionMakerTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void decide_WithListTasksIntent_CancelsRefinement() throws InterruptedException {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.TWO_CALL, TIMEOUT);
+        String query = "Show my tasks";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        CountDownLatch refinementStarted = new CountDownLatch(1);
+        CountDownLatch refinementInterrupted = new CountDownLatch(1);
+
+        setupChatClientMocks();
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+        when(refinement.refineTask(query, null)).thenAnswer(invocation -> {
+            refinementStarted.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                refinementInterrupted.countDown();
+            }
+            return null;
+        });
+        when(respSpec.entity(DecisionMaker.IntentClassification.class)).thenAnswer(invocation -> {
+            refinementStarted.await(5, TimeUnit.SECONDS);
+            return new DecisionMaker.IntentClassification("LIST_TASKS");
+        });
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        assertEquals(TaskFilter.ALL, result.get().parameters().filter());
+        assertTrue(refinementInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void decide_WhenRefinementFails_PropagatesException() {
+        // Setup
+        String query = "Create a task to buy groceries";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("CREATE_TASK"));
+        when(refinement.refineTask(query, null)).thenThrow(new IllegalArgumentException("Bad task"));
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> decisionMaker.decide(context));
+    }
+
+    @Test
+    void decide_WithCachedListTasksIntent_SkipsLlmCalls() {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.COMBINED, TIMEOUT);
+        String query = "Show my tasks";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        when(intentCache.get(query)).thenReturn("LIST_TASKS");
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        verify(chatClient, never()).prompt();
+        verify(refinement, never()).refineTask(anyString(), any());
+    }
+
+    @Test
+    void decide_WithCachedCreateTaskIntent_OnlyRefines() {
+        // Setup
+        String query = "Create a task to buy groceries";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        ConversationContext refinementContext = new ConversationContext(
+            "CREATE_TASK",
+            new TaskData("Buy groceries", null, "HIGH", null, null),
+            false,
+            null,
+            null
+        );
+
+        when(intentCache.get(query)).thenReturn("CREATE_TASK");
+        when(createTaskAction.canHandle("CREATE_TASK")).thenReturn(true);
+        when(refinement.refineTask(query, null)).thenReturn(refinementContext);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals("Buy groceries", result.get().parameters().description());
+        verify(chatClient, never()).prompt();
+    }
+
+    @Test
+    void decide_WithClassifiedIntent_CachesIt() {
+        // Setup
+        String query = "Show my tasks";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("LIST_TASKS"));
+
+        // Execute
+        decisionMaker.decide(context);
+
+        // Verify
+        verify(intentCache).put(query, "LIST_TASKS");
+    }
+
+    @Test
+    void decide_InCombinedMode_UsesSingleCall() {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(createTaskAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.COMBINED, TIMEOUT);
+        String query = "Create a task to buy groceries";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(refinement.buildPrompt(query, null)).thenReturn("Analyze this task request");
+        when(createTaskAction.canHandle("CREATE_TASK")).thenReturn(true);
+        when(respSpec.entity(DecisionMaker.CombinedClassification.class))
+            .thenReturn(new DecisionMaker.CombinedClassification(
+                "CREATE_TASK", "Buy groceries", null, "HIGH", null, null, false, null));
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(createTaskAction, result.get().action());
+        assertEquals("Buy groceries", result.get().parameters().description());
+        assertEquals("HIGH", result.get().parameters().priority());
+        verify(chatClient, times(1)).prompt();
+        verify(refinement, never()).refineTask(anyString(), any());
+    }
+
+    @Test
+    void decide_InCombinedMode_RequiringFollowUp_ReturnsPrompt() {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(createTaskAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.COMBINED, TIMEOUT);
+        String query = "Create a task";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(refinement.buildPrompt(query, null)).thenReturn("Analyze this task request");
+        when(respSpec.entity(DecisionMaker.CombinedClassification.class))
+            .thenReturn(new DecisionMaker.CombinedClassification(
+                "CREATE_TASK", null, null, null, null, null, true, "What should the task be?"));
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals("What should the task be?", result.get().nextPrompt());
+        assertEquals("CREATE_TASK", ((ConversationContext) result.get().context()).currentIntent());
+    }
+
+    @Test
+    void decide_InCombinedMode_WhenCallFails_FallsBackToTwoCalls() {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(createTaskAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.COMBINED, TIMEOUT);
+        String query = "Create a task to buy groceries";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        ConversationContext refinementContext = new ConversationContext(
+            "CREATE_TASK",
+            new TaskData("Buy groceries", null, "HIGH", null, null),
+            false,
+            null,
+            null
+        );
+
+        setupChatClientMocks();
+        when(refinement.buildPrompt(query, null)).thenReturn("Analyze this task request");
+        when(createTaskAction.canHandle("CREATE_TASK")).thenReturn(true);
+        when(respSpec.entity(DecisionMaker.CombinedClassification.class))
+            .thenThrow(new RuntimeException("Unparseable response"));
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("CREATE_TASK"));
+        when(refinement.refineTask(query, null)).thenReturn(refinementContext);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals("Buy groceries", result.get().parameters().description());
+        verify(refinement).refineTask(query, null);
+    }
+
+    @Test
+    void decide_WithConfidentLocalMatch_SkipsLlmCalls() {
+        // Setup
+        LocalIntentClassifier classifier = new LocalIntentClassifier(0.8, 0.0, new SimpleMeterRegistry());
+        decisionMaker = new DecisionMaker(chatClient, List.of(completeTaskAction), refinement, intentCache,
+            classifier, metrics, stageExecutor, DecisionMode.COMBINED, TIMEOUT);
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", "Complete task 42");
+
+        when(completeTaskAction.canHandle("COMPLETE_TASK")).thenReturn(true);
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(completeTaskAction, result.get().action());
+        assertEquals("42", result.get().parameters().taskId());
+        verify(chatClient, never()).prompt();
+        verify(refinement, never()).refineTask(anyString(), any());
+    }
+
+    @Test
+    void decide_WhenLlmFails_FallsBackToLocalMatch() {
+        // Setup
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalIntentClassifier classifier = new LocalIntentClassifier(0.95, 0.0, meterRegistry);
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            classifier, metrics, stageExecutor, DecisionMode.TWO_CALL, TIMEOUT);
+        String query = "Show my tasks";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenThrow(new RuntimeException("LLM unavailable"));
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        assertEquals(1.0, meterRegistry.get("agent.fast_path.degraded").counter().count());
+    }
+
+    @Test
+    void decide_WhenLlmTimesOut_FallsBackToLocalMatch() throws InterruptedException {
+        // Setup
+        LocalIntentClassifier classifier = new LocalIntentClassifier(0.95, 0.0, new SimpleMeterRegistry());
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            classifier, metrics, stageExecutor, DecisionMode.TWO_CALL, Duration.ofMillis(100));
+        String query = "Show my tasks";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(respSpec.entity(DecisionMaker.IntentClassification.class)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return new DecisionMaker.IntentClassification("LIST_TASKS");
+        });
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decide(context);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        // The timed-out call is cancelled rather than left running
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void decide_WhenLlmFailsWithoutLocalMatch_PropagatesException() {
+        // Setup
+        String query = "Remind me about the dentist";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenThrow(new IllegalStateException("LLM unavailable"));
+
+        // Execute & Verify
+        assertThrows(IllegalStateException.class, () -> decisionMaker.decide(context));
+    }
+
+    @Test
+    void decideStreaming_ReportsIntentBeforeStreamingRefinement() {
+        // Setup
+        String query = "Create a task to buy groceries";
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", query);
+
+        TaskData taskData = new TaskData("Buy groceries", null, "HIGH", null, null);
+        ConversationContext refinementContext = new ConversationContext("CREATE_TASK", taskData, false, null, null);
+        List<String> events = new ArrayList<>();
+        DecisionListener listener = new DecisionListener() {
+            @Override
+            public void onIntentClassified(String intent) {
+                events.add("intent:" + intent);
+            }
+
+            @Override
+            public void onRefinementToken(String token) {
+                events.add("token:" + token);
+            }
+        };
+
+        setupChatClientMocks();
+        when(createTaskAction.canHandle("CREATE_TASK")).thenReturn(true);
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("CREATE_TASK"));
+        when(refinement.refineTask(eq(query), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<String> tokens = invocation.getArgument(2);
+            tokens.accept("{\"description\":");
+            tokens.accept(" \"Buy groceries\"}");
+            return refinementContext;
+        });
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decideStreaming(context, listener);
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals("Buy groceries", result.get().parameters().description());
+        assertEquals(List.of("intent:CREATE_TASK", "token:{\"description\":", "token: \"Buy groceries\"}"), events);
+        verify(refinement, never()).refineTask(query, null);
+    }
+
+    @Test
+    void decideStreaming_WithListTasksIntent_SkipsRefinement() {
+        // Setup
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            llmOnlyClassifier, metrics, stageExecutor, DecisionMode.TWO_CALL, TIMEOUT);
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", "Show my tasks");
+        List<String> intents = new ArrayList<>();
+
+        setupChatClientMocks();
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenReturn(new DecisionMaker.IntentClassification("LIST_TASKS"));
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decideStreaming(context, new DecisionListener() {
+            @Override
+            public void onIntentClassified(String intent) {
+                intents.add(intent);
+            }
+        });
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        assertEquals(List.of("LIST_TASKS"), intents);
+        verify(refinement, never()).refineTask(anyString(), any(), any());
+    }
+
+    @Test
+    void decideStreaming_WhenLlmTimesOut_FallsBackToLocalMatch() throws InterruptedException {
+        // Setup
+        LocalIntentClassifier classifier = new LocalIntentClassifier(0.95, 0.0, new SimpleMeterRegistry());
+        decisionMaker = new DecisionMaker(chatClient, List.of(listTasksAction), refinement, intentCache,
+            classifier, metrics, stageExecutor, DecisionMode.TWO_CALL, Duration.ofMillis(100));
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", "Show my tasks");
+        List<String> intents = new ArrayList<>();
+
+        setupChatClientMocks();
+        when(listTasksAction.canHandle("LIST_TASKS")).thenReturn(true);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(respSpec.entity(DecisionMaker.IntentClassification.class)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return new DecisionMaker.IntentClassification("LIST_TASKS");
+        });
+
+        // Execute
+        Optional<ActionDecision> result = decisionMaker.decideStreaming(context, new DecisionListener() {
+            @Override
+            public void onIntentClassified(String intent) {
+                intents.add(intent);
+            }
+        });
+
+        // Verify
+        assertTrue(result.isPresent());
+        assertEquals(listTasksAction, result.get().action());
+        assertEquals(List.of("LIST_TASKS"), intents);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void decideStreaming_WhenLlmFailsWithoutLocalMatch_PropagatesException() {
+        // Setup
+        Map<String, Object> context = new HashMap<>();
+        context.put("query", "Remind me about the dentist");
+        List<String> intents = new ArrayList<>();
+
+        setupChatClientMocks();
+        when(respSpec.entity(DecisionMaker.IntentClassification.class))
+            .thenThrow(new IllegalStateException("LLM unavailable"));
+
+        // Execute & Verify
+        assertThrows(IllegalStateException.class, () -> decisionMaker.decideStreaming(context, new DecisionListener() {
+            @Override
+            public void onIntentClassified(String intent) {
+                intents.add(intent);
+            }
+        }));
+        assertTrue(intents.isEmpty());
+    }
+
     private void setupChatClientMocks() {
         when(chatClient.prompt()).thenReturn(reqSpec);
         when(reqSpec.system(anyString())).thenReturn(reqSpec);
@@ -0,0 +1,102 @@
+package com.example.agent.ai.service.decision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private IntentCache intentCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        intentCache = new IntentCache(100, Duration.ofMinutes(10), meterRegistry, nanos::get);
+    }
+
+    @Test
+    void normalize_FoldsCaseWhitespaceAndPunctuation() {
+        assertEquals("show my tasks", IntentCache.normalize("  Show   my tasks! "));
+        assertEquals("show my tasks", IntentCache.normalize("show, my tasks?"));
+        assertEquals("complete task #42", IntentCache.normalize("Complete task #42."));
+    }
+
+    @Test
+    void normalize_KeepsPunctuationInsideTokens() {
+        assertEquals("complete task 4.2", IntentCache.normalize("Complete task 4.2!"));
+        assertNotEquals(IntentCache.normalize("complete task 4.2"), IntentCache.normalize("complete task 4 2"));
+        assertNotEquals(IntentCache.normalize("task #12"), IntentCache.normalize("task 12"));
+    }
+
+    @Test
+    void get_WithEquivalentPhrasing_ReturnsCachedIntent() {
+        // Setup
+        intentCache.put("Show my tasks", "LIST_TASKS");
+
+        // Execute & Verify
+        assertEquals("LIST_TASKS", intentCache.get("show my tasks!"));
+        assertNull(intentCache.get("list completed tasks"));
+    }
+
+    @Test
+    void put_WithUnrecognizedIntent_DoesNotCache() {
+        // Setup
+        intentCache.put("Unknown command", "");
+        intentCache.put("Another command", null);
+
+        // Execute & Verify
+        assertNull(intentCache.get("Unknown command"));
+        assertNull(intentCache.get("Another command"));
+    }
+
+    @Test
+    void get_AfterTtl_ReturnsNull() {
+        // Setup
+        intentCache.put("Show my tasks", "LIST_TASKS");
+
+        // Execute
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // Verify
+        assertNull(intentCache.get("Show my tasks"));
+    }
+
+    @Test
+    void metrics_RecordHitsMissesAndEvictions() {
+        // Setup
+        meterRegistry = new SimpleMeterRegistry();
+        intentCache = new IntentCache(1, Duration.ofMinutes(10), meterRegistry, nanos::get);
+        intentCache.put("Show my tasks", "LIST_TASKS");
+        intentCache.get("Show my tasks");
+        intentCache.get("Create a task");
+        intentCache.put("Create a task", "CREATE_TASK");
+
+        // Execute
+        intentCache.cleanUp();
+
+        // Verify
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+            .tags("cache", "intentClassification", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+            .tags("cache", "intentClassification", "result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.evictions")
+            .tags("cache", "intentClassification").functionCounter().count());
+    }
+
+    @Test
+    void get_WithZeroMaximumSize_IsDisabled() {
+        // Setup
+        intentCache = new IntentCache(0, Duration.ofMinutes(10), meterRegistry, nanos::get);
+        intentCache.put("Show my tasks", "LIST_TASKS");
+
+        // Execute & Verify
+        assertNull(intentCache.get("Show my tasks"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.agent.ai.service.decision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalIntentClassifierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalIntentClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new LocalIntentClassifier(0.8, 0.0, meterRegistry);
+    }
+
+    @Test
+    void classify_CompleteTaskById_ReturnsTaskIdWithHighConfidence() {
+        // Execute
+        LocalIntentClassifier.IntentMatch match = classifier.classify("Complete task #42");
+
+        // Verify
+        assertEquals("COMPLETE_TASK", match.intent());
+        assertTrue(classifier.isConfident(match));
+        assertEquals("42", match.taskData().taskId());
+    }
+
+    @Test
+    void classify_MarkTaskDone_ReturnsCompleteTask() {
+        LocalIntentClassifier.IntentMatch match = classifier.classify("mark task 7 as done");
+
+        assertEquals("COMPLETE_TASK", match.intent());
+        assertEquals("7", match.taskData().taskId());
+    }
+
+    @Test
+    void classify_ListPhrasings_ReturnsListTasks() {
+        assertEquals("LIST_TASKS", classifier.classify("list overdue tasks").intent());
+        assertEquals("LIST_TASKS", classifier.classify("Show my tasks!").intent());
+        assertTrue(classifier.isConfident(classifier.classify("show all high priority tasks")));
+    }
+
+    @Test
+    void classify_CreatePhrasing_ReturnsCreateTaskWithoutDetails() {
+        LocalIntentClassifier.IntentMatch match = classifier.classify("Create a task to buy groceries");
+
+        assertEquals("CREATE_TASK", match.intent());
+        assertTrue(classifier.isConfident(match));
+        assertNull(match.taskData());
+    }
+
+    @Test
+    void classify_AmbiguousPhrasing_IsNotConfident() {
+        LocalIntentClassifier.IntentMatch match = classifier.classify("show me how to add a task");
+
+        assertFalse(classifier.isConfident(match));
+    }
+
+    @Test
+    void classify_CompleteWithoutId_IsOnlyWeakMatch() {
+        LocalIntentClassifier.IntentMatch match = classifier.classify("finish the groceries one");
+
+        assertEquals("COMPLETE_TASK", match.intent());
+        assertFalse(classifier.isConfident(match));
+    }
+
+    @Test
+    void classify_UnrelatedQuery_ReturnsNoIntent() {
+        LocalIntentClassifier.IntentMatch match = classifier.classify("What is the weather like?");
+
+        assertNull(match.intent());
+        assertFalse(classifier.isConfident(match));
+    }
+
+    @Test
+    void metrics_RecordHitsMissesAndShadowAgreement() {
+        // Execute
+        classifier.classify("list tasks");
+        classifier.classify("What is the weather like?");
+        classifier.recordShadowResult("LIST_TASKS", "LIST_TASKS");
+        classifier.recordShadowResult("LIST_TASKS", "CREATE_TASK");
+
+        // Verify
+        assertEquals(1.0, meterRegistry.get("agent.fast_path.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("agent.fast_path.requests").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("agent.fast_path.shadow").tag("result", "agree").counter().count());
+        assertEquals(1.0, meterRegistry.get("agent.fast_path.shadow").tag("result", "disagree").counter().count());
+    }
+}
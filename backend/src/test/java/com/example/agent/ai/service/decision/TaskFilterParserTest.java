@@ -0,0 +1,91 @@
+package com.example.agent.ai.service.decision;
+
+import com.example.agent.task.repository.TaskFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFilterParserTest {
+
+    // A Wednesday
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 4, 15, 30);
+
+    @Test
+    void parse_WithoutFilters_ListsEveryTask() {
+        assertEquals(TaskFilter.ALL, TaskFilterParser.parse("Show my tasks", NOW));
+    }
+
+    @Test
+    void parse_PriorityDueThisWeek_ReturnsPriorityAndCalendarWeek() {
+        // Execute
+        TaskFilter filter = TaskFilterParser.parse("Show high priority tasks due this week", NOW);
+
+        // Verify
+        assertEquals(new TaskFilter(null, null, false, "HIGH", false,
+            LocalDateTime.of(2025, 6, 2, 0, 0), LocalDateTime.of(2025, 6, 9, 0, 0), null), filter);
+    }
+
+    @Test
+    void parse_StatusWords_SetCompletion() {
+        assertEquals(Boolean.FALSE, TaskFilterParser.parse("list open tasks", NOW).completed());
+        assertEquals(Boolean.FALSE, TaskFilterParser.parse("list incomplete tasks", NOW).completed());
+        assertEquals(Boolean.TRUE, TaskFilterParser.parse("show completed tasks", NOW).completed());
+
+        TaskFilter overdue = TaskFilterParser.parse("show overdue tasks", NOW);
+        assertTrue(overdue.overdue());
+        assertEquals(Boolean.FALSE, overdue.completed());
+    }
+
+    @Test
+    void parse_ParentAndRoot_SetTreePosition() {
+        assertEquals(12L, TaskFilterParser.parse("show subtasks of task 12", NOW).parentId());
+        assertTrue(TaskFilterParser.parse("list top-level tasks", NOW).rootOnly());
+    }
+
+    @Test
+    void parse_DeadlineExpressions_ResolveAgainstNow() {
+        TaskFilter tomorrow = TaskFilterParser.parse("tasks due tomorrow", NOW);
+        assertEquals(LocalDateTime.of(2025, 6, 5, 0, 0), tomorrow.deadlineFrom());
+        assertEquals(LocalDateTime.of(2025, 6, 6, 0, 0), tomorrow.deadlineTo());
+
+        TaskFilter within = TaskFilterParser.parse("show tasks due within 3 days", NOW);
+        assertEquals(NOW, within.deadlineFrom());
+        assertEquals(NOW.plusDays(3), within.deadlineTo());
+
+        TaskFilter by = TaskFilterParser.parse("list tasks due by 2025-07-01", NOW);
+        assertNull(by.deadlineFrom());
+        assertEquals(LocalDateTime.of(2025, 7, 2, 0, 0), by.deadlineTo());
+    }
+
+    @Test
+    void parse_NumbersTooLarge_IgnoreTheFilter() {
+        TaskFilter parent = TaskFilterParser.parse("show open subtasks of task 99999999999999999999", NOW);
+        assertNull(parent.parentId());
+        assertEquals(false, parent.completed());
+
+        TaskFilter days = TaskFilterParser.parse("tasks due in 99999999999 days", NOW);
+        assertNull(days.deadlineFrom());
+        assertNull(days.deadlineTo());
+
+        TaskFilter weeks = TaskFilterParser.parse("high priority tasks due within 99999 weeks", NOW);
+        assertNull(weeks.deadlineTo());
+        assertEquals("HIGH", weeks.priority());
+        assertEquals(NOW.plusWeeks(9999), TaskFilterParser.parse("tasks due within 9999 weeks", NOW).deadlineTo());
+    }
+
+    @Test
+    void parse_Text_UsesQuotesOrTheWordsAfterAbout() {
+        assertEquals("Quarterly Report", TaskFilterParser.parse("show tasks about \"Quarterly Report\"", NOW).text());
+
+        TaskFilter about = TaskFilterParser.parse("list tasks about groceries due today", NOW);
+        assertEquals("groceries", about.text());
+        assertEquals(LocalDateTime.of(2025, 6, 4, 0, 0), about.deadlineFrom());
+    }
+
+    @Test
+    void parse_Apostrophes_AreNotQuotes() {
+        assertNull(TaskFilterParser.parse("what's due this week's end", NOW).text());
+    }
+}
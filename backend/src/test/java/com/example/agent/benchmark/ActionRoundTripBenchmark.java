@@ -0,0 +1,190 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.ai.model.QueryRequest;
+import com.example.agent.ai.model.QueryResponse;
+import com.example.agent.ai.service.AIService;
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.TaskService;
+import com.example.agent.task.service.action.ActionResult;
+import com.example.agent.task.service.action.CompleteTaskAction;
+import com.example.agent.task.service.action.ListTasksAction;
+import com.example.agent.task.service.action.TaskParameters;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each query pipeline path sends, through a DataSource wrapper that
+ * counts statement executions on the measuring thread. The previous path, where the action handed
+ * back a task id and AIService loaded the task again, is replayed as the action followed by
+ * findById in the same transaction.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class ActionRoundTripBenchmark {
+    private static final int QUERIES = Integer.getInteger("roundtripbench.queries", 200);
+    private static final ThreadLocal<int[]> statements = new ThreadLocal<>();
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CompleteTaskAction completeTaskAction;
+
+    @Autowired
+    private ListTasksAction listTasksAction;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void actionsShouldAnswerWithoutReloadingWhatTheyWrote() {
+        QueryRequest create = new QueryRequest("Create a task to buy groceries", null);
+        double createNow = perQuery(() -> count(() -> {
+            QueryResponse response = aiService.processQuery(create);
+            assertNotNull(response.resultTask().id());
+        }));
+        double createBefore = perQuery(() -> count(() -> {
+            QueryResponse response = aiService.processQuery(create);
+            transactionTemplate.execute(status -> taskRepository.findById(response.resultTask().id()));
+        }));
+
+        double completeNow = perQuery(() -> {
+            long id = newTask();
+            return count(() -> transactionTemplate.execute(status -> complete(id)));
+        });
+        double completeBefore = perQuery(() -> {
+            long id = newTask();
+            return count(() -> transactionTemplate.execute(status -> {
+                complete(id);
+                return taskRepository.findById(id);
+            }));
+        });
+
+        double listNow = perQuery(() -> count(() -> {
+            ActionResult result = transactionTemplate.execute(status ->
+                listTasksAction.execute(new TaskParameters(null, null, null, null, null)));
+            assertFalse(result.tasks().isEmpty());
+        }));
+
+        System.out.printf("%nSQL statements per query (%d queries per path)%n", QUERIES);
+        System.out.printf("  %-14s %8s %8s%n", "path", "before", "now");
+        System.out.printf("  %-14s %8.2f %8.2f%n", "CREATE_TASK", createBefore, createNow);
+        System.out.printf("  %-14s %8.2f %8.2f%n", "COMPLETE_TASK", completeBefore, completeNow);
+        System.out.printf("  %-14s %8s %8.2f%n", "LIST_TASKS", "-", listNow);
+
+        assertEquals(1.0, createNow, "Creating should cost its INSERT only");
+        assertEquals(1.0, completeNow, "Completing should cost its UPDATE only");
+        assertTrue(createNow < createBefore && completeNow < completeBefore);
+    }
+
+    private Task complete(long id) {
+        Task completed = completeTaskAction.execute(TaskParameters.forCompleteTask(Long.toString(id))).task();
+        assertTrue(completed.completed());
+        return completed;
+    }
+
+    private long newTask() {
+        return taskService.createTask(Task.createNew("Round trip task")).id();
+    }
+
+    private static double perQuery(IntSupplier query) {
+        long total = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            total += query.getAsInt();
+        }
+        return (double) total / QUERIES;
+    }
+
+    /** Runs the work and returns how many statements it executed on this thread. */
+    private static int count(Runnable work) {
+        int[] counter = new int[1];
+        statements.set(counter);
+        try {
+            work.run();
+        } finally {
+            statements.remove();
+        }
+        return counter[0];
+    }
+
+    /** Wraps JDBC objects so that statement executions on a measuring thread are counted. */
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(T target, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            int[] counter = statements.get();
+            if (counter != null && target instanceof Statement && name.startsWith("execute")) {
+                counter[0]++;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && !(result instanceof Proxy)) {
+                return counting(connection, Connection.class);
+            }
+            if (result instanceof CallableStatement statement) {
+                return counting(statement, CallableStatement.class);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return counting(statement, PreparedStatement.class);
+            }
+            if (result instanceof Statement statement && name.startsWith("create")) {
+                return counting(statement, Statement.class);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(ActionRoundTripBenchmark.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
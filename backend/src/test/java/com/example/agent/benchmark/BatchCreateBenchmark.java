@@ -0,0 +1,111 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.common.model.NewTask;
+import com.example.agent.common.model.Task;
+import com.example.agent.task.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares task creation throughput of the per-row path (one TaskService.createTask transaction
+ * per task, as POST /api/tasks does) with TaskService.createTasks (one transaction, pre-allocated
+ * ids, JDBC batches). Each batch is made of families: a root task followed by subtasks linked
+ * through parentRef.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class BatchCreateBenchmark {
+    private static final int TASKS = Integer.getInteger("batchbench.tasks", 5_000);
+    private static final int FAMILY_SIZE = 10;
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchCreateShouldOutperformPerRowInserts() {
+        // Warm up both paths before measuring
+        createPerRow(TASKS / 10);
+        taskService.createTasks(batch(TASKS / 10));
+
+        long before = countTasks();
+        long perRowNanos = createPerRow(TASKS);
+        long batchStart = System.nanoTime();
+        List<Long> ids = taskService.createTasks(batch(TASKS));
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertEquals(TASKS, ids.size());
+        assertEquals(before + 2L * TASKS, countTasks());
+        assertEquals(TASKS - TASKS / FAMILY_SIZE, countChildrenOf(ids));
+
+        double perRowRate = TASKS / (perRowNanos / 1e9);
+        double batchRate = TASKS / (batchNanos / 1e9);
+        System.out.printf("%nCreating %,d tasks%n", TASKS);
+        System.out.printf("  %-28s %10.0f ms %12.0f tasks/s%n", "per row (createTask)", perRowNanos / 1e6, perRowRate);
+        System.out.printf("  %-28s %10.0f ms %12.0f tasks/s%n", "batch (createTasks)", batchNanos / 1e6, batchRate);
+        System.out.printf("  speedup %.1fx%n", batchRate / perRowRate);
+
+        assertTrue(batchRate > perRowRate, "Batch create should beat per-row creates");
+    }
+
+    private long createPerRow(int count) {
+        long start = System.nanoTime();
+        Long parentId = null;
+        for (int i = 0; i < count; i++) {
+            boolean root = i % FAMILY_SIZE == 0;
+            Task saved = taskService.createTask(Task.createNewWithDetails(
+                "Per-row task " + i, null, "MEDIUM", null, root ? null : parentId, null));
+            if (root) {
+                parentId = saved.id();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<NewTask> batch(int count) {
+        List<NewTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String family = "family-" + i / FAMILY_SIZE;
+            tasks.add(i % FAMILY_SIZE == 0
+                ? new NewTask(family, "Batch task " + i, null, "MEDIUM", null, null, null, null)
+                : new NewTask(null, "Batch task " + i, null, "MEDIUM", null, null, family, null));
+        }
+        return tasks;
+    }
+
+    private long countTasks() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+    }
+
+    private long countChildrenOf(List<Long> ids) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE id BETWEEN ? AND ? AND parent_id IS NOT NULL",
+            Long.class, ids.get(0), ids.get(ids.size() - 1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.ai.metrics.QueryMetrics;
+import com.example.agent.ai.service.decision.DecisionMaker;
+import com.example.agent.ai.service.decision.DecisionMode;
+import com.example.agent.ai.service.decision.IntentCache;
+import com.example.agent.ai.service.decision.LocalIntentClassifier;
+import com.example.agent.ai.service.decision.Refinement;
+import com.example.agent.task.service.action.CreateTaskAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures DecisionMaker.decide latency against a stub LLM with a fixed round trip.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DecisionLatencyBenchmark {
+    private static final Duration LLM_LATENCY = Duration.ofMillis(100);
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    @Test
+    void combinedMode_CostsOneRoundTrip() {
+        StubChatModel chatModel = new StubChatModel(LLM_LATENCY);
+        long combined = medianLatencyMillis(chatModel, DecisionMode.COMBINED);
+
+        System.out.printf("combined decide() p50 with %d ms LLM: %d ms, %d LLM calls%n",
+            LLM_LATENCY.toMillis(), combined, chatModel.calls());
+        assertEquals(WARMUP + ITERATIONS, chatModel.calls());
+        assertTrue(combined < LLM_LATENCY.toMillis() * 1.5,
+            "Expected a single LLM round trip per decision");
+    }
+
+    @Test
+    void twoCallMode_RunsStagesConcurrently() {
+        StubChatModel chatModel = new StubChatModel(LLM_LATENCY);
+        long twoCall = medianLatencyMillis(chatModel, DecisionMode.TWO_CALL);
+
+        System.out.printf("two-call decide() p50 with %d ms LLM: %d ms, %d LLM calls%n",
+            LLM_LATENCY.toMillis(), twoCall, chatModel.calls());
+        assertEquals(2 * (WARMUP + ITERATIONS), chatModel.calls());
+        assertTrue(twoCall < LLM_LATENCY.toMillis() * 1.5,
+            "Expected max(classify, refine) rather than their sum");
+    }
+
+    private long medianLatencyMillis(StubChatModel chatModel, DecisionMode mode) {
+        ChatClient chatClient = ChatClient.create(chatModel);
+        SimpleAsyncTaskExecutor stageExecutor = new SimpleAsyncTaskExecutor();
+        stageExecutor.setVirtualThreads(true);
+        DecisionMaker decisionMaker = new DecisionMaker(
+            chatClient,
+            List.of(new CreateTaskAction(null)),
+            new Refinement(chatClient),
+            new IntentCache(0, Duration.ZERO, new SimpleMeterRegistry()),
+            new LocalIntentClassifier(1.1, 0.0, new SimpleMeterRegistry()),
+            new QueryMetrics(new SimpleMeterRegistry()),
+            stageExecutor,
+            mode,
+            Duration.ofSeconds(30));
+        Map<String, Object> context = Map.of("query", "Create a task to buy groceries");
+
+        for (int i = 0; i < WARMUP; i++) {
+            assertTrue(decisionMaker.decide(context).isPresent());
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            decisionMaker.decide(context);
+            samples[i] = System.nanoTime() - start;
+        }
+        stageExecutor.close();
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[ITERATIONS / 2]).toMillis();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.agent.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the running application over HTTP at a fixed arrival rate, with the OpenAI client
+ * pointed at a local {@link StubOpenAiServer}, and reports throughput and p50/p99/p99.9 per
+ * endpoint. Runs offline against H2; pass {@code -Dspring.datasource.url=jdbc:postgresql://...}
+ * (plus username and password) to target a local Postgres instead. The load shape can be tuned
+ * with {@code -Dloadtest.rate} (requests/s), {@code -Dloadtest.duration-seconds},
+ * {@code -Dloadtest.warmup-seconds}, {@code -Dloadtest.llm-median-ms} and {@code -Dloadtest.llm-p99-ms}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("benchmark")
+class EndToEndLoadBenchmark {
+    private static final int RATE = Integer.getInteger("loadtest.rate", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 3);
+
+    private static final StubOpenAiServer llm = StubOpenAiServer.start(LatencyDistribution.logNormal(
+        Duration.ofMillis(Integer.getInteger("loadtest.llm-median-ms", 150)),
+        Duration.ofMillis(Integer.getInteger("loadtest.llm-p99-ms", 600))));
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.ai.openai.base-url", llm::baseUrl);
+    }
+
+    @AfterAll
+    static void stopLlm() {
+        llm.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void mixedLoad_AtFixedArrivalRate() {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<LoadGenerator.Endpoint> mix = List.of(
+            new LoadGenerator.Endpoint("query create", 2, sequence -> post("/api/query",
+                "{\"query\": \"Create a task to buy groceries " + sequence + "\"}")),
+            new LoadGenerator.Endpoint("query free-form", 1, sequence -> post("/api/query",
+                "{\"query\": \"Remind me to call the bank " + sequence + "\"}")),
+            new LoadGenerator.Endpoint("query list", 1, sequence -> post("/api/query",
+                "{\"query\": \"Show my tasks\"}")),
+            new LoadGenerator.Endpoint("GET tasks", 2, sequence -> get("/api/tasks/active")),
+            new LoadGenerator.Endpoint("GET by priority", 1, sequence -> get("/api/tasks/priority/HIGH")),
+            new LoadGenerator.Endpoint("POST tasks", 1, sequence -> post("/api/tasks",
+                "{\"description\": \"Load test task " + sequence + "\", \"priority\": \"LOW\","
+                    + " \"createdAt\": \"2030-01-01T00:00:00\"}")));
+
+        new LoadGenerator(client, RATE, Duration.ofSeconds(WARMUP_SECONDS), mix).run();
+        LoadGenerator.LoadReport report = new LoadGenerator(client, RATE, Duration.ofSeconds(DURATION_SECONDS), mix).run();
+
+        report.print(System.out);
+        System.out.printf("  stub LLM served %d completions%n", llm.requests());
+        assertEquals(0, report.errors(), "Expected every request to succeed");
+        assertTrue(report.throughput() > RATE * 0.9, "Expected the server to keep up with the offered rate");
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.agent.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of simulated LLM round-trip times for the stub server.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    // z-score of the 99th percentile of a standard normal distribution
+    double Z_99 = 2.326;
+
+    Duration next();
+
+    static LatencyDistribution fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+    }
+
+    /**
+     * Log-normal latencies with the given median and 99th percentile: the long right tail real
+     * model APIs show, where most calls are near the median and a few take several times longer.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return () -> Duration.ofNanos(
+            (long) (median.toNanos() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+    }
+}
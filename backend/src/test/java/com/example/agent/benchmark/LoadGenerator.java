@@ -0,0 +1,142 @@
+package com.example.agent.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are started at a fixed arrival rate whether or not earlier
+ * ones have finished, and latency is measured from each request's scheduled start, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load.
+ * Requests cycle through the weighted endpoint mix in a fixed order.
+ */
+public final class LoadGenerator {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    /** One entry of the request mix; the request is built per call so bodies can vary. */
+    public record Endpoint(String name, int weight, RequestFactory request) {}
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest create(long sequence);
+    }
+
+    public record EndpointReport(String name, long requests, long errors, Histogram latencies) {
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+    }
+
+    public record LoadReport(double offeredRate, Duration elapsed, List<EndpointReport> endpoints, Histogram overall) {
+        public long requests() {
+            return endpoints.stream().mapToLong(EndpointReport::requests).sum();
+        }
+
+        public long errors() {
+            return endpoints.stream().mapToLong(EndpointReport::errors).sum();
+        }
+
+        public double throughput() {
+            return requests() / (elapsed.toNanos() / 1e9);
+        }
+
+        public void print(PrintStream out) {
+            out.printf("offered %.1f req/s, achieved %.1f req/s over %.1f s, %d errors%n",
+                offeredRate, throughput(), elapsed.toNanos() / 1e9, errors());
+            out.printf("  %-16s %8s %7s %9s %9s %9s%n", "endpoint", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms");
+            for (EndpointReport endpoint : endpoints) {
+                out.printf("  %-16s %8d %7d %9.1f %9.1f %9.1f%n", endpoint.name(), endpoint.requests(), endpoint.errors(),
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(99), endpoint.percentileMillis(99.9));
+            }
+            EndpointReport all = new EndpointReport("all", requests(), errors(), overall);
+            out.printf("  %-16s %8d %7d %9.1f %9.1f %9.1f%n", all.name(), all.requests(), all.errors(),
+                all.percentileMillis(50), all.percentileMillis(99), all.percentileMillis(99.9));
+        }
+    }
+
+    private record Tracker(Endpoint endpoint, LongAdder requests, LongAdder errors, Histogram latencies) {}
+
+    private final HttpClient client;
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final List<Endpoint> endpoints;
+
+    public LoadGenerator(HttpClient client, double ratePerSecond, Duration duration, List<Endpoint> endpoints) {
+        this.client = client;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.endpoints = endpoints;
+    }
+
+    public LoadReport run() {
+        Map<String, Tracker> trackers = new LinkedHashMap<>();
+        List<Tracker> schedule = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Tracker tracker = new Tracker(endpoint, new LongAdder(), new LongAdder(), newHistogram());
+            trackers.put(endpoint.name(), tracker);
+            for (int i = 0; i < endpoint.weight(); i++) {
+                schedule.add(tracker);
+            }
+        }
+        Histogram overall = newHistogram();
+
+        long intervalNanos = (long) (1e9 / ratePerSecond);
+        long total = (long) (duration.toNanos() / 1e9 * ratePerSecond);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long sequence = 0; sequence < total; sequence++) {
+                long scheduledStart = start + sequence * intervalNanos;
+                long wait = scheduledStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Tracker tracker = schedule.get((int) (sequence % schedule.size()));
+                long requestSequence = sequence;
+                executor.submit(() -> send(tracker, requestSequence, scheduledStart, overall));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<EndpointReport> reports = trackers.values().stream()
+            .map(tracker -> new EndpointReport(tracker.endpoint().name(), tracker.requests().sum(),
+                tracker.errors().sum(), tracker.latencies()))
+            .toList();
+        return new LoadReport(ratePerSecond, elapsed, reports, overall);
+    }
+
+    private void send(Tracker tracker, long sequence, long scheduledStart, Histogram overall) {
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(tracker.endpoint().request().create(sequence),
+                HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (Exception e) {
+            failed = true;
+        }
+        long latency = Math.min(System.nanoTime() - scheduledStart, MAX_LATENCY_NANOS);
+        tracker.requests().increment();
+        if (failed) {
+            tracker.errors().increment();
+        }
+        tracker.latencies().recordValue(latency);
+        overall.recordValue(latency);
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    }
+}
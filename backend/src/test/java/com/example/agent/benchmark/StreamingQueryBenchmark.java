@@ -0,0 +1,111 @@
+package com.example.agent.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares time to the first SSE event on /api/query/stream with the time to the final
+ * "response" event, against a stub LLM that streams its output in chunks. The intent cache is
+ * disabled so every query pays for classification.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "agent.intent-cache.maximum-size=0")
+@ActiveProfiles("benchmark")
+class StreamingQueryBenchmark {
+    private static final Duration LLM_LATENCY = Duration.ofMillis(200);
+    private static final String QUERY_BODY = "{\"query\": \"Remind me to buy groceries tomorrow\"}";
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 15;
+
+    private record Timing(long firstEventNanos, long totalNanos) {}
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(LLM_LATENCY);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void firstEvent_ArrivesBeforeTheFullResponse() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            streamQuery();
+        }
+
+        long[] firstEvent = new long[ITERATIONS];
+        long[] total = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            Timing timing = streamQuery();
+            firstEvent[i] = timing.firstEventNanos();
+            total[i] = timing.totalNanos();
+        }
+        long firstEventMillis = median(firstEvent);
+        long totalMillis = median(total);
+
+        System.out.printf("streamed query with %d ms LLM: first event p50 %d ms, full response p50 %d ms%n",
+            LLM_LATENCY.toMillis(), firstEventMillis, totalMillis);
+        assertTrue(firstEventMillis < totalMillis * 0.6,
+            "Expected the intent event well before the final response");
+    }
+
+    private Timing streamQuery() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/query/stream"))
+            .header("Content-Type", "application/json")
+            .header("Accept", "text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(QUERY_BODY))
+            .build();
+
+        long start = System.nanoTime();
+        long firstEvent = 0;
+        boolean responseSeen = false;
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("event:")) {
+                    continue;
+                }
+                if (firstEvent == 0) {
+                    firstEvent = System.nanoTime() - start;
+                }
+                assertNotEquals("event:error", line);
+                responseSeen |= line.equals("event:response");
+            }
+        }
+        assertTrue(responseSeen, "Expected a final response event");
+        return new Timing(firstEvent, System.nanoTime() - start);
+    }
+
+    private static long median(long[] samples) {
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[samples.length / 2]).toMillis();
+    }
+}
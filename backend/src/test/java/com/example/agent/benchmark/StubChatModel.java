@@ -0,0 +1,72 @@
+package com.example.agent.benchmark;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChatModel stand-in that answers the agent's prompts with canned JSON after a fixed delay.
+ * The prompt kind is recognised from the system message, so a real ChatClient can be
+ * built on top of it and structured output conversion runs exactly as in production.
+ * Streamed responses deliver the first chunk after a quarter of the latency and spread the
+ * remaining chunks over the rest, like a model emitting tokens as it generates them.
+ */
+public class StubChatModel implements ChatModel {
+    static final int STREAM_CHUNKS = 8;
+
+    private final Duration latency;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public StubChatModel(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub LLM call interrupted", e);
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(respond(prompt)))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        calls.incrementAndGet();
+        List<String> chunks = chunk(respond(prompt), STREAM_CHUNKS);
+        Duration firstChunk = latency.dividedBy(4);
+        Duration perChunk = latency.minus(firstChunk).dividedBy(chunks.size());
+        return Flux.fromIterable(chunks)
+            .delayElements(perChunk)
+            .delaySubscription(firstChunk.minus(perChunk))
+            .map(text -> new ChatResponse(List.of(new Generation(new AssistantMessage(text)))));
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    private String respond(Prompt prompt) {
+        return StubResponses.forPrompt(prompt.getContents());
+    }
+
+    static List<String> chunk(String text, int count) {
+        List<String> chunks = new ArrayList<>(count);
+        int size = (text.length() + count - 1) / count;
+        for (int start = 0; start < text.length(); start += size) {
+            chunks.add(text.substring(start, Math.min(text.length(), start + size)));
+        }
+        return chunks;
+    }
+}
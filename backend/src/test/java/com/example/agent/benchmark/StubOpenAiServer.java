@@ -0,0 +1,155 @@
+package com.example.agent.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OpenAI-compatible HTTP server for offline end-to-end runs. Point the application at it with
+ * {@code spring.ai.openai.base-url}; /v1/chat/completions answers the agent's prompts with the
+ * canned {@link StubResponses} after a delay drawn from the latency distribution. Streaming
+ * requests receive the response as server-sent chunks spread over the same delay.
+ */
+public final class StubOpenAiServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LatencyDistribution latency;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private StubOpenAiServer(LatencyDistribution latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.start();
+    }
+
+    public static StubOpenAiServer start(LatencyDistribution latency) {
+        try {
+            return new StubOpenAiServer(latency);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start stub OpenAI server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            StringBuilder prompt = new StringBuilder();
+            request.path("messages").forEach(message -> prompt.append(message.path("content").asText()).append('\n'));
+            String content = StubResponses.forPrompt(prompt.toString());
+            String model = request.path("model").asText("stub");
+
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, content);
+            } else {
+                sleep(latency.next());
+                byte[] body = MAPPER.writeValueAsBytes(completion(model, content));
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange, String model, String content) throws IOException, InterruptedException {
+        List<String> chunks = StubChatModel.chunk(content, StubChatModel.STREAM_CHUNKS);
+        Duration total = latency.next();
+        Duration firstChunk = total.dividedBy(4);
+        Duration perChunk = total.minus(firstChunk).dividedBy(chunks.size());
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        sleep(firstChunk);
+        String id = "chatcmpl-" + UUID.randomUUID();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                sleep(perChunk);
+            }
+            boolean last = i == chunks.size() - 1;
+            writeEvent(out, MAPPER.writeValueAsString(chunk(id, model, chunks.get(i), last)));
+        }
+        writeEvent(out, "[DONE]");
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static ObjectNode completion(String model, String content) {
+        ObjectNode response = envelope("chatcmpl-" + UUID.randomUUID(), "chat.completion", model);
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        response.putObject("usage")
+            .put("prompt_tokens", 0)
+            .put("completion_tokens", 0)
+            .put("total_tokens", 0);
+        return response;
+    }
+
+    private static ObjectNode chunk(String id, String model, String content, boolean last) {
+        ObjectNode response = envelope(id, "chat.completion.chunk", model);
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("delta").put("role", "assistant").put("content", content);
+        if (last) {
+            choice.put("finish_reason", "stop");
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return response;
+    }
+
+    private static ObjectNode envelope(String id, String object, String model) {
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("id", id);
+        response.put("object", object);
+        response.put("created", Instant.now().getEpochSecond());
+        response.put("model", model);
+        return response;
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (duration.isPositive()) {
+            Thread.sleep(duration);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.agent.benchmark;
+
+/**
+ * Canned structured responses for the agent's prompts, shared by {@link StubChatModel} and
+ * {@link StubOpenAiServer}. The prompt kind is recognised from its text.
+ */
+final class StubResponses {
+    static final String INTENT_RESPONSE = """
+        {"intent": "CREATE_TASK"}
+        """;
+    static final String REFINEMENT_RESPONSE = """
+        {"description": "Buy groceries", "deadline": null, "priority": "HIGH",
+         "constraints": null, "needsMoreInfo": false, "followUpQuestion": null}
+        """;
+    static final String COMBINED_RESPONSE = """
+        {"intent": "CREATE_TASK", "description": "Buy groceries", "deadline": null, "priority": "HIGH",
+         "constraints": null, "taskId": null, "needsMoreInfo": false, "followUpQuestion": null}
+        """;
+
+    private StubResponses() {}
+
+    static String forPrompt(String contents) {
+        if (contents.contains("taskId:")) {
+            return COMBINED_RESPONSE;
+        }
+        if (contents.contains("'intent' field")) {
+            return INTENT_RESPONSE;
+        }
+        return REFINEMENT_RESPONSE;
+    }
+}
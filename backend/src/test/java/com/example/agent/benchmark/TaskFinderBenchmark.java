@@ -0,0 +1,275 @@
+package com.example.agent.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds several million tasks, then checks that the first page of every task listing, and the
+ * deadline scheduler's reload, runs off an index and compares its latency against the same query
+ * with the finder indexes dropped.
+ *
+ * Runs on in-memory H2 by default, with a tenth of the rows; pass the Postgres datasource
+ * properties (see README) to check the partial indexes in schema-postgresql.sql at full size. The
+ * SQL is written out as TaskQueryRepository builds it. Rows are counted through JDBC rather than
+ * mapped to {@code Task}, whose constructor rejects the past deadlines of overdue rows.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class TaskFinderBenchmark {
+    /** In-memory H2 holds the whole table on the test JVM's heap, so it defaults to a smaller dataset. */
+    private static final int POSTGRES_DEFAULT_ROWS = 3_000_000;
+    private static final int H2_DEFAULT_ROWS = 300_000;
+    private static final int ITERATIONS = Integer.getInteger("taskbench.iterations", 5);
+    private static final int WARMUP_ITERATIONS = 2;
+    /** Every block of this many tasks is one root followed by its subtasks. */
+    private static final int FAMILY_SIZE = 20;
+
+    private static final List<String> FINDER_INDEXES = List.of(
+        "idx_tasks_parent_id", "idx_tasks_priority", "idx_tasks_active", "idx_tasks_root", "idx_tasks_active_deadline",
+        "idx_tasks_deadline", "idx_tasks_metadata");
+    /** First pages of the fixed listings (GET /api/tasks/active, /root, /{id}/subtasks, /priority/HIGH). */
+    private static final String ACTIVE_PAGE =
+        "SELECT * FROM tasks WHERE completed = false ORDER BY created_at, id LIMIT 51";
+    private static final String SUBTASKS_PAGE =
+        "SELECT * FROM tasks WHERE parent_id = ? ORDER BY created_at, id LIMIT 51";
+    private static final String ROOT_PAGE =
+        "SELECT * FROM tasks WHERE parent_id IS NULL ORDER BY created_at, id LIMIT 51";
+    private static final String PRIORITY_PAGE =
+        "SELECT * FROM tasks WHERE priority = ? ORDER BY created_at, id LIMIT 51";
+    /** First page of a search for overdue tasks, which goes to the table rather than the deadline scheduler. */
+    private static final String OVERDUE_SEARCH = "SELECT * FROM tasks WHERE completed = false"
+        + " AND deadline < CURRENT_TIMESTAMP ORDER BY created_at, id LIMIT 51";
+    /** What DeadlineScheduler loads on every reload. */
+    private static final String DEADLINE_RELOAD =
+        "SELECT id, created_at, deadline FROM tasks WHERE completed = false AND deadline IS NOT NULL";
+    /** First pages of LIST_TASKS queries like "high priority tasks due this week", as TaskQueryRepository builds them. */
+    private static final String LISTING_DUE_BETWEEN =
+        "SELECT * FROM tasks WHERE deadline >= ? AND deadline < ? ORDER BY created_at, id LIMIT 51";
+    private static final String LISTING_PRIORITY_DUE_BETWEEN = "SELECT * FROM tasks WHERE priority = ?"
+        + " AND deadline >= ? AND deadline < ? ORDER BY created_at, id LIMIT 51";
+    /** First page of GET /api/tasks/metadata, as TaskQueryRepository runs it on Postgres. */
+    private static final String METADATA_CONTAINS =
+        "SELECT * FROM tasks WHERE metadata @> CAST(? AS JSONB) ORDER BY created_at, id LIMIT 51";
+
+    private record Finder(String name, String sql, Object... args) {}
+
+    private record Timing(long rows, Duration min, Duration median, Duration max) {}
+
+    /**
+     * Set-based seeding differs per database: the row generator and timestamp arithmetic.
+     * Setup statements run before timing anything.
+     */
+    private record Dialect(String rowSource, String secondsAfterEpoch, String daysFromNow, String metadata,
+                           String explain, List<String> setup) {
+        static Dialect of(String platform) {
+            return switch (platform) {
+                case "postgresql" -> new Dialect(
+                    "generate_series(1, ?) AS g(x)",
+                    "TIMESTAMP '2024-01-01 00:00:00' + (%s) * INTERVAL '1 second'",
+                    "LOCALTIMESTAMP + (%s) * INTERVAL '1 day'",
+                    // One task in 10,000 is tagged, the rest carry other metadata
+                    "CASE WHEN x % 10000 = 0 THEN CAST('{\"tags\": [\"flagged\"]}' AS JSONB)"
+                        + " ELSE CAST('{\"tags\": [\"seeded\"]}' AS JSONB) END",
+                    "EXPLAIN (ANALYZE, BUFFERS) ",
+                    List.of());
+                case "h2" -> new Dialect(
+                    "SYSTEM_RANGE(1, ?)",
+                    "DATEADD(SECOND, %s, TIMESTAMP '2024-01-01 00:00:00')",
+                    "DATEADD(DAY, %s, LOCALTIMESTAMP)",
+                    // H2 cannot query metadata, so it is not seeded
+                    "NULL",
+                    "EXPLAIN ANALYZE ",
+                    // H2 otherwise hands back the cached result of a repeated query on an unchanged table
+                    List.of("SET OPTIMIZE_REUSE_RESULTS 0"));
+                default -> throw new IllegalArgumentException("No seeding dialect for platform " + platform);
+            };
+        }
+    }
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.sql.init.platform}")
+    private String platform;
+
+    private int seededRows;
+
+    @Test
+    void everyFinderShouldUseAnIndex() throws Exception {
+        Dialect dialect = Dialect.of(platform);
+        seededRows = Integer.getInteger("taskbench.rows", "h2".equals(platform) ? H2_DEFAULT_ROWS : POSTGRES_DEFAULT_ROWS);
+        try {
+            dialect.setup().forEach(jdbcTemplate::execute);
+            long seedStart = System.nanoTime();
+            seed(dialect);
+            System.out.printf("%nSeeded %,d tasks on %s in %d s%n", seededRows, platform,
+                Duration.ofNanos(System.nanoTime() - seedStart).toSeconds());
+
+            List<Finder> finders = finders();
+            List<Timing> indexed = new ArrayList<>();
+            for (Finder finder : finders) {
+                String plan = explain(dialect, finder);
+                System.out.printf("%n-- %s%n%s%n", finder.name(), plan);
+                assertFalse(isFullScan(plan), finder.name() + " scans the whole table:\n" + plan);
+                indexed.add(time(finder));
+            }
+
+            FINDER_INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+            analyze();
+            List<Timing> unindexed = new ArrayList<>();
+            for (Finder finder : finders) {
+                unindexed.add(time(finder));
+            }
+
+            System.out.printf("%n%-22s %9s %12s %12s %12s %9s%n",
+                "finder", "rows", "min ms", "p50 ms", "no-index ms", "speedup");
+            for (int i = 0; i < finders.size(); i++) {
+                Timing withIndex = indexed.get(i);
+                Timing without = unindexed.get(i);
+                assertEquals(without.rows(), withIndex.rows(), finders.get(i).name() + " row count changed");
+                System.out.printf("%-22s %,9d %12.1f %12.1f %12.1f %8.1fx%n",
+                    finders.get(i).name(), withIndex.rows(), millis(withIndex.min()), millis(withIndex.median()),
+                    millis(without.median()), (double) without.median().toNanos() / withIndex.median().toNanos());
+            }
+        } finally {
+            // Recreate an empty tasks table, with its indexes, for benchmarks sharing this database
+            new ResourceDatabasePopulator(schemaScripts()).execute(dataSource);
+        }
+    }
+
+    private void seed(Dialect dialect) {
+        String insert = """
+            INSERT INTO tasks (id, description, completed, created_at, completed_at, deadline, priority, parent_id, metadata)
+            SELECT x,
+                   'Seeded task ' || x,
+                   x %% 10 <> 0,
+                   %1$s,
+                   CASE WHEN x %% 10 <> 0 THEN %2$s END,
+                   CASE WHEN x %% 4 = 0 THEN %3$s END,
+                   CASE WHEN x %% 50 = 0 THEN 'HIGH' WHEN x %% 5 = 0 THEN 'MEDIUM' WHEN x %% 2 = 0 THEN 'LOW' END,
+                   %4$s,
+                   %7$s
+            FROM %5$s
+            WHERE %6$s
+            """;
+        String createdAt = dialect.secondsAfterEpoch().formatted("x");
+        String completedAt = dialect.secondsAfterEpoch().formatted("x + 3600");
+        String deadline = dialect.daysFromNow().formatted("x % 60 - 30");
+        // Roots first so every subtask's parent_id already exists
+        jdbcTemplate.update(insert.formatted(createdAt, completedAt, deadline,
+            "CAST(NULL AS BIGINT)", dialect.rowSource(), "x % " + FAMILY_SIZE + " = 1", dialect.metadata()), seededRows);
+        jdbcTemplate.update(insert.formatted(createdAt, completedAt, deadline,
+            "x - (x - 1) % " + FAMILY_SIZE, dialect.rowSource(), "x % " + FAMILY_SIZE + " <> 1", dialect.metadata()),
+            seededRows);
+        analyze();
+    }
+
+    private void analyze() {
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private List<Finder> finders() {
+        long parentId = (seededRows / 2 / FAMILY_SIZE) * FAMILY_SIZE + 1;
+        LocalDateTime weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+        List<Finder> finders = new ArrayList<>(List.of(
+            new Finder("active page", ACTIVE_PAGE),
+            new Finder("subtasks page", SUBTASKS_PAGE, parentId),
+            new Finder("root page", ROOT_PAGE),
+            new Finder("HIGH priority page", PRIORITY_PAGE, "HIGH"),
+            new Finder("overdue search", OVERDUE_SEARCH),
+            new Finder("deadline reload", DEADLINE_RELOAD),
+            new Finder("listing due this week", LISTING_DUE_BETWEEN, weekStart, weekStart.plusWeeks(1)),
+            new Finder("listing HIGH due week", LISTING_PRIORITY_DUE_BETWEEN, "HIGH", weekStart, weekStart.plusWeeks(1))
+        ));
+        if ("postgresql".equals(platform)) {
+            finders.add(new Finder("metadata tag", METADATA_CONTAINS, "{\"tags\": [\"flagged\"]}"));
+        }
+        return finders;
+    }
+
+    private String explain(Dialect dialect, Finder finder) {
+        return String.join("\n", jdbcTemplate.query(dialect.explain() + finder.sql(),
+            (rs, rowNum) -> rs.getString(1), finder.args()));
+    }
+
+    private boolean isFullScan(String plan) {
+        return switch (platform) {
+            case "postgresql" -> plan.contains("Seq Scan on tasks");
+            default -> plan.contains(".tableScan");
+        };
+    }
+
+    private Timing time(Finder finder) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            count(finder);
+        }
+        long rows = 0;
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            rows = count(finder);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Timing(rows, Duration.ofNanos(nanos[0]), Duration.ofNanos(nanos[ITERATIONS / 2]),
+            Duration.ofNanos(nanos[ITERATIONS - 1]));
+    }
+
+    private long count(Finder finder) {
+        AtomicLong rows = new AtomicLong();
+        jdbcTemplate.query(finder.sql(), rs -> {
+            rows.incrementAndGet();
+        }, finder.args());
+        return rows.get();
+    }
+
+    private Resource[] schemaScripts() {
+        return Stream.of("schema.sql", "schema-" + platform + ".sql")
+            .map(ClassPathResource::new)
+            .filter(Resource::exists)
+            .toArray(Resource[]::new);
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.repository.TaskSort;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jdbc.core.convert.EntityRowMapper;
+import org.springframework.data.jdbc.core.convert.JdbcConverter;
+import org.springframework.data.relational.core.mapping.RelationalMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs random /api/tasks/search filter combinations two ways: through TaskQueryRepository#search,
+ * which binds every value into SQL shared by all searches of the same shape, and as the same
+ * queries with the values written into the SQL, which the database parses and plans afresh each
+ * time. Both map rows to tasks, and each search must return the same tasks either way.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class TaskSearchBenchmark {
+    private static final int TASKS = Integer.getInteger("searchbench.tasks", 2_000);
+    private static final int SEARCHES = Integer.getInteger("searchbench.searches", 5_000);
+    private static final int ROUNDS = 3;
+    private static final int LIMIT = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] PRIORITIES = {"HIGH", "MEDIUM", "LOW"};
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+    }
+
+    private record Search(TaskFilter filter, TaskSort sort) {}
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcConverter converter;
+
+    @Autowired
+    private RelationalMappingContext mappingContext;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void boundSearchesShouldReuseStatementsAcrossValues() {
+        try {
+            seed();
+            List<Search> searches = searches(new Random(42));
+            RowMapper<Task> rowMapper = rowMapper();
+
+            // Warm up both paths and check that they agree
+            for (Search search : searches.subList(0, Math.min(500, searches.size()))) {
+                assertEquals(taskRepository.search(search.filter(), search.sort(), LIMIT),
+                    jdbcTemplate.query(inlined(search), rowMapper), search.toString());
+            }
+
+            // Alternating rounds, keeping each path's best, so neither gains from running second
+            double bound = 0;
+            double inlined = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                inlined = Math.max(inlined, perSecond(searches,
+                    search -> jdbcTemplate.query(inlined(search), rowMapper).size()));
+                bound = Math.max(bound, perSecond(searches,
+                    search -> taskRepository.search(search.filter(), search.sort(), LIMIT).size()));
+            }
+
+            Set<String> texts = new HashSet<>();
+            searches.forEach(search -> texts.add(inlined(search)));
+            System.out.printf("%n%,d searches over %,d tasks: %,d distinct filter shapes, %,d distinct inlined statements%n",
+                SEARCHES, TASKS, searches.stream().map(TaskSearchBenchmark::shape).distinct().count(), texts.size());
+            System.out.printf("  %-22s %,12.0f searches/s%n", "bound (shape cached)", bound);
+            System.out.printf("  %-22s %,12.0f searches/s%n", "values inlined", inlined);
+        } finally {
+            jdbcTemplate.update("DELETE FROM tasks");
+        }
+    }
+
+    private void seed() {
+        List<Long> ids = taskRepository.allocateIds(TASKS);
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            LocalDateTime createdAt = START.plusMinutes(i * 30L);
+            boolean completed = random.nextInt(4) == 0;
+            tasks.add(Task.fromRow(ids.get(i), "Search task " + i, completed, createdAt,
+                completed ? createdAt.plusDays(1) : null,
+                random.nextInt(3) == 0 ? null : createdAt.plusHours(random.nextInt(24 * 60)),
+                random.nextInt(4) == 0 ? null : PRIORITIES[random.nextInt(PRIORITIES.length)],
+                null, null, null, 0L));
+        }
+        transactionTemplate.executeWithoutResult(status -> taskRepository.insertAll(tasks));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static List<Search> searches(Random random) {
+        LocalDateTime end = START.plusMinutes(TASKS * 30L);
+        long minutes = Duration.between(START, end).toMinutes();
+        List<Search> searches = new ArrayList<>(SEARCHES);
+        for (int i = 0; i < SEARCHES; i++) {
+            Boolean completed = switch (random.nextInt(3)) {
+                case 0 -> null;
+                case 1 -> Boolean.FALSE;
+                default -> Boolean.TRUE;
+            };
+            String priority = random.nextBoolean() ? PRIORITIES[random.nextInt(PRIORITIES.length)] : null;
+            LocalDateTime deadlineFrom = null;
+            LocalDateTime deadlineTo = null;
+            if (random.nextBoolean()) {
+                deadlineFrom = START.plusMinutes(random.nextLong(minutes));
+                deadlineTo = deadlineFrom.plusDays(1 + random.nextInt(30));
+            }
+            LocalDateTime createdFrom = random.nextInt(3) == 0 ? START.plusMinutes(random.nextLong(minutes)) : null;
+            LocalDateTime createdTo = random.nextInt(3) == 0 ? START.plusMinutes(random.nextLong(minutes)) : null;
+            TaskSort sort = TaskSort.values()[random.nextInt(TaskSort.values().length)];
+            searches.add(new Search(new TaskFilter(completed, null, false, priority, false,
+                deadlineFrom, deadlineTo, null, createdFrom, createdTo), sort));
+        }
+        return searches;
+    }
+
+    /** The search as TaskQueryRepository writes it, with its values as literals. */
+    private static String inlined(Search search) {
+        TaskFilter filter = search.filter();
+        List<String> conditions = new ArrayList<>();
+        if (filter.completed() != null) {
+            conditions.add("completed = " + filter.completed());
+        }
+        if (filter.priority() != null) {
+            conditions.add("priority = '" + filter.priority() + "'");
+        }
+        if (filter.deadlineFrom() != null) {
+            conditions.add("deadline >= " + timestamp(filter.deadlineFrom()));
+        }
+        if (filter.deadlineTo() != null) {
+            conditions.add("deadline < " + timestamp(filter.deadlineTo()));
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("created_at >= " + timestamp(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("created_at < " + timestamp(filter.createdTo()));
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        String orderBy = switch (search.sort()) {
+            case CREATED -> "created_at, id";
+            case CREATED_DESC -> "created_at DESC, id DESC";
+            case DEADLINE -> "deadline NULLS LAST, id";
+            case DEADLINE_DESC -> "deadline DESC NULLS LAST, id DESC";
+        };
+        return "SELECT * FROM tasks" + where + " ORDER BY " + orderBy + " LIMIT " + LIMIT;
+    }
+
+    private static String shape(Search search) {
+        return inlined(search).replaceAll("TIMESTAMP '[^']*'|'[A-Z]+'", "?");
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return "TIMESTAMP '" + value.toLocalDate() + " " + value.toLocalTime() + ":00'";
+    }
+
+    private static double perSecond(List<Search> searches, ToIntFunction<Search> run) {
+        long start = System.nanoTime();
+        long rows = 0;
+        for (Search search : searches) {
+            rows += run.applyAsInt(search);
+        }
+        assertTrue(rows > 0, "Searches returned no tasks");
+        return searches.size() / (Math.max(1, System.nanoTime() - start) / 1e9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RowMapper<Task> rowMapper() {
+        return new EntityRowMapper<>(
+            (RelationalPersistentEntity<Task>) mappingContext.getRequiredPersistentEntity(Task.class), converter);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.repository.TaskSummaryPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through a table of tasks with long constraints, once as full tasks (GET /api/tasks) and once
+ * as summaries (GET /api/tasks/summaries), serializing each page to JSON as the controller would.
+ * Reports the time to walk every page and the response bytes per page.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class TaskSummaryBenchmark {
+    private static final int TASKS = Integer.getInteger("summarybench.tasks", 50_000);
+    private static final int PAGE_SIZE = Integer.getInteger("summarybench.page-size", 100);
+    private static final int CONSTRAINTS_LENGTH = Integer.getInteger("summarybench.constraints-length", 2_000);
+    private static final int ROUNDS = 3;
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+    }
+
+    private record Walk(Duration elapsed, long pages, long rows, long bytes) {}
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void summariesShouldReadAndSendLessThanFullTasks() throws Exception {
+        try {
+            seed();
+            Walk full = null;
+            Walk summaries = null;
+            // Alternating rounds, keeping each path's fastest, so neither gains from running second
+            for (int round = 0; round < ROUNDS; round++) {
+                full = fastest(full, walkFull());
+                summaries = fastest(summaries, walkSummaries());
+            }
+            assertEquals(full.rows(), summaries.rows());
+            assertEquals(TASKS, summaries.rows());
+
+            System.out.printf("%nPaging through %,d tasks, %d per page, constraints of %,d characters%n",
+                TASKS, PAGE_SIZE, CONSTRAINTS_LENGTH);
+            System.out.printf("  %-10s %10s %12s %14s%n", "path", "total ms", "ms per page", "bytes per page");
+            print("full", full);
+            print("summary", summaries);
+            assertTrue(summaries.bytes() < full.bytes());
+        } finally {
+            jdbcTemplate.update("DELETE FROM tasks");
+        }
+    }
+
+    private void seed() {
+        List<Long> ids = taskRepository.allocateIds(TASKS);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        String constraints = "x".repeat(CONSTRAINTS_LENGTH);
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            LocalDateTime createdAt = start.plusMinutes(i);
+            tasks.add(Task.fromRow(ids.get(i), "Summary task " + i, i % 3 == 0, createdAt, null,
+                createdAt.plusDays(7), i % 2 == 0 ? "HIGH" : "LOW", constraints, null, null, 0L));
+        }
+        transactionTemplate.executeWithoutResult(status -> taskRepository.insertAll(tasks));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private Walk walkFull() throws Exception {
+        long start = System.nanoTime();
+        long pages = 0;
+        long rows = 0;
+        long bytes = 0;
+        TaskCursor cursor = null;
+        do {
+            TaskPage page = taskRepository.findPage(TaskFilter.ALL, cursor, PAGE_SIZE);
+            bytes += objectMapper.writeValueAsBytes(page.tasks()).length;
+            rows += page.tasks().size();
+            pages++;
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return new Walk(Duration.ofNanos(System.nanoTime() - start), pages, rows, bytes);
+    }
+
+    private Walk walkSummaries() throws Exception {
+        long start = System.nanoTime();
+        long pages = 0;
+        long rows = 0;
+        long bytes = 0;
+        TaskCursor cursor = null;
+        do {
+            TaskSummaryPage page = taskRepository.findSummaryPage(TaskFilter.ALL, cursor, PAGE_SIZE);
+            bytes += objectMapper.writeValueAsBytes(page.tasks()).length;
+            rows += page.tasks().size();
+            pages++;
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return new Walk(Duration.ofNanos(System.nanoTime() - start), pages, rows, bytes);
+    }
+
+    private static Walk fastest(Walk best, Walk walk) {
+        return best == null || walk.elapsed().compareTo(best.elapsed()) < 0 ? walk : best;
+    }
+
+    private static void print(String path, Walk walk) {
+        double millis = walk.elapsed().toNanos() / 1_000_000.0;
+        System.out.printf("  %-10s %10.1f %12.3f %,14d%n", path, millis, millis / walk.pages(), walk.bytes() / walk.pages());
+    }
+}
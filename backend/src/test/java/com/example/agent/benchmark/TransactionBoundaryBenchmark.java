@@ -0,0 +1,129 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.ai.model.QueryRequest;
+import com.example.agent.ai.model.QueryResponse;
+import com.example.agent.ai.service.AIService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares connection pool occupancy and query throughput when the whole query pipeline runs
+ * in one transaction (the old class-level @Transactional on AIService) against the current
+ * short transaction around action execution only. The LLM is a stub with a fixed slow round trip.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=" + TransactionBoundaryBenchmark.POOL_SIZE)
+@ActiveProfiles("benchmark")
+class TransactionBoundaryBenchmark {
+    static final int POOL_SIZE = 4;
+    private static final Duration LLM_LATENCY = Duration.ofMillis(200);
+    private static final int CONCURRENT_CLIENTS = 16;
+    private static final int QUERIES_PER_CLIENT = 5;
+
+    private record LoadResult(double queriesPerSecond, double meanActiveConnections, int peakAwaitingThreads) {}
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(LLM_LATENCY);
+        }
+    }
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shortTransactions_KeepPoolFreeDuringLlmCalls() throws Exception {
+        LoadResult wholePipeline = runLoad(request ->
+            transactionTemplate.execute(status -> aiService.processQuery(request)));
+        LoadResult actionOnly = runLoad(aiService::processQuery);
+
+        System.out.printf("pool=%d clients=%d llm=%d ms%n",
+            POOL_SIZE, CONCURRENT_CLIENTS, LLM_LATENCY.toMillis());
+        System.out.printf("  transaction around pipeline: %.1f q/s, mean active=%.2f, peak waiting=%d%n",
+            wholePipeline.queriesPerSecond(), wholePipeline.meanActiveConnections(), wholePipeline.peakAwaitingThreads());
+        System.out.printf("  transaction around action:   %.1f q/s, mean active=%.2f, peak waiting=%d%n",
+            actionOnly.queriesPerSecond(), actionOnly.meanActiveConnections(), actionOnly.peakAwaitingThreads());
+
+        assertTrue(actionOnly.queriesPerSecond() > wholePipeline.queriesPerSecond() * 2,
+            "Expected throughput to no longer be capped by the pool size");
+        assertTrue(actionOnly.meanActiveConnections() < wholePipeline.meanActiveConnections() / 2,
+            "Expected connections to be released during LLM calls");
+    }
+
+    private LoadResult runLoad(Function<QueryRequest, QueryResponse> pipeline) throws Exception {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        LongAdder activeSum = new LongAdder();
+        LongAdder samples = new LongAdder();
+        AtomicInteger peakAwaiting = new AtomicInteger();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            activeSum.add(pool.getActiveConnections());
+            samples.increment();
+            peakAwaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    for (int q = 0; q < QUERIES_PER_CLIENT; q++) {
+                        QueryResponse response = pipeline.apply(
+                            new QueryRequest("Create a task to buy groceries", null));
+                        assertEquals("Task processed successfully", response.response());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return new LoadResult(
+            CONCURRENT_CLIENTS * QUERIES_PER_CLIENT / seconds,
+            samples.sum() == 0 ? 0 : (double) activeSum.sum() / samples.sum(),
+            peakAwaiting.get()
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.agent.benchmark;
+
+import com.example.agent.common.model.NewTask;
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many writers updating the same few tasks, three ways: the former read-modify-write path
+ * (findById, rebuild, save, retried when the version check fails), TaskService.updateTask without
+ * a version (one UPDATE, last writer wins), and updateTask with the version the writer last read
+ * (one UPDATE, re-read and retried on conflict). Reports applied updates per second and conflicts,
+ * and checks through the version column that no applied update was lost.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class UpdateContentionBenchmark {
+    private static final int WRITERS = Integer.getInteger("contentionbench.writers", 32);
+    private static final int TASKS = Integer.getInteger("contentionbench.tasks", 8);
+    private static final int UPDATES = Integer.getInteger("contentionbench.updates", 5_000);
+
+    @TestConfiguration
+    static class StubLlmConfig {
+        @Bean
+        @Primary
+        ChatModel stubChatModel() {
+            return new StubChatModel(Duration.ZERO);
+        }
+    }
+
+    private interface Writer {
+        /** Applies one update to the task, returning how many attempts conflicted first. */
+        long update(long taskId, int n);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void singleStatementUpdatesShouldOutperformReadModifyWrite() throws Exception {
+        Writer readModifyWrite = (taskId, n) -> retryOnConflict(() -> transactionTemplate.executeWithoutResult(status -> {
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            taskRepository.save(task.update("Read-modify-write " + n, null, null, null));
+        }));
+        Writer atomic = (taskId, n) -> {
+            taskService.updateTask(taskId, Task.createNew("Atomic " + n));
+            return 0;
+        };
+        Writer conditional = (taskId, n) -> retryOnConflict(() -> {
+            Long version = taskRepository.findById(taskId).orElseThrow().version();
+            taskService.updateTask(taskId, Task.fromRow(null, "Conditional " + n, false, null, null, null,
+                null, null, null, null, version));
+        });
+
+        // Warm up every path before measuring
+        for (Writer writer : List.of(readModifyWrite, atomic, conditional)) {
+            run(writer, UPDATES / 10);
+        }
+
+        System.out.printf("%n%,d updates from %d writers on %d tasks%n", UPDATES, WRITERS, TASKS);
+        double readModifyWriteRate = report("read-modify-write (save)", readModifyWrite);
+        double atomicRate = report("single UPDATE", atomic);
+        report("single UPDATE with version", conditional);
+
+        assertTrue(atomicRate > readModifyWriteRate, "Single-statement updates should beat read-modify-write");
+    }
+
+    private double report(String name, Writer writer) throws Exception {
+        List<Long> ids = taskService.createTasks(tasks());
+        long versionsBefore = sumVersions(ids);
+        long start = System.nanoTime();
+        long conflicts = run(writer, UPDATES, ids);
+        long nanos = System.nanoTime() - start;
+
+        // Every applied update bumps the version exactly once, so lost updates would show as a shortfall
+        assertEquals(UPDATES, sumVersions(ids) - versionsBefore, name + " lost updates");
+        double rate = UPDATES / (nanos / 1e9);
+        System.out.printf("  %-30s %10.0f ms %12.0f updates/s %10d conflicts%n", name, nanos / 1e6, rate, conflicts);
+        return rate;
+    }
+
+    private long run(Writer writer, int updates) throws Exception {
+        return run(writer, updates, taskService.createTasks(tasks()));
+    }
+
+    private static long run(Writer writer, int updates, List<Long> ids) throws Exception {
+        AtomicLong next = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(pool.submit(() -> {
+                    for (long n = next.getAndIncrement(); n < updates; n = next.getAndIncrement()) {
+                        conflicts.addAndGet(writer.update(ids.get((int) (n % ids.size())), (int) n));
+                    }
+                }));
+            }
+            for (Future<?> future : writers) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return conflicts.get();
+    }
+
+    private static long retryOnConflict(Runnable update) {
+        for (long conflicts = 0; ; conflicts++) {
+            try {
+                update.run();
+                return conflicts;
+            } catch (OptimisticLockingFailureException e) {
+                // Another writer got there first: read again and retry
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof OptimisticLockingFailureException)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static List<NewTask> tasks() {
+        List<NewTask> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new NewTask(null, "Contended task " + i, null, "MEDIUM", null, null, null, null));
+        }
+        return tasks;
+    }
+
+    private long sumVersions(List<Long> ids) {
+        return jdbcTemplate.queryForObject("SELECT SUM(version) FROM tasks WHERE id BETWEEN ? AND ?",
+            Long.class, ids.get(0), ids.get(ids.size() - 1));
+    }
+}
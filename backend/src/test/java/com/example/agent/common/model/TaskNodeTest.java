@@ -0,0 +1,98 @@
+package com.example.agent.common.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskNodeTest {
+
+    private static Task task(long id, Long parentId) {
+        return new Task(id, "Task " + id, false, LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id),
+            null, null, null, null, parentId, null, null);
+    }
+
+    @Test
+    void assemble_ShouldNestChildrenUnderTheirParentsInOrder() {
+        // Setup
+        List<Task> tasks = List.of(task(1, null), task(2, 1L), task(3, 1L), task(4, 2L));
+
+        // Execute
+        List<TaskNode> forest = TaskNode.assemble(tasks);
+
+        // Verify
+        assertEquals(1, forest.size());
+        TaskNode root = forest.get(0);
+        assertEquals(1L, root.task().id());
+        assertEquals(List.of(2L, 3L), root.children().stream().map(child -> child.task().id()).toList());
+        assertEquals(4L, root.children().get(0).children().get(0).task().id());
+        assertTrue(root.children().get(1).children().isEmpty());
+    }
+
+    @Test
+    void assemble_WithSubtreeRoot_ShouldTreatTaskWithUnlistedParentAsRoot() {
+        // Setup
+        List<Task> tasks = List.of(task(5, 1L), task(6, 5L), task(7, null));
+
+        // Execute
+        List<TaskNode> forest = TaskNode.assemble(tasks);
+
+        // Verify
+        assertEquals(List.of(5L, 7L), forest.stream().map(node -> node.task().id()).toList());
+        assertEquals(6L, forest.get(0).children().get(0).task().id());
+    }
+
+    @Test
+    void assemble_WithCyclicParents_ShouldDropRepeatedTasks() {
+        // Setup
+        // 1 -> 2 -> 1 walked to a depth limit of 3 returns each task twice
+        List<Task> tasks = List.of(task(1, 2L), task(2, 1L), task(1, 2L), task(2, 1L));
+
+        // Execute
+        List<TaskNode> forest = TaskNode.assemble(tasks);
+
+        // Verify
+        assertEquals(1, forest.size());
+        TaskNode root = forest.get(0);
+        assertEquals(1L, root.task().id());
+        assertEquals(1, root.children().size());
+        assertTrue(root.children().get(0).children().isEmpty());
+    }
+
+    @Test
+    void assemble_WithTruncatedIds_ShouldMarkOnlyThoseTasks() {
+        // Setup
+        List<Task> tasks = List.of(task(1, null), task(2, 1L), task(3, 1L));
+
+        // Execute
+        TaskNode root = TaskNode.assemble(tasks, Set.of(3L)).get(0);
+
+        // Verify
+        assertFalse(root.truncated());
+        assertFalse(root.children().get(0).truncated());
+        assertTrue(root.children().get(1).truncated());
+    }
+
+    @Test
+    void serialize_ShouldInlineTaskFieldsNextToChildren() throws Exception {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        TaskNode node = TaskNode.assemble(List.of(task(1, null), task(2, 1L))).get(0);
+
+        // Execute
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(node));
+
+        // Verify
+        assertEquals(1, json.get("id").asLong());
+        assertEquals("Task 1", json.get("description").asText());
+        assertFalse(json.has("task"));
+        assertEquals(2, json.get("children").get(0).get("id").asLong());
+        assertEquals(0, json.get("children").get(0).get("children").size());
+        assertFalse(json.get("truncated").asBoolean());
+    }
+}
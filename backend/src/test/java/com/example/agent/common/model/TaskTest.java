@@ -0,0 +1,55 @@
+package com.example.agent.common.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskTest {
+
+    @Test
+    void constructor_WithPastDeadline_ShouldThrowException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> Task.createNewWithDetails(
+            "Task", LocalDateTime.now().minusDays(1), "HIGH", null, null, null));
+    }
+
+    @Test
+    void fromRow_WithPastDeadline_ShouldLoadStoredTask() {
+        // Setup
+        LocalDateTime deadline = LocalDateTime.now().minusDays(1);
+
+        // Execute
+        Task task = Task.fromRow(1L, "Overdue task", false, deadline.minusDays(7), null, deadline,
+            "HIGH", null, null, null, null);
+
+        // Verify
+        assertEquals(deadline, task.deadline());
+    }
+
+    @Test
+    void fromRow_ShouldRestoreValidationForLaterTasks() {
+        // Setup
+        Task.fromRow(1L, "Overdue task", false, LocalDateTime.now(), null, LocalDateTime.now().minusDays(1),
+            null, null, null, null, null);
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> Task.createNewWithDetails(
+            "Task", LocalDateTime.now().minusDays(1), null, null, null, null));
+    }
+
+    @Test
+    void markCompleted_WithPastDeadline_ShouldComplete() {
+        // Setup
+        Task overdue = Task.fromRow(1L, "Overdue task", false, LocalDateTime.now().minusDays(7), null,
+            LocalDateTime.now().minusDays(1), null, null, null, null, null);
+
+        // Execute
+        Task completed = overdue.markCompleted();
+
+        // Verify
+        assertTrue(completed.completed());
+        assertNotNull(completed.completedAt());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.agent.task.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCursorTest {
+
+    @Test
+    void decode_ShouldRoundTripEncodedCursor() {
+        // Setup
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000), 42L);
+
+        // Execute
+        TaskCursor decoded = TaskCursor.decode(cursor.encode());
+
+        // Verify
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_ShouldBeUrlSafe() {
+        // Setup
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        // Execute
+        String encoded = cursor.encode();
+
+        // Verify
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void compareTo_ShouldOrderByCreatedAtThenId() {
+        // Setup
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 1, 12, 0);
+        TaskCursor first = new TaskCursor(createdAt, 9L);
+        TaskCursor second = new TaskCursor(createdAt, 10L);
+        TaskCursor later = new TaskCursor(createdAt.plusNanos(1_000), 1L);
+
+        // Execute & Verify
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(later) < 0);
+        assertEquals(0, first.compareTo(new TaskCursor(createdAt, 9L)));
+    }
+
+    @Test
+    void decode_WithMalformedValue_ShouldThrowIllegalArgumentException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("!!!"));
+    }
+}
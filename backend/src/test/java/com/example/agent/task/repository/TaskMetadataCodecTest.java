@@ -0,0 +1,141 @@
+package com.example.agent.task.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGobject;
+import org.springframework.data.jdbc.core.mapping.JdbcValue;
+import org.springframework.data.relational.core.dialect.H2Dialect;
+import org.springframework.data.relational.core.dialect.PostgresDialect;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.JDBCType;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskMetadataCodecTest {
+
+    private static final Map<String, Object> METADATA = Map.of("tags", List.of("home", "urgent"), "owner", "sam");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void toColumn_OnPostgres_ShouldBindJsonbAndReadItBack() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, PostgresDialect.INSTANCE);
+
+        // Execute
+        PGobject column = (PGobject) codec.toColumn(METADATA);
+
+        // Verify
+        assertEquals("jsonb", column.getType());
+        assertEquals(METADATA, codec.fromColumn(column));
+        assertNull(codec.toColumn(null));
+    }
+
+    @Test
+    void toColumn_OnH2_ShouldBindJsonTextAsBytes() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, H2Dialect.INSTANCE);
+
+        // Execute
+        byte[] column = (byte[]) codec.toColumn(METADATA);
+
+        // Verify
+        assertTrue(new String(column, StandardCharsets.UTF_8).startsWith("{"));
+        assertEquals(METADATA, codec.fromColumn(column));
+    }
+
+    @Test
+    void converters_ShouldWriteMapsAsTypedJdbcValues() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, PostgresDialect.INSTANCE);
+        TaskMetadataCodec.MetadataWriter writer = codec.converters().stream()
+            .filter(TaskMetadataCodec.MetadataWriter.class::isInstance)
+            .map(TaskMetadataCodec.MetadataWriter.class::cast)
+            .findFirst().orElseThrow();
+
+        // Execute
+        JdbcValue value = writer.convert(METADATA);
+
+        // Verify
+        assertEquals(JDBCType.OTHER, value.getJdbcType());
+        assertInstanceOf(PGobject.class, value.getValue());
+    }
+
+    @Test
+    void converters_OnPostgres_ShouldReadPgObjectColumns() throws Exception {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, PostgresDialect.INSTANCE);
+        TaskMetadataCodec.PgObjectReader reader = codec.converters().stream()
+            .filter(TaskMetadataCodec.PgObjectReader.class::isInstance)
+            .map(TaskMetadataCodec.PgObjectReader.class::cast)
+            .findFirst().orElseThrow();
+        PGobject column = new PGobject();
+        column.setType("jsonb");
+        column.setValue("{\"owner\": \"sam\", \"tags\": [\"home\", \"urgent\"]}");
+
+        // Execute
+        Map<String, Object> metadata = reader.convert(column);
+
+        // Verify
+        assertEquals(METADATA, metadata);
+        assertTrue(codec.converters().stream().noneMatch(TaskMetadataCodec.BytesReader.class::isInstance));
+    }
+
+    @Test
+    void fromColumn_WithNullPgObject_ShouldReturnNull() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, PostgresDialect.INSTANCE);
+        PGobject column = new PGobject();
+        column.setType("jsonb");
+
+        // Execute & Verify
+        assertNull(codec.fromColumn(column));
+    }
+
+    @Test
+    void converters_OnH2_ShouldWriteVarbinaryAndReadBytes() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, H2Dialect.INSTANCE);
+        TaskMetadataCodec.MetadataWriter writer = codec.converters().stream()
+            .filter(TaskMetadataCodec.MetadataWriter.class::isInstance)
+            .map(TaskMetadataCodec.MetadataWriter.class::cast)
+            .findFirst().orElseThrow();
+
+        // Execute
+        JdbcValue value = writer.convert(METADATA);
+
+        // Verify
+        assertEquals(JDBCType.VARBINARY, value.getJdbcType());
+        assertTrue(codec.converters().stream().noneMatch(TaskMetadataCodec.PgObjectReader.class::isInstance));
+    }
+
+    @Test
+    void fromColumn_WithNonObjectJson_ShouldThrowIllegalStateException() {
+        // Setup
+        TaskMetadataCodec codec = new TaskMetadataCodec(objectMapper, H2Dialect.INSTANCE);
+
+        // Execute & Verify
+        assertThrows(IllegalStateException.class, () -> codec.fromColumn("\"not an object\"".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void contains_ShouldFollowJsonbContainment() {
+        Map<String, Object> document = Map.of("tags", List.of("home", "urgent"), "owner", "sam", "points", 3,
+            "address", Map.of("city", "Oslo", "zip", "0150"));
+
+        assertTrue(TaskMetadataCodec.contains(document, Map.of("tags", List.of("home"))));
+        assertTrue(TaskMetadataCodec.contains(document, Map.of("tags", List.of("urgent", "home"), "owner", "sam")));
+        assertTrue(TaskMetadataCodec.contains(document, Map.of("points", 3.0)));
+        assertTrue(TaskMetadataCodec.contains(document, Map.of("address", Map.of("city", "Oslo"))));
+        assertTrue(TaskMetadataCodec.contains(document, Map.of()));
+
+        assertFalse(TaskMetadataCodec.contains(document, Map.of("tags", List.of("work"))));
+        assertFalse(TaskMetadataCodec.contains(document, Map.of("tags", "home")));
+        assertFalse(TaskMetadataCodec.contains(document, Map.of("owner", "bob")));
+        assertFalse(TaskMetadataCodec.contains(document, Map.of("missing", "value")));
+        assertFalse(TaskMetadataCodec.contains(null, Map.of("owner", "sam")));
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.agent.task.repository;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.config.JdbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hand-written task queries against an in-memory H2 database in PostgreSQL mode, with the
+ * schema the application creates. Each test rolls back.
+ */
+@DataJdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({JdbcConfig.class, TaskMetadataCodec.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tasks;MODE=PostgreSQL;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.sql.init.platform=h2"
+})
+class TaskQueryRepositoryImplTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Task save(String description, LocalDateTime createdAt, boolean completed, String priority) {
+        return taskRepository.save(Task.fromRow(null, description, completed, createdAt,
+            completed ? createdAt.plusHours(1) : null, null, priority, null, null, null, null));
+    }
+
+    /** Seven tasks; the middle three share a created_at, so page boundaries fall among ties. */
+    private List<Task> seedWithTies() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(save("Task 1", START, false, "HIGH"));
+        tasks.add(save("Task 2", START.plusMinutes(1), true, "LOW"));
+        tasks.add(save("Task 3", START.plusMinutes(2), false, "HIGH"));
+        tasks.add(save("Task 4", START.plusMinutes(2), false, null));
+        tasks.add(save("Task 5", START.plusMinutes(2), true, "HIGH"));
+        tasks.add(save("Task 6", START.plusMinutes(3), false, "LOW"));
+        tasks.add(save("Task 7", START.plusMinutes(4), false, "HIGH"));
+        return tasks;
+    }
+
+    private Task withMetadata(String description, LocalDateTime createdAt, Map<String, Object> metadata) {
+        return taskRepository.save(Task.fromRow(null, description, false, createdAt, null, null, null, null,
+            null, metadata, null));
+    }
+
+    private Task subtask(String description, LocalDateTime createdAt, Task parent) {
+        return taskRepository.save(Task.fromRow(null, description, false, createdAt, null, null, null, null,
+            parent.id(), null, null));
+    }
+
+    /** Project -> (Design -> Mockups -> Review, Build); Build is created after Design. */
+    private List<Task> seedProject() {
+        Task project = save("Project", START, false, null);
+        Task design = subtask("Design", START.plusMinutes(1), project);
+        Task build = subtask("Build", START.plusMinutes(2), project);
+        Task mockups = subtask("Mockups", START.plusMinutes(3), design);
+        Task review = subtask("Review", START.plusMinutes(4), mockups);
+        return List.of(project, design, build, mockups, review);
+    }
+
+    private static List<Long> nodeIds(List<TaskNode> nodes) {
+        return nodes.stream().map(node -> node.task().id()).toList();
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::id).toList();
+    }
+
+    private static List<Long> keysetOrder(List<Task> tasks) {
+        return tasks.stream()
+            .sorted(Comparator.comparing(Task::createdAt).thenComparing(Task::id))
+            .map(Task::id)
+            .toList();
+    }
+
+    @Test
+    void findPage_ShouldWalkEveryTaskOnceInKeysetOrder() {
+        // Setup
+        List<Task> tasks = seedWithTies();
+
+        // Execute
+        List<TaskPage> pages = new ArrayList<>();
+        TaskCursor cursor = null;
+        do {
+            TaskPage page = taskRepository.findPage(TaskFilter.ALL, cursor, 3);
+            pages.add(page);
+            cursor = page.nextCursor();
+        } while (cursor != null && pages.size() < 10);
+
+        // Verify
+        assertEquals(List.of(3, 3, 1), pages.stream().map(page -> page.tasks().size()).toList());
+        assertEquals(keysetOrder(tasks), pages.stream().flatMap(page -> page.tasks().stream()).map(Task::id).toList());
+        // The first boundary falls between two of the tied tasks
+        assertEquals(TaskCursor.after(tasks.get(2)), pages.get(0).nextCursor());
+        assertEquals(ids(tasks.subList(3, 6)), ids(pages.get(1).tasks()));
+    }
+
+    @Test
+    void findPage_WithEncodedCursor_ShouldResumeAfterTheLastTask() {
+        // Setup
+        List<Task> tasks = seedWithTies();
+        TaskPage first = taskRepository.findPage(TaskFilter.ALL, null, 4);
+
+        // Execute
+        TaskCursor decoded = TaskCursor.decode(first.nextCursor().encode());
+        TaskPage second = taskRepository.findPage(TaskFilter.ALL, decoded, 4);
+
+        // Verify
+        assertEquals(first.nextCursor(), decoded);
+        assertEquals(ids(tasks.subList(0, 4)), ids(first.tasks()));
+        assertEquals(ids(tasks.subList(4, 7)), ids(second.tasks()));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findPage_WithExactlyFullLastPage_ShouldReturnNoCursor() {
+        // Setup
+        List<Task> tasks = seedWithTies();
+        taskRepository.delete(tasks.get(6));
+
+        // Execute
+        TaskPage first = taskRepository.findPage(TaskFilter.ALL, null, 3);
+        TaskPage second = taskRepository.findPage(TaskFilter.ALL, first.nextCursor(), 3);
+
+        // Verify
+        assertNotNull(first.nextCursor());
+        assertEquals(ids(tasks.subList(3, 6)), ids(second.tasks()));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findPage_WithFilter_ShouldPageOnlyMatchingTasks() {
+        // Setup
+        List<Task> tasks = seedWithTies();
+        TaskFilter activeHigh = new TaskFilter(false, null, false, "HIGH", false);
+
+        // Execute
+        TaskPage first = taskRepository.findPage(activeHigh, null, 2);
+        TaskPage second = taskRepository.findPage(activeHigh, first.nextCursor(), 2);
+
+        // Verify
+        assertEquals(List.of(tasks.get(0).id(), tasks.get(2).id()), ids(first.tasks()));
+        assertEquals(List.of(tasks.get(6).id()), ids(second.tasks()));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findByMetadata_ShouldPageOnlyTasksContainingTheFragment() {
+        // Setup
+        Task groceries = withMetadata("Groceries", START, Map.of("tags", List.of("home", "errands"), "owner", "sam"));
+        withMetadata("Report", START.plusMinutes(1), Map.of("tags", List.of("work"), "owner", "sam"));
+        save("Call plumber", START.plusMinutes(2), false, null);
+        Task laundry = withMetadata("Laundry", START.plusMinutes(3), Map.of("tags", List.of("home")));
+        Task garden = withMetadata("Garden", START.plusMinutes(3), Map.of("tags", List.of("home"), "points", 3));
+
+        // Execute
+        TaskPage first = taskRepository.findByMetadata(Map.of("tags", List.of("home")), null, 2);
+        TaskPage second = taskRepository.findByMetadata(Map.of("tags", List.of("home")), first.nextCursor(), 2);
+
+        // Verify
+        assertEquals(List.of(groceries.id(), laundry.id()), ids(first.tasks()));
+        assertEquals(TaskCursor.after(laundry), first.nextCursor());
+        assertEquals(List.of(garden.id()), ids(second.tasks()));
+        assertNull(second.nextCursor());
+        assertEquals(Map.of("tags", List.of("home"), "points", 3), second.tasks().get(0).metadata());
+        assertEquals(List.of(groceries.id()), ids(taskRepository.findByMetadata(
+            Map.of("tags", List.of("errands", "home"), "owner", "sam"), null, 10).tasks()));
+        assertEquals(List.of(), taskRepository.findByMetadata(Map.of("owner", "bob"), null, 10).tasks());
+    }
+
+    @Test
+    void streamAll_ShouldReturnEveryMatchingTaskAfterTheCursor() {
+        // Setup
+        List<Task> tasks = seedWithTies();
+
+        // Execute
+        List<Task> streamed;
+        try (Stream<Task> stream = taskRepository.streamAll(TaskFilter.active(), TaskCursor.after(tasks.get(2)))) {
+            streamed = stream.toList();
+        }
+
+        // Verify
+        assertEquals(List.of(tasks.get(3).id(), tasks.get(5).id(), tasks.get(6).id()), ids(streamed));
+    }
+
+    @Test
+    void countTasks_ShouldCountByPriorityAndStateWithOverdueTasks() {
+        // Setup
+        seedWithTies();
+        taskRepository.save(Task.fromRow(null, "Late", false, START, null, START.plusDays(1), "HIGH",
+            null, null, null, null));
+
+        // Execute
+        List<TaskCount> counts = taskRepository.countTasks(START.plusDays(2));
+
+        // Verify
+        assertEquals(List.of(
+                new TaskCount(null, false, 1, 0),
+                new TaskCount("HIGH", false, 4, 1),
+                new TaskCount("HIGH", true, 1, 0),
+                new TaskCount("LOW", false, 1, 0),
+                new TaskCount("LOW", true, 1, 0)),
+            counts.stream()
+                .sorted(Comparator.comparing(TaskCount::priority, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(TaskCount::completed))
+                .toList());
+    }
+
+    @Test
+    void findTree_ShouldNestEveryLevelInCreationOrder() {
+        // Setup
+        List<Task> tasks = seedProject();
+
+        // Execute
+        TaskNode project = taskRepository.findTree(tasks.get(0).id(), 32).orElseThrow();
+
+        // Verify
+        assertEquals(List.of(tasks.get(1).id(), tasks.get(2).id()), nodeIds(project.children()));
+        TaskNode mockups = project.children().get(0).children().get(0);
+        assertEquals(tasks.get(3).id(), mockups.task().id());
+        assertEquals(List.of(tasks.get(4).id()), nodeIds(mockups.children()));
+        assertFalse(project.truncated() || mockups.truncated() || mockups.children().get(0).truncated());
+    }
+
+    @Test
+    void findTree_AtDepthLimit_ShouldMarkOnlyTasksWithUnloadedSubtasks() {
+        // Setup
+        List<Task> tasks = seedProject();
+
+        // Execute
+        TaskNode project = taskRepository.findTree(tasks.get(0).id(), 1).orElseThrow();
+
+        // Verify
+        TaskNode design = project.children().get(0);
+        TaskNode build = project.children().get(1);
+        assertFalse(project.truncated());
+        assertTrue(design.truncated());
+        assertTrue(design.children().isEmpty());
+        assertFalse(build.truncated());
+    }
+
+    @Test
+    void findTree_OfSubtask_ShouldRootTheTreeAtIt() {
+        // Setup
+        List<Task> tasks = seedProject();
+
+        // Execute
+        Optional<TaskNode> design = taskRepository.findTree(tasks.get(1).id(), 32);
+        Optional<TaskNode> missing = taskRepository.findTree(-1L, 32);
+
+        // Verify
+        assertEquals(tasks.get(0).id(), design.orElseThrow().task().parentId());
+        assertEquals(List.of(tasks.get(3).id()), nodeIds(design.get().children()));
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void findTree_WithCyclicParents_ShouldStopAtDepthLimitAndKeepEachTaskOnce() {
+        // Setup
+        Task first = save("First", START, false, null);
+        Task second = subtask("Second", START.plusMinutes(1), first);
+        jdbcTemplate.update("UPDATE tasks SET parent_id = ? WHERE id = ?", second.id(), first.id());
+
+        // Execute
+        TaskNode tree = taskRepository.findTree(first.id(), 5).orElseThrow();
+
+        // Verify
+        assertEquals(List.of(second.id()), nodeIds(tree.children()));
+        assertTrue(tree.children().get(0).children().isEmpty());
+        assertFalse(tree.children().get(0).truncated());
+    }
+
+    @Test
+    void findForest_ShouldPageRootTasksWithTheirSubtrees() {
+        // Setup
+        List<Task> project = seedProject();
+        Task errands = save("Errands", START.plusMinutes(5), false, null);
+        Task groceries = subtask("Groceries", START.plusMinutes(6), errands);
+        Task reading = save("Reading", START.plusMinutes(7), false, null);
+
+        // Execute
+        TaskForest first = taskRepository.findForest(null, 2, 32);
+        TaskForest second = taskRepository.findForest(TaskCursor.decode(first.nextCursor().encode()), 2, 32);
+
+        // Verify
+        assertEquals(List.of(project.get(0).id(), errands.id()), nodeIds(first.roots()));
+        assertEquals(List.of(project.get(1).id(), project.get(2).id()), nodeIds(first.roots().get(0).children()));
+        assertEquals(List.of(groceries.id()), nodeIds(first.roots().get(1).children()));
+        assertEquals(List.of(reading.id()), nodeIds(second.roots()));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findForest_AtDepthZero_ShouldReturnRootsMarkedWhereSubtasksExist() {
+        // Setup
+        List<Task> project = seedProject();
+        Task reading = save("Reading", START.plusMinutes(7), false, null);
+
+        // Execute
+        TaskForest forest = taskRepository.findForest(null, 10, 0);
+
+        // Verify
+        assertEquals(List.of(project.get(0).id(), reading.id()), nodeIds(forest.roots()));
+        assertTrue(forest.roots().get(0).truncated());
+        assertTrue(forest.roots().get(0).children().isEmpty());
+        assertFalse(forest.roots().get(1).truncated());
+    }
+
+    @Test
+    void findActiveTaskDeadlines_ShouldReturnOnlyIncompleteTasksWithDeadlines() {
+        // Setup
+        Task due = taskRepository.save(Task.fromRow(null, "Due", false, START, null, START.plusDays(1), null,
+            null, null, null, null));
+        taskRepository.save(Task.fromRow(null, "Done", true, START, START, START.plusDays(1), null,
+            null, null, null, null));
+        save("No deadline", START, false, null);
+
+        // Execute
+        List<TaskDeadline> deadlines = taskRepository.findActiveTaskDeadlines();
+
+        // Verify
+        assertEquals(List.of(new TaskDeadline(due.id(), START, START.plusDays(1))), deadlines);
+    }
+}
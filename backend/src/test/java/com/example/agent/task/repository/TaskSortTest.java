@@ -0,0 +1,25 @@
+package com.example.agent.task.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSortTest {
+
+    @Test
+    void parse_ShouldReadFieldAndDirection() {
+        // Execute & Verify
+        assertEquals(TaskSort.CREATED, TaskSort.parse(null));
+        assertEquals(TaskSort.CREATED, TaskSort.parse("created"));
+        assertEquals(TaskSort.CREATED_DESC, TaskSort.parse("-created"));
+        assertEquals(TaskSort.DEADLINE, TaskSort.parse("Deadline"));
+        assertEquals(TaskSort.DEADLINE_DESC, TaskSort.parse(" -deadline "));
+    }
+
+    @Test
+    void parse_WithUnknownField_ShouldThrowIllegalArgumentException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> TaskSort.parse("priority"));
+        assertThrows(IllegalArgumentException.class, () -> TaskSort.parse("+created"));
+    }
+}
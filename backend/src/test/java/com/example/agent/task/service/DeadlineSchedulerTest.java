@@ -0,0 +1,238 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskDeadline;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.event.TaskEventBus;
+import com.example.agent.task.service.event.TaskEventHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final MutableClock clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+    private final TaskEventHub hub = new TaskEventHub(task -> {}, 16, 32, Duration.ofSeconds(15), Duration.ofMinutes(30),
+        new SimpleMeterRegistry());
+    private final List<TaskEvent> published = new ArrayList<>();
+    private boolean publisher = true;
+    private Runnable publisherAcquired;
+    private DeadlineScheduler deadlineScheduler;
+
+    @BeforeEach
+    void setUp() {
+        TaskEventBus taskEventBus = new TaskEventBus() {
+            @Override
+            public void publish(List<TaskEvent> events) {
+                published.addAll(events);
+            }
+
+            @Override
+            public boolean isPublisher() {
+                return publisher;
+            }
+
+            @Override
+            public void onPublisherAcquired(Runnable callback) {
+                publisherAcquired = callback;
+            }
+        };
+        deadlineScheduler = new DeadlineScheduler(taskRepository, hub, taskEventBus, taskScheduler, clock);
+    }
+
+    @Test
+    void overduePage_ShouldLoadOnceAndPageInListingOrder() {
+        // Setup
+        Task late = task(1, START.minusHours(1));
+        Task later = task(2, START.minusHours(2));
+        Task lateToo = task(3, START.minusMinutes(5));
+        stored(late, later, lateToo, task(4, START.plusHours(1)));
+        scheduleReturnsFuture();
+
+        // Execute
+        TaskPage first = deadlineScheduler.overduePage(null, 2);
+        TaskPage second = deadlineScheduler.overduePage(first.nextCursor(), 2);
+
+        // Verify
+        assertEquals(List.of(late, later), first.tasks());
+        assertEquals(List.of(lateToo), second.tasks());
+        assertNull(second.nextCursor());
+        verify(taskRepository, times(1)).findActiveTaskDeadlines();
+    }
+
+    @Test
+    void fire_WhenDeadlinePasses_ShouldPublishOverdueEventOnce() {
+        // Setup
+        Task dueSoon = task(1, START.plusMinutes(2));
+        stored(task(2, START.minusDays(1)), dueSoon);
+        scheduleReturnsFuture();
+        deadlineScheduler.reload();
+
+        // Execute
+        clock.advance(Duration.ofMinutes(3));
+        deadlineScheduler.fire();
+        deadlineScheduler.fire();
+
+        // Verify
+        ArgumentCaptor<Instant> wakeUp = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler).schedule(any(Runnable.class), wakeUp.capture());
+        assertEquals(START.plusMinutes(2).plusNanos(1_000_000).toInstant(ZoneOffset.UTC), wakeUp.getValue());
+        assertEquals(List.of(TaskEvent.of(TaskEvent.Type.OVERDUE, dueSoon)), published);
+        assertEquals(2, overdueTasks().size());
+    }
+
+    @Test
+    void fire_OnNodeThatIsNotPublisher_ShouldOnlyTrackOverdueTasks() {
+        // Setup
+        publisher = false;
+        Task dueSoon = task(1, START.plusMinutes(2));
+        stored(dueSoon);
+        scheduleReturnsFuture();
+        deadlineScheduler.reload();
+
+        // Execute
+        clock.advance(Duration.ofMinutes(3));
+        deadlineScheduler.fire();
+
+        // Verify
+        assertTrue(published.isEmpty());
+        assertEquals(List.of(dueSoon), overdueTasks());
+    }
+
+    @Test
+    void publisherAcquired_ShouldAnnounceWhatFellDueSinceTheLastAnnouncementHeard() {
+        // Setup: the previous publisher announced the first task, then stopped before the second
+        publisher = false;
+        Task heard = task(1, START.plusMinutes(2));
+        Task missed = task(2, START.plusMinutes(4));
+        stored(heard, missed);
+        scheduleReturnsFuture();
+        deadlineScheduler.reload();
+        clock.advance(Duration.ofMinutes(3));
+        deadlineScheduler.fire();
+        hub.broadcast(TaskEvent.of(TaskEvent.Type.OVERDUE, heard));
+        clock.advance(Duration.ofMinutes(2));
+        deadlineScheduler.fire();
+
+        // Execute
+        publisher = true;
+        publisherAcquired.run();
+        ArgumentCaptor<Runnable> scheduled = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, atLeastOnce()).schedule(scheduled.capture(), any(Instant.class));
+        scheduled.getValue().run();
+
+        // Verify
+        assertEquals(List.of(TaskEvent.of(TaskEvent.Type.OVERDUE, missed)), published);
+        deadlineScheduler.fire();
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    void overduePage_WithTaskCompletedSinceItWasTracked_ShouldLeaveItOut() {
+        // Setup
+        Task overdue = task(1, START.minusHours(1));
+        Task completed = task(2, START.minusHours(1));
+        when(taskRepository.findActiveTaskDeadlines()).thenReturn(List.of(TaskDeadline.of(overdue), TaskDeadline.of(completed)));
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(overdue, completed.markCompleted()));
+
+        // Execute
+        List<Task> tasks = overdueTasks();
+
+        // Verify
+        assertEquals(List.of(overdue), tasks);
+    }
+
+    @Test
+    void overduePage_AfterDeadlinesPassAndMove_ShouldListTasksOverdueNow() {
+        // Setup
+        Task dueSoon = task(1, START.plusMinutes(2));
+        Task overdue = task(2, START.minusHours(1));
+        Task postponed = task(3, START.minusHours(2));
+        stored(dueSoon, overdue, postponed);
+        scheduleReturnsFuture();
+        assertEquals(List.of(overdue, postponed), overdueTasks());
+
+        // Execute
+        hub.broadcast(TaskEvent.of(TaskEvent.Type.UPDATED, task(3, START.plusDays(1))));
+        clock.advance(Duration.ofMinutes(3));
+
+        // Verify
+        assertEquals(List.of(dueSoon, overdue), overdueTasks());
+        TaskPage page = deadlineScheduler.overduePage(TaskCursor.after(dueSoon), 1);
+        assertEquals(List.of(overdue), page.tasks());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void broadcast_CompletedTask_ShouldStopTrackingIt() {
+        // Setup
+        Task overdue = task(1, START.minusHours(1));
+        stored(overdue);
+        deadlineScheduler.reload();
+
+        // Execute
+        hub.broadcast(TaskEvent.of(TaskEvent.Type.COMPLETED, overdue.markCompleted()));
+
+        // Verify
+        assertTrue(overdueTasks().isEmpty());
+    }
+
+    /** The table's rows: their deadlines load on reload, and the rows themselves by id. */
+    private void stored(Task... tasks) {
+        when(taskRepository.findActiveTaskDeadlines()).thenReturn(List.of(tasks).stream().map(TaskDeadline::of).toList());
+        lenient().when(taskRepository.findAllById(any())).thenAnswer(invocation -> {
+            Set<Long> ids = Set.copyOf(StreamSupport.stream(invocation.<Iterable<Long>>getArgument(0).spliterator(), false).toList());
+            return List.of(tasks).stream().filter(task -> ids.contains(task.id())).toList();
+        });
+    }
+
+    private List<Task> overdueTasks() {
+        return deadlineScheduler.overduePage(null, 100).tasks();
+    }
+
+    private void scheduleReturnsFuture() {
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+            .thenAnswer(invocation -> mock(ScheduledFuture.class));
+    }
+
+    private static Task task(long id, LocalDateTime deadline) {
+        return Task.fromRow(id, "Task " + id, false, START.minusDays(2).plusMinutes(id), null, deadline,
+            null, null, null, null, 0L);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCacheTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private int invalidateAllAbove = 100;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskCache taskCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskCache = cache(100, 1_000_000, Set.of());
+    }
+
+    @Test
+    void getPage_RepeatedRequest_LoadsOnceAndCountsHitPerFinder() {
+        // Setup
+        TaskPage page = new TaskPage(List.of(task(1, null, "HIGH")), null);
+
+        // Execute
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(page));
+        TaskPage cached = taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(page));
+
+        // Verify
+        assertEquals(page, cached);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, requests("priority", "hit"));
+        assertEquals(1.0, requests("priority", "miss"));
+    }
+
+    @Test
+    void getPage_WithDisabledFinder_AlwaysLoads() {
+        // Setup
+        taskCache = cache(100, 1_000_000, Set.of(TaskCache.Finder.ROOT));
+
+        // Execute
+        taskCache.getPage(TaskFilter.root(), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.root(), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.active(), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.active(), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getPage_WithZeroMaximumEntries_AlwaysLoads() {
+        // Setup
+        taskCache = cache(0, 1_000_000, Set.of());
+
+        // Execute
+        taskCache.getPage(TaskFilter.ALL, null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.ALL, null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_WithTaskOnPage_DropsOnlyPagesListingIt() {
+        // Setup
+        Task listed = task(1, null, "HIGH");
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(new TaskPage(List.of(listed), null)));
+        taskCache.getPage(TaskFilter.withPriority("LOW"), null, 100, loader(new TaskPage(List.of(task(2, null, "LOW")), null)));
+
+        // Execute: the task moves to MEDIUM, leaving the HIGH listing without joining the LOW one
+        taskCache.evict(List.of(listed.update(null, null, "MEDIUM", null)));
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.withPriority("LOW"), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evict_WithNewTask_DropsOnlyPagesCoveringItsPosition() {
+        // Setup: two full pages of root tasks and the last, partial page
+        Task first = task(1, null, null);
+        Task second = task(2, null, null);
+        Task third = task(3, null, null);
+        TaskCursor afterFirst = TaskCursor.after(first);
+        TaskCursor afterSecond = TaskCursor.after(second);
+        taskCache.getPage(TaskFilter.root(), null, 1, loader(new TaskPage(List.of(first), afterFirst)));
+        taskCache.getPage(TaskFilter.root(), afterFirst, 1, loader(new TaskPage(List.of(second), afterSecond)));
+        taskCache.getPage(TaskFilter.root(), afterSecond, 1, loader(new TaskPage(List.of(third), null)));
+        taskCache.getPage(TaskFilter.subtasksOf(1L), null, 1, loader(new TaskPage(List.of(), null)));
+
+        // Execute: a new root task sorts after every cached one
+        taskCache.evict(List.of(task(4, null, null)));
+        taskCache.getPage(TaskFilter.root(), null, 1, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.root(), afterFirst, 1, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.root(), afterSecond, 1, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.subtasksOf(1L), null, 1, loader(new TaskPage(List.of(), null)));
+
+        // Verify: only the partial last page was reloaded
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evict_AfterPageReloadedWithoutTask_KeepsThePage() {
+        // Setup
+        Task listed = task(1, null, "HIGH");
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(new TaskPage(List.of(listed), null)));
+        Task lowered = listed.update(null, null, "LOW", null);
+        taskCache.evict(List.of(lowered));
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Execute: the reloaded HIGH page no longer lists the task, which changes again
+        taskCache.evict(List.of(lowered.update(null, null, "MEDIUM", null)));
+        taskCache.getPage(TaskFilter.withPriority("HIGH"), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_AboveInvalidateAllThreshold_DropsEveryPage() {
+        // Setup
+        invalidateAllAbove = 2;
+        taskCache = cache(100, 1_000_000, Set.of());
+        taskCache.getPage(TaskFilter.subtasksOf(9L), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.withPriority("LOW"), null, 100, loader(new TaskPage(List.of(task(2, null, "LOW")), null)));
+
+        // Execute: none of the changed tasks is on or joins either page
+        taskCache.evict(List.of(task(3, 8L, "HIGH"), task(4, 8L, "HIGH")));
+        taskCache.getPage(TaskFilter.subtasksOf(9L), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.evict(List.of(task(3, 8L, "HIGH"), task(4, 8L, "HIGH"), task(5, 8L, "HIGH")));
+        taskCache.getPage(TaskFilter.subtasksOf(9L), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.withPriority("LOW"), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getPage_OverdueListing_ExpiresBeforeOtherFinders() {
+        // Setup
+        taskCache.getPage(TaskFilter.overdueTasks(), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.active(), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Execute
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        taskCache.getPage(TaskFilter.overdueTasks(), null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.getPage(TaskFilter.active(), null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getPage_BeyondMaximumEntries_EvictsEntries() {
+        // Setup
+        taskCache = cache(2, 1_000_000, Set.of());
+
+        // Execute
+        for (long parentId = 1; parentId <= 5; parentId++) {
+            taskCache.getPage(TaskFilter.subtasksOf(parentId), null, 100, loader(new TaskPage(List.of(), null)));
+        }
+        taskCache.cleanUp();
+
+        // Verify
+        assertTrue(meterRegistry.get("cache.size").tag("cache", "taskFinders").gauge().value() <= 2);
+    }
+
+    @Test
+    void getPage_BeyondMaximumSize_EvictsEntries() {
+        // Setup: room for a couple of small pages, but not for one large page
+        taskCache = cache(100, 2_048, Set.of());
+        List<Task> large = LongStream.rangeClosed(1, 20).mapToObj(id -> task(id, null, null)).toList();
+
+        // Execute
+        taskCache.getPage(TaskFilter.ALL, null, 100, loader(new TaskPage(large, null)));
+        taskCache.cleanUp();
+        taskCache.getPage(TaskFilter.ALL, null, 100, loader(new TaskPage(large, null)));
+
+        // Verify
+        assertTrue(TaskCache.weigh(new TaskPage(large, null)) > 2_048);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_WithFilteredListing_DropsItOnlyForMatchingTasks() {
+        // Setup
+        TaskFilter groceries = new TaskFilter(null, null, false, null, false,
+            CREATED_AT, CREATED_AT.plusDays(7), "groceries");
+        taskCache.getPage(groceries, null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Execute: the first task is due too late, the second matches text and deadline
+        taskCache.evict(List.of(Task.fromRow(5L, "Buy groceries", false, CREATED_AT, null,
+            CREATED_AT.plusDays(8), null, null, null, null, null)));
+        taskCache.getPage(groceries, null, 100, loader(new TaskPage(List.of(), null)));
+        taskCache.evict(List.of(Task.fromRow(6L, "Buy GROCERIES", false, CREATED_AT, null,
+            CREATED_AT.plusDays(1), null, null, null, null, null)));
+        taskCache.getPage(groceries, null, 100, loader(new TaskPage(List.of(), null)));
+
+        // Verify
+        assertEquals(2, loads.get());
+        assertEquals(1.0, requests("search", "hit"));
+    }
+
+    @Test
+    void finderNamed_WithUnknownName_ShouldThrowException() {
+        // Execute & Verify
+        assertEquals(TaskCache.Finder.OVERDUE, TaskCache.Finder.named(" overdue "));
+        assertThrows(IllegalArgumentException.class, () -> TaskCache.Finder.named("recent"));
+    }
+
+    private TaskCache cache(long maximumEntries, long maximumBytes, Set<TaskCache.Finder> disabledFinders) {
+        return new TaskCache(maximumEntries, maximumBytes, Duration.ofMinutes(5), Duration.ofSeconds(30), invalidateAllAbove,
+            disabledFinders, meterRegistry, nanos::get);
+    }
+
+    private Supplier<TaskPage> loader(TaskPage page) {
+        return () -> {
+            loads.incrementAndGet();
+            return page;
+        };
+    }
+
+    private double requests(String finder, String result) {
+        return meterRegistry.get("agent.task_cache.requests").tag("finder", finder).tag("result", result).counter().count();
+    }
+
+    private static Task task(long id, Long parentId, String priority) {
+        return Task.fromRow(id, "Task " + id, false, CREATED_AT.plusMinutes(id), null, null, priority, null, parentId, null, null);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.NewTask;
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.config.JdbcConfig;
+import com.example.agent.task.repository.TaskMetadataCodec;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.service.event.TaskEventBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs TaskService's writes through the real repository on an in-memory H2 database in PostgreSQL
+ * mode. The cache, counters, deadline scheduler and event bus are mocked. Tests roll back unless
+ * they need concurrent transactions, in which case they remove their own rows.
+ */
+@DataJdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({JdbcConfig.class, TaskMetadataCodec.class, TaskService.class})
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:task-service;MODE=PostgreSQL;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.sql.init.platform=h2"
+})
+class TaskServiceIntegrationTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private TaskCache taskCache;
+
+    @MockitoBean
+    private TaskStatistics taskStatistics;
+
+    @MockitoBean
+    private DeadlineScheduler deadlineScheduler;
+
+    @MockitoBean
+    private TaskEventBus taskEventBus;
+
+    private Task saveRoot(String description) {
+        return taskRepository.save(Task.fromRow(null, description, false, START, null, null, null, null,
+            null, null, null));
+    }
+
+    @Test
+    void createTasks_ShouldInsertBatchTreeAndReadItBack() {
+        // Setup
+        Task existing = saveRoot("Travel");
+        List<NewTask> batch = List.of(
+            new NewTask("trip", "Plan trip", null, "HIGH", null, null, null, Map.of("tags", List.of("travel"))),
+            new NewTask("flights", "Book flights", null, null, "Window seat", null, "trip", null),
+            new NewTask(null, "Pick seats", null, null, null, null, "flights", null),
+            new NewTask(null, "Renew passport", null, "LOW", null, existing.id(), null, null)
+        );
+
+        // Execute
+        List<Long> ids = taskService.createTasks(batch);
+
+        // Verify
+        assertEquals(4, Set.copyOf(ids).size());
+        TaskNode trip = taskRepository.findTree(ids.get(0), 32).orElseThrow();
+        assertEquals("HIGH", trip.task().priority());
+        assertEquals(Map.of("tags", List.of("travel")), trip.task().metadata());
+        assertEquals(0L, trip.task().version());
+        TaskNode flights = trip.children().get(0);
+        assertEquals(List.of(ids.get(1)), trip.children().stream().map(node -> node.task().id()).toList());
+        assertEquals("Window seat", flights.task().constraints());
+        assertEquals(ids.get(2), flights.children().get(0).task().id());
+        Task passport = taskRepository.findById(ids.get(3)).orElseThrow();
+        assertEquals(existing.id(), passport.parentId());
+        assertEquals(trip.task().createdAt(), passport.createdAt());
+    }
+
+    @Test
+    void createTasks_WithUnknownParentId_ShouldWriteNothing() {
+        // Setup
+        Task existing = saveRoot("Travel");
+        List<NewTask> batch = List.of(
+            new NewTask(null, "Renew passport", null, null, null, existing.id(), null, null),
+            new NewTask(null, "Pack", null, null, null, existing.id() + 1000, null, null)
+        );
+
+        // Execute & Verify
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> taskService.createTasks(batch));
+        assertEquals("Parent tasks not found: [" + (existing.id() + 1000) + "]", exception.getMessage());
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateTask_WithSameVersionFromTwoWriters_ShouldApplyOnlyOne() throws Exception {
+        // Setup
+        Task task = saveRoot("Plan trip");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Task>> updates = new ArrayList<>();
+            for (String description : List.of("Plan trip to Oslo", "Plan trip to Rome")) {
+                updates.add(writers.submit(() -> {
+                    start.await();
+                    return taskService.updateTask(task.id(), Task.fromRow(null, description, false, null, null,
+                        null, null, null, null, null, task.version()));
+                }));
+            }
+
+            // Execute
+            start.countDown();
+            List<Task> applied = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Task> update : updates) {
+                try {
+                    applied.add(update.get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+
+            // Verify
+            assertEquals(1, applied.size());
+            assertEquals(1, failures.size());
+            assertInstanceOf(OptimisticLockingFailureException.class, failures.get(0));
+            Task stored = taskRepository.findById(task.id()).orElseThrow();
+            assertEquals(applied.get(0).description(), stored.description());
+            assertEquals(task.version() + 1, stored.version());
+        } finally {
+            writers.shutdownNow();
+            taskRepository.deleteById(task.id());
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.NewTask;
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.common.model.TaskNode;
+import com.example.agent.task.repository.TaskChange;
+import com.example.agent.task.repository.TaskCursor;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskForest;
+import com.example.agent.task.repository.TaskPage;
+import com.example.agent.task.repository.TaskRepository;
+import com.example.agent.task.repository.TaskSort;
+import com.example.agent.task.repository.TaskSummaryPage;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DeadlineScheduler deadlineScheduler;
+
+    private final TaskCache taskCache = new TaskCache(100, 1_000_000, Duration.ofMinutes(5), Duration.ofSeconds(30), 100,
+        Set.of(), new SimpleMeterRegistry(), Ticker.systemTicker());
+
+    private final List<TaskEvent> published = new ArrayList<>();
+
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, taskCache, new TaskStatistics(taskRepository, Duration.ofMinutes(5)),
+            deadlineScheduler, published::addAll, 100, 1000, 32, 3);
+    }
+
+    @Test
+    void getTaskPage_WithoutLimit_ShouldUseDefaultPageSize() {
+        // Setup
+        TaskPage expected = new TaskPage(List.of(), null);
+        when(taskRepository.findPage(TaskFilter.ALL, null, 100)).thenReturn(expected);
+
+        // Execute
+        TaskPage page = taskService.getTaskPage(TaskFilter.ALL, null, null);
+
+        // Verify
+        assertSame(expected, page);
+    }
+
+    @Test
+    void getTaskPage_Overdue_ShouldBeServedByDeadlineScheduler() {
+        // Setup
+        TaskCursor after = new TaskCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 7L);
+        TaskPage expected = new TaskPage(List.of(), null);
+        when(deadlineScheduler.overduePage(after, 50)).thenReturn(expected);
+
+        // Execute
+        TaskPage page = taskService.getTaskPage(TaskFilter.overdueTasks(), after, 50);
+
+        // Verify
+        assertSame(expected, page);
+        verify(taskRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTaskPage_WithLimitAboveMaximum_ShouldCapAtMaxPageSize() {
+        // Setup
+        TaskCursor after = new TaskCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 7L);
+        TaskPage expected = new TaskPage(List.of(), null);
+        when(taskRepository.findPage(TaskFilter.active(), after, 1000)).thenReturn(expected);
+
+        // Execute
+        TaskPage page = taskService.getTaskPage(TaskFilter.active(), after, 50_000);
+
+        // Verify
+        assertSame(expected, page);
+    }
+
+    @Test
+    void getTaskPage_WithNonPositiveLimit_ShouldThrowException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTaskPage(TaskFilter.ALL, null, 0));
+        verify(taskRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTaskSummaryPage_ShouldReadSummariesWithDefaultPageSize() {
+        // Setup
+        TaskSummaryPage expected = new TaskSummaryPage(List.of(), null);
+        when(taskRepository.findSummaryPage(TaskFilter.active(), null, 100)).thenReturn(expected);
+
+        // Execute
+        TaskSummaryPage page = taskService.getTaskSummaryPage(TaskFilter.active(), null, null);
+
+        // Verify
+        assertSame(expected, page);
+        verify(taskRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTasksByMetadata_WithEmptyObject_ShouldThrowException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByMetadata(Map.of(), null, null));
+        verify(taskRepository, never()).findByMetadata(any(), any(), anyInt());
+    }
+
+    @Test
+    void searchTasks_ShouldQueryRepositoryEveryTimeWithCappedLimit() {
+        // Setup
+        TaskFilter filter = new TaskFilter(false, null, false, "HIGH", false, null,
+            LocalDateTime.of(2025, 2, 1, 0, 0), null, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        when(taskRepository.search(filter, TaskSort.DEADLINE, 1000)).thenReturn(List.of());
+
+        // Execute
+        taskService.searchTasks(filter, TaskSort.DEADLINE, 50_000);
+        List<Task> tasks = taskService.searchTasks(filter, TaskSort.DEADLINE, 50_000);
+
+        // Verify
+        assertTrue(tasks.isEmpty());
+        verify(taskRepository, times(2)).search(filter, TaskSort.DEADLINE, 1000);
+    }
+
+    @Test
+    void searchTasks_WithNonPositiveLimit_ShouldThrowException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(TaskFilter.ALL, TaskSort.CREATED, 0));
+        verify(taskRepository, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTaskPage_RepeatedRequest_ShouldBeServedFromCache() {
+        // Setup
+        when(taskRepository.findPage(TaskFilter.active(), null, 100)).thenReturn(new TaskPage(List.of(), null));
+
+        // Execute
+        taskService.getTaskPage(TaskFilter.active(), null, null);
+        taskService.getTaskPage(TaskFilter.active(), null, 100);
+
+        // Verify
+        verify(taskRepository, times(1)).findPage(TaskFilter.active(), null, 100);
+    }
+
+    @Test
+    void getTaskPage_AfterCompletingListedTask_ShouldReload() {
+        // Setup
+        Task task = Task.fromRow(5L, "Task", false, LocalDateTime.now(), null, null, null, null, null, null, null);
+        when(taskRepository.findPage(TaskFilter.active(), null, 100))
+            .thenReturn(new TaskPage(List.of(task), null), new TaskPage(List.of(), null));
+        when(taskRepository.completeAll(eq(List.of(5L)), eq(false), anyInt(), any())).thenReturn(List.of(task.markCompleted()));
+
+        // Execute
+        taskService.getTaskPage(TaskFilter.active(), null, null);
+        taskService.completeTask(5L);
+        TaskPage page = taskService.getTaskPage(TaskFilter.active(), null, null);
+
+        // Verify
+        assertTrue(page.tasks().isEmpty());
+        verify(taskRepository, times(2)).findPage(TaskFilter.active(), null, 100);
+    }
+
+    @Test
+    void streamTasks_ShouldPassEveryTaskToConsumerAndCloseStream() {
+        // Setup
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Task> tasks = List.of(
+            Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null),
+            Task.createNewWithDetails("Task 2", null, "LOW", null, null, null)
+        );
+        when(taskRepository.streamAll(TaskFilter.root(), null))
+            .thenReturn(tasks.stream().onClose(() -> closed.set(true)));
+        List<Task> received = new ArrayList<>();
+
+        // Execute
+        taskService.streamTasks(TaskFilter.root(), null, received::add);
+
+        // Verify
+        assertEquals(tasks, received);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void streamTasks_WhenConsumerFails_ShouldStillCloseStream() {
+        // Setup
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamAll(TaskFilter.ALL, null)).thenReturn(
+            Stream.of(Task.createNew("Task 1")).onClose(() -> closed.set(true)));
+
+        // Execute
+        assertThrows(IllegalStateException.class, () -> taskService.streamTasks(TaskFilter.ALL, null, task -> {
+            throw new IllegalStateException("client disconnected");
+        }));
+
+        // Verify
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void getTaskTree_WithoutDepth_ShouldLoadToMaxTreeDepth() {
+        // Setup
+        TaskNode tree = new TaskNode(Task.createNew("Root"), List.of());
+        when(taskRepository.findTree(1L, 32)).thenReturn(Optional.of(tree));
+
+        // Execute
+        Optional<TaskNode> result = taskService.getTaskTree(1L, null);
+
+        // Verify
+        assertEquals(Optional.of(tree), result);
+    }
+
+    @Test
+    void getTaskTree_WithDepthAboveMaximum_ShouldCapAtMaxTreeDepth() {
+        // Setup
+        when(taskRepository.findTree(1L, 32)).thenReturn(Optional.empty());
+
+        // Execute
+        Optional<TaskNode> result = taskService.getTaskTree(1L, 10_000);
+
+        // Verify
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void getTaskTree_WithNegativeDepth_ShouldThrowException() {
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTaskTree(1L, -1));
+        verify(taskRepository, never()).findTree(anyLong(), anyInt());
+    }
+
+    @Test
+    void getTaskForest_ShouldUsePageSizeAndDepth() {
+        // Setup
+        TaskForest expected = new TaskForest(List.of(), null);
+        when(taskRepository.findForest(null, 100, 2)).thenReturn(expected);
+
+        // Execute
+        TaskForest forest = taskService.getTaskForest(null, null, 2);
+
+        // Verify
+        assertSame(expected, forest);
+    }
+
+    private static NewTask newTask(String ref, String description, Long parentId, String parentRef) {
+        return new NewTask(ref, description, null, "MEDIUM", null, parentId, parentRef, null);
+    }
+
+    @Test
+    void createTasks_ShouldLinkBatchChildrenToAllocatedParentIds() {
+        // Setup
+        List<NewTask> batch = List.of(
+            newTask("trip", "Plan trip", null, null),
+            newTask(null, "Book flights", null, "trip"),
+            newTask(null, "Renew passport", 7L, null)
+        );
+        when(taskRepository.findExistingIds(Set.of(7L))).thenReturn(Set.of(7L));
+        when(taskRepository.allocateIds(3)).thenReturn(List.of(100L, 101L, 102L));
+
+        // Execute
+        List<Long> ids = taskService.createTasks(batch);
+
+        // Verify
+        assertEquals(List.of(100L, 101L, 102L), ids);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Task>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).insertAll(inserted.capture());
+        List<Task> tasks = inserted.getValue();
+        assertEquals(List.of(100L, 101L, 102L), tasks.stream().map(Task::id).toList());
+        assertNull(tasks.get(0).parentId());
+        assertEquals(100L, tasks.get(1).parentId());
+        assertEquals(7L, tasks.get(2).parentId());
+        assertEquals(tasks.get(0).createdAt(), tasks.get(2).createdAt());
+        assertEquals(tasks.stream().map(task -> TaskEvent.of(TaskEvent.Type.CREATED, task)).toList(), published);
+    }
+
+    @Test
+    void createTasks_WithForwardParentRef_ShouldThrowException() {
+        // Setup
+        List<NewTask> batch = List.of(
+            newTask(null, "Book flights", null, "trip"),
+            newTask("trip", "Plan trip", null, null)
+        );
+
+        // Execute & Verify
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> taskService.createTasks(batch));
+        assertTrue(exception.getMessage().startsWith("Task 0:"));
+        verify(taskRepository, never()).allocateIds(anyInt());
+    }
+
+    @Test
+    void createTasks_WithDuplicateRef_ShouldThrowException() {
+        // Setup
+        List<NewTask> batch = List.of(newTask("a", "First", null, null), newTask("a", "Second", null, null));
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(batch));
+    }
+
+    @Test
+    void createTasks_WithUnknownParentId_ShouldThrowExceptionBeforeInserting() {
+        // Setup
+        List<NewTask> batch = List.of(newTask(null, "Orphan", 404L, null));
+        when(taskRepository.findExistingIds(Set.of(404L))).thenReturn(Set.of());
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(batch));
+        verify(taskRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void createTasks_WithInvalidTask_ShouldNameItsIndex() {
+        // Setup
+        List<NewTask> batch = List.of(newTask(null, "Valid", null, null), newTask(null, " ", null, null));
+
+        // Execute & Verify
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> taskService.createTasks(batch));
+        assertEquals("Task 1: Task description cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    void createTasks_WithEmptyOrOversizedBatch_ShouldThrowException() {
+        // Setup
+        List<NewTask> oversized = List.of(
+            newTask(null, "1", null, null), newTask(null, "2", null, null),
+            newTask(null, "3", null, null), newTask(null, "4", null, null));
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(oversized));
+        verify(taskRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void completeTask_ShouldCompleteWithSingleUpdate() {
+        // Setup
+        Task completed = Task.createNew("Task").markCompleted();
+        when(taskRepository.completeAll(eq(List.of(5L)), eq(false), anyInt(), any())).thenReturn(List.of(completed));
+
+        // Execute
+        Task result = taskService.completeTask(5L);
+
+        // Verify
+        assertSame(completed, result);
+        assertEquals(List.of(TaskEvent.of(TaskEvent.Type.COMPLETED, completed)), published);
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void completeTask_WhenAlreadyCompleted_ShouldReturnStoredTask() {
+        // Setup
+        Task stored = Task.createNew("Task").markCompleted();
+        when(taskRepository.completeAll(eq(List.of(5L)), eq(false), anyInt(), any())).thenReturn(List.of());
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(stored));
+
+        // Execute
+        Task result = taskService.completeTask(5L);
+
+        // Verify
+        assertSame(stored, result);
+    }
+
+    @Test
+    void completeTask_WhenMissing_ShouldThrowException() {
+        // Setup
+        when(taskRepository.completeAll(eq(List.of(5L)), eq(false), anyInt(), any())).thenReturn(List.of());
+        when(taskRepository.findById(5L)).thenReturn(Optional.empty());
+
+        // Execute & Verify
+        assertThrows(TaskNotFoundException.class, () -> taskService.completeTask(5L));
+    }
+
+    @Test
+    void completeTasks_ShouldCascadeToMaxTreeDepthWithDistinctIds() {
+        // Setup
+        List<Task> completed = List.of(Task.createNew("Root").markCompleted());
+        when(taskRepository.completeAll(eq(Set.of(1L, 2L)), eq(true), eq(32), any())).thenReturn(completed);
+
+        // Execute
+        List<Task> result = taskService.completeTasks(List.of(1L, 2L, 1L), true);
+
+        // Verify
+        assertSame(completed, result);
+    }
+
+    @Test
+    void completeTasks_WithEmptyOversizedOrNullIds_ShouldThrowException() {
+        // Setup
+        List<Long> withNull = new ArrayList<>(List.of(1L));
+        withNull.add(null);
+
+        // Execute & Verify
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeTasks(List.of(), false));
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeTasks(List.of(1L, 2L, 3L, 4L), false));
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeTasks(withNull, false));
+        verify(taskRepository, never()).completeAll(any(), anyBoolean(), anyInt(), any());
+    }
+
+    @Test
+    void updateTask_ShouldApplyChangesWithSingleUpdate() {
+        // Setup
+        Task changes = Task.createNewWithDetails("Renamed", null, "HIGH", null, null, null);
+        Task before = Task.fromRow(5L, "Task", false, LocalDateTime.now(), null, null, "LOW", null, null, null, 3L);
+        Task after = Task.fromRow(5L, "Renamed", false, before.createdAt(), null, null, "HIGH", null, null, null, 4L);
+        when(taskRepository.updateFields(5L, changes)).thenReturn(Optional.of(new TaskChange(before, after)));
+
+        // Execute
+        Task result = taskService.updateTask(5L, changes);
+
+        // Verify
+        assertSame(after, result);
+        assertEquals(List.of(TaskEvent.of(TaskEvent.Type.UPDATED, after)), published);
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTask_WithStaleVersion_ShouldThrowConflict() {
+        // Setup
+        Task changes = Task.fromRow(null, "Renamed", false, null, null, null, null, null, null, null, 3L);
+        when(taskRepository.updateFields(5L, changes)).thenReturn(Optional.empty());
+        when(taskRepository.existsById(5L)).thenReturn(true);
+
+        // Execute & Verify
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTask(5L, changes));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void updateTask_WhenMissing_ShouldThrowException() {
+        // Setup
+        Task changes = Task.createNew("Renamed");
+        when(taskRepository.updateFields(5L, changes)).thenReturn(Optional.empty());
+
+        // Execute & Verify
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(5L, changes));
+        verify(taskRepository, never()).existsById(anyLong());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.agent.task.service;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskStats;
+import com.example.agent.task.repository.TaskCount;
+import com.example.agent.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatisticsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private final MutableClock clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    void setUp() {
+        taskStatistics = new TaskStatistics(taskRepository, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    void snapshot_BeforeFirstReconciliation_ShouldCountTable() {
+        // Setup
+        when(taskRepository.countTasks(START)).thenReturn(List.of(
+            new TaskCount("HIGH", false, 4, 1),
+            new TaskCount("HIGH", true, 2, 0),
+            new TaskCount(null, false, 3, 2)));
+        when(taskRepository.findActiveDeadlines(START, START.plusMinutes(10))).thenReturn(List.of());
+
+        // Execute
+        TaskStats stats = taskStatistics.snapshot();
+        taskStatistics.snapshot();
+
+        // Verify
+        assertEquals(new TaskStats(9, 7, 2, 3, Map.of("HIGH", 6L), START), stats);
+        verify(taskRepository, times(1)).countTasks(any());
+    }
+
+    @Test
+    void writes_ShouldAdjustCountersWithoutQueryingTable() {
+        // Setup
+        reconcileEmptyTable();
+        Task low = task(1, "LOW", null);
+        Task high = task(2, "HIGH", null);
+
+        // Execute
+        taskStatistics.created(List.of(low, high));
+        taskStatistics.completed(List.of(high));
+        taskStatistics.updated(low, task(1, "MEDIUM", null));
+        TaskStats stats = taskStatistics.snapshot();
+
+        // Verify
+        assertEquals(2, stats.total());
+        assertEquals(1, stats.active());
+        assertEquals(1, stats.completed());
+        assertEquals(Map.of("HIGH", 1L, "MEDIUM", 1L), stats.byPriority());
+        verify(taskRepository, times(1)).countTasks(any());
+    }
+
+    @Test
+    void snapshot_AfterDeadlinePasses_ShouldCountTaskAsOverdue() {
+        // Setup
+        reconcileEmptyTable();
+        Task dueSoon = task(1, null, START.plusMinutes(2));
+        taskStatistics.created(List.of(dueSoon, task(2, null, START.plusMinutes(3))));
+
+        // Execute
+        clock.advance(Duration.ofMinutes(2).plusSeconds(1));
+        TaskStats afterFirstDeadline = taskStatistics.snapshot();
+        taskStatistics.completed(List.of(dueSoon));
+        TaskStats afterCompletion = taskStatistics.snapshot();
+
+        // Verify
+        assertEquals(1, afterFirstDeadline.overdue());
+        assertEquals(0, afterCompletion.overdue());
+        assertEquals(1, afterCompletion.active());
+    }
+
+    @Test
+    void reconcile_ShouldReplaceDriftedCounters() {
+        // Setup
+        reconcileEmptyTable();
+        taskStatistics.created(List.of(task(1, "LOW", null)));
+        clock.advance(Duration.ofMinutes(5));
+        LocalDateTime now = START.plusMinutes(5);
+        when(taskRepository.countTasks(now)).thenReturn(List.of(new TaskCount("LOW", false, 5, 0)));
+        when(taskRepository.findActiveDeadlines(now, now.plusMinutes(10))).thenReturn(List.of(now.plusMinutes(1)));
+
+        // Execute
+        taskStatistics.reconcile();
+        clock.advance(Duration.ofMinutes(2));
+        TaskStats stats = taskStatistics.snapshot();
+
+        // Verify
+        assertEquals(5, stats.total());
+        assertEquals(1, stats.overdue());
+        assertEquals(now, stats.reconciledAt());
+    }
+
+    private void reconcileEmptyTable() {
+        when(taskRepository.countTasks(START)).thenReturn(List.of());
+        when(taskRepository.findActiveDeadlines(START, START.plusMinutes(10))).thenReturn(List.of());
+        taskStatistics.reconcile();
+    }
+
+    private static Task task(long id, String priority, LocalDateTime deadline) {
+        return Task.fromRow(id, "Task " + id, false, START, null, deadline, priority, null, null, null, null);
+    }
+}
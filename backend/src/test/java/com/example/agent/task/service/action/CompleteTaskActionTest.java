@@ -1,5 +1,6 @@
 package com.example.agent.task.service.action;
 
+import com.example.agent.common.model.Task;
 import com.example.agent.task.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,7 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CompleteTaskActionTest {
@@ -27,14 +28,15 @@ class CompleteTaskActionTest {
     void execute_WithValidTaskId_CompletesTask() {
         // Setup
         TaskParameters params = TaskParameters.forCompleteTask("123");
+        Task completed = Task.fromRow(123L, "Buy groceries", true, null, null, null, null, null, null, null, 1L);
+        when(taskService.completeTask(123L)).thenReturn(completed);
 
         // Execute
-        TaskParameters result = action.execute(params);
+        ActionResult result = action.execute(params);
 
         // Verify
-        assertNotNull(result);
-        assertEquals("123", result.taskId());
-        verify(taskService).completeTask(123L);
+        assertEquals(completed, result.task());
+        assertNull(result.tasks());
     }
 
     @Test
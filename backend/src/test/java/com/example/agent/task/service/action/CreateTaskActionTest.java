@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,14 +32,14 @@ class CreateTaskActionTest {
         TaskParameters params = TaskParameters.forCreateTask(
             null,
             "Buy groceries",
-            "2025-04-01T10:00:00",
+            "2099-04-01T10:00:00",
             "HIGH",
             "Must include vegetables"
         );
 
         Task createdTask = Task.createForTesting(
             "Buy groceries",
-            java.time.LocalDateTime.parse("2025-04-01T10:00:00"),
+            java.time.LocalDateTime.parse("2099-04-01T10:00:00"),
             "HIGH",
             "Must include vegetables",
             null,
@@ -48,15 +49,14 @@ class CreateTaskActionTest {
         when(taskService.createTask(any())).thenReturn(createdTask);
 
         // Execute
-        TaskParameters result = action.execute(params);
+        ActionResult result = action.execute(params);
 
         // Verify
-        assertNotNull(result);
-        assertEquals("Buy groceries", result.description());
-        assertEquals("2025-04-01T10:00:00", result.deadline());
-        assertEquals("HIGH", result.priority());
-        assertEquals("Must include vegetables", result.constraints());
-        verify(taskService).createTask(any());
+        assertSame(createdTask, result.task());
+        verify(taskService).createTask(argThat(task -> "Buy groceries".equals(task.description())
+            && "HIGH".equals(task.priority())
+            && "Must include vegetables".equals(task.constraints())
+            && java.time.LocalDateTime.parse("2099-04-01T10:00:00").equals(task.deadline())));
     }
 
     @Test
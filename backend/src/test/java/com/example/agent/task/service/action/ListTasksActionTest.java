@@ -1,6 +1,8 @@
 package com.example.agent.task.service.action;
 
 import com.example.agent.common.model.Task;
+import com.example.agent.task.repository.TaskFilter;
+import com.example.agent.task.repository.TaskPage;
 import com.example.agent.task.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,7 +31,7 @@ class ListTasksActionTest {
     }
 
     @Test
-    void execute_ShouldReturnParameters() {
+    void execute_ShouldReturnFirstPage() {
         // Setup
         TaskParameters parameters = TaskParameters.forCreateTask(
             null, 
@@ -44,15 +46,30 @@ class ListTasksActionTest {
             Task.createNewWithDetails("Task 2", LocalDateTime.now().plusDays(1), "MEDIUM", null, null, null)
         );
         
-        when(taskService.getAllTasks()).thenReturn(mockTasks);
+        when(taskService.getTaskPage(TaskFilter.ALL, null, null)).thenReturn(new TaskPage(mockTasks, null));
         
         // Execute
-        TaskParameters result = listTasksAction.execute(parameters);
+        ActionResult result = listTasksAction.execute(parameters);
         
         // Verify
-        assertNotNull(result);
-        assertEquals(parameters, result);
-        verify(taskService, times(1)).getAllTasks();
+        assertEquals(mockTasks, result.tasks());
+        assertNull(result.task());
+        verify(taskService, times(1)).getTaskPage(TaskFilter.ALL, null, null);
+    }
+
+    @Test
+    void execute_WithFilter_ShouldQueryMatchingTasks() {
+        // Setup
+        TaskFilter filter = new TaskFilter(false, null, false, "HIGH", false,
+            LocalDateTime.of(2025, 6, 2, 0, 0), LocalDateTime.of(2025, 6, 9, 0, 0), null);
+        List<Task> matching = List.of(Task.createNewWithDetails("Task 1", null, "HIGH", null, null, null));
+        when(taskService.getTaskPage(filter, null, null)).thenReturn(new TaskPage(matching, null));
+
+        // Execute
+        ActionResult result = listTasksAction.execute(TaskParameters.forListTasks(filter));
+
+        // Verify
+        assertEquals(matching, result.tasks());
     }
 
     @Test
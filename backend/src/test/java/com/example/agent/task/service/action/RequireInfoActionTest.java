@@ -15,7 +15,7 @@ class RequireInfoActionTest {
     }
 
     @Test
-    void execute_ReturnsUnmodifiedParameters() {
+    void execute_ReturnsNoTasks() {
         // Setup
         TaskParameters params = TaskParameters.forCreateTask(
             "task-123",
@@ -26,10 +26,10 @@ class RequireInfoActionTest {
         );
 
         // Execute
-        TaskParameters result = action.execute(params);
+        ActionResult result = action.execute(params);
 
         // Verify
-        assertEquals(params, result);
+        assertEquals(ActionResult.none(), result);
     }
 
     @Test
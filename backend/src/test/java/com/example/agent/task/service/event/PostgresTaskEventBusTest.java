@@ -0,0 +1,91 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import com.example.agent.task.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresTaskEventBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskEventHub hub;
+
+    private PostgresTaskEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        bus = new PostgresTaskEventBus(jdbcTemplate, dataSource, objectMapper, taskRepository, hub);
+    }
+
+    @Test
+    void deliver_OverdueTask_ShouldBroadcastWithoutValidating() {
+        // Setup
+        Task overdue = Task.fromRow(1L, "Overdue", false, LocalDateTime.of(2025, 1, 1, 9, 0), null,
+            LocalDateTime.of(2025, 1, 2, 9, 0), "HIGH", null, null, null, null);
+        TaskEvent event = TaskEvent.of(TaskEvent.Type.UPDATED, overdue);
+
+        // Execute
+        bus.deliver(List.of(bus.payload(event)));
+
+        // Verify
+        verify(hub).broadcast(List.of(event));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void payload_TooLargeForNotify_ShouldDropTaskAndDeliverLoadsIt() {
+        // Setup
+        Task large = Task.fromRow(2L, "x".repeat(PostgresTaskEventBus.MAX_PAYLOAD_BYTES), false,
+            LocalDateTime.of(2025, 1, 1, 9, 0), null, null, null, null, null, null, null);
+        Task small = Task.fromRow(3L, "Small", false, LocalDateTime.of(2025, 1, 1, 9, 0), null, null, null,
+            null, null, null, null);
+        when(taskRepository.findAllById(List.of(2L, 4L))).thenReturn(List.of(large));
+
+        // Execute
+        String payload = bus.payload(TaskEvent.of(TaskEvent.Type.CREATED, large));
+        // Task 4 was deleted before its notification arrived
+        bus.deliver(List.of(payload, bus.payload(TaskEvent.of(TaskEvent.Type.CREATED, small)),
+            "{\"type\":\"UPDATED\",\"id\":4}"));
+
+        // Verify
+        assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= PostgresTaskEventBus.MAX_PAYLOAD_BYTES);
+        verify(hub).broadcast(List.of(TaskEvent.of(TaskEvent.Type.CREATED, large),
+            TaskEvent.of(TaskEvent.Type.CREATED, small)));
+    }
+
+    @Test
+    void deliver_MalformedPayload_ShouldIgnoreIt() {
+        // Execute
+        bus.deliver(List.of("{not json"));
+
+        // Verify
+        verifyNoInteractions(hub, taskRepository);
+    }
+}
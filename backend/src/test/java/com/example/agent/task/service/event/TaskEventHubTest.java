@@ -0,0 +1,99 @@
+package com.example.agent.task.service.event;
+
+import com.example.agent.common.model.Task;
+import com.example.agent.common.model.TaskEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventHubTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        // Senders never run, so nothing drains the buffers
+        hub = new TaskEventHub(task -> {}, 2, 3, Duration.ofSeconds(15), Duration.ofMinutes(30), meterRegistry);
+    }
+
+    @Test
+    void broadcast_WithinBufferSize_ShouldKeepSubscribers() {
+        // Setup
+        hub.subscribe();
+        hub.subscribe();
+
+        // Execute
+        hub.broadcast(event(1));
+        hub.broadcast(event(2));
+
+        // Verify
+        assertEquals(2, hub.subscriberCount());
+        assertEquals(2.0, meterRegistry.get("agent.task_events.subscribers").gauge().value());
+        assertEquals(0.0, meterRegistry.get("agent.task_events.dropped").counter().count());
+    }
+
+    @Test
+    void broadcast_WhenBufferFull_ShouldDropSlowSubscriber() {
+        // Setup
+        hub.subscribe();
+        hub.broadcast(event(1));
+        hub.broadcast(event(2));
+
+        // Execute
+        hub.broadcast(event(3));
+        hub.broadcast(event(4));
+
+        // Verify
+        assertEquals(0, hub.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("agent.task_events.dropped").counter().count());
+    }
+
+    @Test
+    void broadcast_BurstLargerThanBuffer_ShouldQueueOneBulkEventAndKeepSubscribers() {
+        // Setup
+        hub.subscribe();
+        hub.subscribe();
+        List<TaskEvent> heard = new ArrayList<>();
+        hub.addListener(heard::add);
+        List<TaskEvent> burst = LongStream.rangeClosed(1, 500).mapToObj(TaskEventHubTest::event).toList();
+
+        // Execute
+        hub.broadcast(burst);
+        // The bulk event took one slot, so one more event still fits
+        hub.broadcast(event(501));
+
+        // Verify
+        assertEquals(2, hub.subscriberCount());
+        assertEquals(0.0, meterRegistry.get("agent.task_events.dropped").counter().count());
+        assertEquals(501, heard.size());
+    }
+
+    @Test
+    void broadcast_SmallWrites_ShouldStillDropSubscriberThatFallsBehind() {
+        // Setup
+        hub.subscribe();
+
+        // Execute
+        hub.broadcast(List.of(event(1), event(2)));
+        hub.broadcast(List.of(event(3), event(4)));
+
+        // Verify
+        assertEquals(0, hub.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("agent.task_events.dropped").counter().count());
+    }
+
+    private static TaskEvent event(long id) {
+        Task task = Task.fromRow(id, "Task " + id, false, LocalDateTime.now(), null, null, null, null, null, null, null);
+        return TaskEvent.of(TaskEvent.Type.CREATED, task);
+    }
+}
@@ -0,0 +1,12 @@
+-- H2 has no UNLOGGED tables; same shape as schema-postgresql.sql otherwise.
+CREATE TABLE IF NOT EXISTS conversation_sessions (
+    session_id VARCHAR(64) PRIMARY KEY,
+    context TEXT NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_sessions_expires_at ON conversation_sessions (expires_at);
+
+-- H2 has no partial indexes; full-width stand-ins for those in schema-postgresql.sql.
+CREATE INDEX IF NOT EXISTS idx_tasks_active ON tasks (completed, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_active_deadline ON tasks (completed, deadline);
@@ -4,10 +4,18 @@ import { TaskForm } from './components/TaskForm';
 import { ThemeProvider, createTheme, CssBaseline } from '@mui/material';
 import { Container, Typography, Box, Dialog, DialogTitle, DialogContent, IconButton } from '@mui/material';
 import CloseIcon from '@mui/icons-material/Close';
-import { useState } from 'react';
+import { useEffect, useState } from 'react';
 import { Task } from './types';
+import { subscribeToTaskEvents } from './api/client';
 
-const queryClient = new QueryClient();
+// Task lists change only through pushed events, so they are refetched on events instead of on focus
+const queryClient = new QueryClient({
+  defaultOptions: {
+    queries: {
+      staleTime: Infinity,
+    },
+  },
+});
 
 const theme = createTheme({
   palette: {
@@ -24,6 +32,10 @@ function App() {
   const [selectedTask, setSelectedTask] = useState<Task | undefined>();
   const [isUpdateDialogOpen, setIsUpdateDialogOpen] = useState(false);
 
+  useEffect(() => subscribeToTaskEvents(() => {
+    queryClient.invalidateQueries({ queryKey: ['tasks'] });
+  }), []);
+
   const handleTaskSelect = (task: Task) => {
     setSelectedTask(task);
     setIsUpdateDialogOpen(true);
@@ -18,6 +18,13 @@ export interface Task {
   constraints: string | null;
   parentId: number | null;
   metadata: any;
+  version: number;
+}
+
+export interface TaskNode extends Task {
+  children: TaskNode[];
+  // Set on a task at the depth limit whose subtasks were not loaded; fetch its own tree for them
+  truncated: boolean;
 }
 
 export interface AIResponse {
@@ -25,18 +32,82 @@ export interface AIResponse {
   requiresFollowUp: boolean;
   context?: any;
   resultTask?: Task;
+  resultTasks?: Task[];
+  sessionId?: string;
 }
 
+export interface TaskSummary {
+  id: number;
+  description: string;
+  completed: boolean;
+  priority?: string;
+  deadline?: string;
+  createdAt: string;
+}
+
+export interface TaskSearch {
+  status?: 'active' | 'completed' | 'overdue' | 'all';
+  priority?: string;
+  deadlineAfter?: string;
+  deadlineBefore?: string;
+  createdAfter?: string;
+  createdBefore?: string;
+  parentId?: number;
+  root?: boolean;
+  text?: string;
+  sort?: 'created' | '-created' | 'deadline' | '-deadline';
+  limit?: number;
+}
+
+// One page of a paginated listing. nextCursor is passed back as cursor for the following page
+// and is null on the last one.
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+export interface PageRequest {
+  cursor?: string;
+  limit?: number;
+}
+
+const getPage = <T>(url: string, params?: object) =>
+  api.get<T[]>(url, { params }).then((res): Page<T> => ({
+    items: res.data,
+    nextCursor: (res.headers['x-next-cursor'] as string | undefined) ?? null,
+  }));
+
 export const taskApi = {
-  getTasks: () => api.get<Task[]>('/tasks').then(res => res.data),
-  getActiveTasks: () => api.get<Task[]>('/tasks/active').then(res => res.data),
-  getRootTasks: () => api.get<Task[]>('/tasks/root').then(res => res.data),
-  getSubtasks: (id: number) => api.get<Task[]>(`/tasks/${id}/subtasks`).then(res => res.data),
-  getTasksByPriority: (priority: string) => api.get<Task[]>(`/tasks/priority/${priority}`).then(res => res.data),
-  getOverdueTasks: () => api.get<Task[]>('/tasks/overdue').then(res => res.data),
+  getTasks: (page: PageRequest = {}) => getPage<Task>('/tasks', page),
+  getActiveTasks: (page: PageRequest = {}) => getPage<Task>('/tasks/active', page),
+  getRootTasks: (page: PageRequest = {}) => getPage<Task>('/tasks/root', page),
+  getSubtasks: (id: number, page: PageRequest = {}) => getPage<Task>(`/tasks/${id}/subtasks`, page),
+  getTaskTree: (id: number) => api.get<TaskNode>(`/tasks/${id}/tree`).then(res => res.data),
+  getTaskForest: (page: PageRequest = {}) => getPage<TaskNode>('/tasks/tree', page),
+  getTasksByPriority: (priority: string, page: PageRequest = {}) => getPage<Task>(`/tasks/priority/${priority}`, page),
+  getOverdueTasks: (page: PageRequest = {}) => getPage<Task>('/tasks/overdue', page),
+  getTaskSummaries: (filter: Pick<TaskSearch, 'status' | 'priority' | 'parentId' | 'root'> & PageRequest = {}) =>
+    getPage<TaskSummary>('/tasks/summaries', filter),
+  getTasksByMetadata: (contains: Record<string, unknown>, page: PageRequest = {}) =>
+    getPage<Task>('/tasks/metadata', { ...page, contains: JSON.stringify(contains) }),
+  searchTasks: (search: TaskSearch) => api.get<Task[]>('/tasks/search', { params: search }).then(res => res.data),
   createTask: (task: Partial<Task>) => api.post<Task>('/tasks', task).then(res => res.data),
   completeTask: (id: number) => api.put<Task>(`/tasks/${id}/complete`).then(res => res.data),
   updateTask: (id: number, task: Partial<Task>) => api.put<Task>(`/tasks/${id}`, task).then(res => res.data),
-  processQuery: (query: string, context?: any) =>
-    api.post<AIResponse>('/query', { query, context }).then(res => res.data),
+  processQuery: (query: string, context?: any, sessionId?: string) =>
+    api.post<AIResponse>('/query', { query, context, sessionId }).then(res => res.data),
+};
+
+export type TaskEventType = 'created' | 'updated' | 'completed' | 'overdue';
+
+// Calls onChange for every task change pushed by the server, once for a large write (a 'bulk'
+// event carrying only the ids), and on every (re)connect, since changes made while disconnected
+// are not replayed. Returns a function that closes the stream.
+export const subscribeToTaskEvents = (onChange: (type: TaskEventType | 'bulk' | 'open', task?: Task) => void) => {
+  const source = new EventSource(`${api.defaults.baseURL}/tasks/events`);
+  source.onopen = () => onChange('open');
+  source.addEventListener('bulk', () => onChange('bulk'));
+  (['created', 'updated', 'completed', 'overdue'] as TaskEventType[]).forEach(type =>
+    source.addEventListener(type, event => onChange(type, JSON.parse((event as MessageEvent).data))));
+  return () => source.close();
 };
\ No newline at end of file
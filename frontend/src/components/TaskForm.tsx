@@ -30,6 +30,7 @@ interface ConversationState {
     content: string;
   }>;
   context?: any;
+  sessionId?: string;
   requiresFollowUp?: boolean;
   resultTask?: Task;
 }
@@ -48,8 +49,8 @@ export const TaskForm = ({ activeTask, onClose }: TaskFormProps) => {
   const queryClient = useQueryClient();
 
   const processQueryMutation = useMutation({
-    mutationFn: ({ query, context }: { query: string; context?: any }) => 
-      taskApi.processQuery(query, context),
+    mutationFn: ({ query, context, sessionId }: { query: string; context?: any; sessionId?: string }) => 
+      taskApi.processQuery(query, context, sessionId),
     onSuccess: (data: AIResponse) => {
       queryClient.invalidateQueries({ queryKey: ['tasks'] });
       
@@ -60,6 +61,7 @@ export const TaskForm = ({ activeTask, onClose }: TaskFormProps) => {
           { type: 'assistant', content: data.response }
         ],
         context: data.context,
+        sessionId: data.requiresFollowUp ? data.sessionId : undefined,
         requiresFollowUp: data.requiresFollowUp,
         resultTask: data.resultTask
       }));
@@ -78,7 +80,8 @@ export const TaskForm = ({ activeTask, onClose }: TaskFormProps) => {
     if (query.trim()) {
       processQueryMutation.mutate({ 
         query, 
-        context: conversation.context 
+        context: conversation.sessionId ? undefined : conversation.context,
+        sessionId: conversation.sessionId
       });
     }
   };
@@ -1,6 +1,6 @@
 import { useState } from 'react';
-import { useQuery } from '@tanstack/react-query';
-import { Task, taskApi } from '../api/client';
+import { useInfiniteQuery, useQuery } from '@tanstack/react-query';
+import { Task, TaskNode, taskApi } from '../api/client';
 import { 
   Paper, 
   List, 
@@ -12,7 +12,8 @@ import {
   IconButton,
   Chip,
   Collapse,
-  Alert
+  Alert,
+  Button
 } from '@mui/material';
 import { 
   CheckCircle as CheckCircleIcon,
@@ -32,10 +33,20 @@ interface TaskListProps {
 export const TaskList = ({ onTaskSelect }: TaskListProps) => {
   const [expandedTasks, setExpandedTasks] = useState<number[]>([]);
   
-  const { data: rootTasks, isLoading: isLoadingRoot } = useQuery<Task[]>({
-    queryKey: ['tasks', 'root'],
-    queryFn: taskApi.getRootTasks,
+  // Each request loads a page of root tasks with their subtrees; "Load more" fetches the next page
+  const {
+    data,
+    isLoading: isLoadingRoot,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: ['tasks', 'tree'],
+    queryFn: ({ pageParam }) => taskApi.getTaskForest({ cursor: pageParam }),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: lastPage => lastPage.nextCursor ?? undefined,
   });
+  const rootTasks = data?.pages.flatMap(page => page.items);
 
   const toggleExpand = (taskId: number) => {
     setExpandedTasks(prev => 
@@ -45,15 +56,35 @@ export const TaskList = ({ onTaskSelect }: TaskListProps) => {
     );
   };
 
-  const TaskItem = ({ task, depth = 0 }: { task: Task; depth?: number }) => {
-    const isExpanded = expandedTasks.includes(task.id);
-    
-    const { data: subtasks } = useQuery<Task[]>({
-      queryKey: ['tasks', task.id, 'subtasks'],
-      queryFn: () => taskApi.getSubtasks(task.id),
-      enabled: isExpanded,
+  // Loads the subtasks of a task cut off at the server's depth limit
+  const TruncatedSubtasks = ({ taskId, depth }: { taskId: number; depth: number }) => {
+    const { data: tree, isLoading } = useQuery<TaskNode>({
+      queryKey: ['tasks', 'tree', taskId],
+      queryFn: () => taskApi.getTaskTree(taskId),
     });
 
+    if (isLoading) {
+      return (
+        <Box sx={{ pl: 2 + depth * 3, py: 1 }}>
+          <CircularProgress size={20} />
+        </Box>
+      );
+    }
+
+    return (
+      <List disablePadding>
+        {tree?.children.map(subtask => (
+          <TaskItem key={subtask.id} task={subtask} depth={depth} />
+        ))}
+      </List>
+    );
+  };
+
+  const TaskItem = ({ task, depth = 0 }: { task: TaskNode; depth?: number }) => {
+    const isExpanded = expandedTasks.includes(task.id);
+    const subtasks = task.children;
+    const hasSubtasks = subtasks.length > 0 || task.truncated;
+
     const formatDate = (dateString: string | null) => {
       if (!dateString) return null;
       return new Date(dateString).toLocaleDateString(undefined, {
@@ -126,7 +157,7 @@ export const TaskList = ({ onTaskSelect }: TaskListProps) => {
             secondary={task.constraints}
           />
           
-          {subtasks && subtasks.length > 0 && (
+          {hasSubtasks && (
             <IconButton onClick={() => toggleExpand(task.id)}>
               {isExpanded ? <ExpandLessIcon /> : <ExpandMoreIcon />}
             </IconButton>
@@ -145,7 +176,7 @@ export const TaskList = ({ onTaskSelect }: TaskListProps) => {
           </Collapse>
         )}
 
-        {isExpanded && subtasks && (
+        {isExpanded && subtasks.length > 0 && (
           <Collapse in={isExpanded}>
             <List disablePadding>
               {subtasks.map(subtask => (
@@ -158,6 +189,10 @@ export const TaskList = ({ onTaskSelect }: TaskListProps) => {
             </List>
           </Collapse>
         )}
+
+        {isExpanded && task.truncated && (
+          <TruncatedSubtasks taskId={task.id} depth={depth + 1} />
+        )}
       </>
     );
   };
@@ -187,6 +222,13 @@ export const TaskList = ({ onTaskSelect }: TaskListProps) => {
           <TaskItem key={task.id} task={task} />
         ))}
       </List>
+      {hasNextPage && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', p: 1 }}>
+          <Button onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+            {isFetchingNextPage ? 'Loading...' : 'Load more'}
+          </Button>
+        </Box>
+      )}
     </Paper>
   );
 };
\ No newline at end of file